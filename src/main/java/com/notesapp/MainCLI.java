@@ -1,13 +1,44 @@
 package com.notesapp;
+import com.notesapp.audio.AudioInfo;
+import com.notesapp.audio.AudioProber;
+import com.notesapp.audio.NormalizedAudioCache;
 import com.notesapp.dao.NoteDao;
 import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.SearchIndexDao;
+import com.notesapp.dao.TranscriptCacheDao;
 import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import com.notesapp.dao.TranscriptionJobDao;
+import com.notesapp.db.DatabaseManager;
+import com.notesapp.db.SchemaCache;
+import com.notesapp.db.UnitOfWork;
+import com.notesapp.export.BulkExporter;
 import com.notesapp.export.PdfExporter;
-import com.notesapp.transcription.TranscriptionManager;
+import com.notesapp.model.Recording;
+import com.notesapp.transcription.ChunkedTranscriptionService;
+import com.notesapp.transcription.NormalizingTranscriptionService;
+import com.notesapp.transcription.TranscriptCache;
+import com.notesapp.transcription.TranscriptSegment;
+import com.notesapp.transcription.TranscriptionScheduler;
 import com.notesapp.transcription.TranscriptionService;
 import com.notesapp.transcription.WhisperCppTranscriber;
+import com.notesapp.transcription.WhisperServerPool;
+import com.notesapp.transcription.WhisperTranscribers;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
 import java.nio.file.*;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 public class MainCLI {
     public static void main(String[] args) {
         try {
@@ -25,7 +56,7 @@ public class MainCLI {
                 }
                 /* ---------- List recordings ---------- */
                 case "list" -> {
-                    try (Connection conn = open();
+                    try (Connection conn = openReader();
                          PreparedStatement ps = conn.prepareStatement(
                                  "SELECT id, title, duration_ms, audio_path, tag FROM recordings ORDER BY id"
                          );
@@ -51,6 +82,7 @@ public class MainCLI {
                     }
                     long rid = Long.parseLong(args[1]);
                     try (Connection conn = open()) {
+                        bootstrap(conn);
                         displayRecording(conn, rid);
                     }
                 }
@@ -66,6 +98,7 @@ public class MainCLI {
                         ps.setLong(1, rid);
                         int n = ps.executeUpdate();
                         System.out.println(n > 0 ? "Deleted." : "Nothing deleted.");
+                        if (n > 0) pruneNormalizedAudio(conn);
                     }
                 }
                 /* ---------- Export PDF (use 4-arg exporter) ---------- */
@@ -78,21 +111,52 @@ public class MainCLI {
                     Path out = Paths.get(args[2]);
                     try (Connection conn = open()) {
                         bootstrap(conn);
-                        String title = getString(conn,
-                                "SELECT title FROM recordings WHERE id=?", rid);
-                        String tag = getString(conn,
-                                "SELECT tag FROM recordings WHERE id=?", rid);
-                        String note = getString(conn,
-                                "SELECT content FROM notes WHERE recording_id=?", rid);
-                        String transcript = getString(conn,
-                                "SELECT " + resolveTranscriptBodyColumn(conn) +
-                                        " FROM transcripts WHERE recording_id=?", rid);
+                        RecordingDao.Header header = new RecordingDao(conn).findHeader(rid).orElse(null);
+                        String title = header == null ? "" : header.getTitle();
+                        String tag = header == null ? null : header.getTag();
                         // Avoid dependency on 5-arg PdfExporter; fold tag into title here.
                         String finalTitle = (tag == null || tag.isBlank()) ? title : (title + " [" + tag + "]");
-                        PdfExporter.export(finalTitle, note, transcript, out);
+                        // Note and transcript are streamed from the DB rather than loaded whole.
+                        try (Reader note = new NoteDao(conn).openContentReader(rid);
+                             Reader transcript = new TranscriptDao(conn).openTextReader(rid)) {
+                            PdfExporter.export(finalTitle, note, transcript, out);
+                        }
                         System.out.println("Exported to " + out.toAbsolutePath());
                     }
                 }
+                /* ---------- Bulk export by class / tag / date range ---------- */
+                case "export-bulk" -> {
+                    if (args.length < 2) {
+                        System.out.println("Usage: export-bulk <out.pdf|out.zip> [class=<name>] [tag=<tag>] [from=<yyyy-mm-dd>] [to=<yyyy-mm-dd>] [threads=<n>]");
+                        return;
+                    }
+                    Path out = Paths.get(args[1]);
+                    String className = null, tag = null;
+                    Long from = null, to = null;
+                    int threads = BulkExporter.DEFAULT_THREADS;
+                    for (int i = 2; i < args.length; i++) {
+                        String[] kv = args[i].split("=", 2);
+                        String val = kv.length > 1 ? kv[1] : "";
+                        switch (kv[0]) {
+                            case "class" -> className = val;
+                            case "tag" -> tag = val;
+                            case "from" -> from = startOfDayMs(LocalDate.parse(val));
+                            case "to" -> to = startOfDayMs(LocalDate.parse(val).plusDays(1));   // inclusive
+                            case "threads" -> threads = Integer.parseInt(val);
+                            default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                        }
+                    }
+                    try (Connection conn = open()) { bootstrap(conn); }
+                    List<Recording> selected;
+                    try (Connection conn = openReader()) {
+                        selected = new RecordingDao(conn).findMatching(className, tag, from, to);
+                    }
+                    System.out.println("Exporting " + selected.size() + " recording(s) with " + threads + " thread(s)...");
+                    BulkExporter exporter = new BulkExporter(MainCLI::openReader, threads);
+                    exporter.setProgressListener(p -> System.out.println("  " + p));
+                    BulkExporter.Progress done = exporter.export(selected, out);
+                    System.out.println("Exported to " + out.toAbsolutePath() + ": " + done);
+                }
                 /* ---------- Update note / transcript ---------- */
                 case "set-note" -> {
                     if (args.length < 3) {
@@ -116,7 +180,12 @@ public class MainCLI {
                     String text = args[2];
                     try (Connection conn = open()) {
                         bootstrap(conn);
-                        new TranscriptDao(conn).upsertByRecordingId(rid, text);
+                        UnitOfWork.inTransaction(conn, uow -> {
+                            new TranscriptDao(conn).upsertByRecordingId(rid, text);
+                            // Typed text has no timing: segments of an earlier run would shadow it.
+                            new TranscriptSegmentDao(conn).deleteByRecordingId(rid);
+                            return null;
+                        });
                         System.out.println("Transcript saved.");
                     }
                 }
@@ -139,29 +208,62 @@ public class MainCLI {
                         }
                     }
                 }
-                /* ---------- Search by keyword/tag ---------- */
+                /* ---------- Full-text search (title, tag, transcript, note) ---------- */
                 case "search" -> {
                     if (args.length < 2) {
                         System.out.println("Usage: search <keyword>");
                         return;
                     }
                     String keyword = args[1];
-                    try (Connection conn = open();
-                         PreparedStatement ps = conn.prepareStatement(
-                                 "SELECT id, title, tag FROM recordings " +
-                                         "WHERE title LIKE ? OR tag LIKE ? ORDER BY id")) {
-                        ps.setString(1, "%" + keyword + "%");
-                        ps.setString(2, "%" + keyword + "%");
-                        try (ResultSet rs = ps.executeQuery()) {
-                            while (rs.next()) {
-                                System.out.printf("[%d] %s  (tag: %s)%n",
-                                        rs.getLong("id"),
-                                        rs.getString("title"),
-                                        nullToEmpty(rs.getString("tag")));
-                            }
+                    try (Connection conn = open()) { bootstrap(conn); }
+                    try (Connection conn = openReader()) {
+                        List<SearchIndexDao.SearchHit> hits = new SearchIndexDao(conn).search(keyword, 50);
+                        for (SearchIndexDao.SearchHit h : hits) {
+                            System.out.printf("[%d] %s  (tag: %s, score %.2f)%n    %s%n",
+                                    h.getRecordingId(), h.getTitle(), nullToEmpty(h.getTag()),
+                                    h.getScore(), nullToEmpty(h.getSnippet()));
                         }
+                        if (hits.isEmpty()) System.out.println("No matches.");
                     }
                 }
+                /* ---------- Bulk import of a folder of audio files ---------- */
+                case "import-dir" -> {
+                    if (args.length < 2) {
+                        System.out.println("Usage: import-dir <folder> [batchSize]");
+                        return;
+                    }
+                    Path dir = Paths.get(args[1]);
+                    int batch = args.length > 2 ? Integer.parseInt(args[2]) : RecordingDao.DEFAULT_BATCH_SIZE;
+                    long t0 = System.nanoTime();
+                    List<Long> ids;
+                    try (Connection conn = open();
+                         Stream<Path> files = Files.walk(dir)) {
+                        bootstrap(conn);
+                        Iterator<Recording> rows = files
+                                .filter(Files::isRegularFile)
+                                .filter(MainCLI::isAudioFile)
+                                .sorted()
+                                .map(MainCLI::toRecording)
+                                .iterator();
+                        ids = new RecordingDao(conn).insertBatch(rows, batch);
+                    }
+                    long ms = (System.nanoTime() - t0) / 1_000_000;
+                    System.out.printf("Imported %d recordings in %d ms%s%n", ids.size(), ms,
+                            ids.isEmpty() ? "" : " (ids " + ids.get(0) + ".." + ids.get(ids.size() - 1) + ")");
+                    probeAudio(false, AudioProber.DEFAULT_THREADS);
+                }
+                /* ---------- Fill duration / format / size from audio headers ---------- */
+                case "probe-audio" -> {
+                    boolean all = false;
+                    int threads = AudioProber.DEFAULT_THREADS;
+                    for (int i = 1; i < args.length; i++) {
+                        if (args[i].equals("all")) all = true;
+                        else if (args[i].startsWith("threads=")) threads = Integer.parseInt(args[i].substring(8));
+                        else throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    }
+                    try (Connection conn = open()) { bootstrap(conn); }
+                    probeAudio(all, threads);
+                }
                 /* ---------- Transcribe ---------- */
                 case "transcribe" -> {
                     if (args.length < 3) {
@@ -170,26 +272,100 @@ public class MainCLI {
                     }
                     Path audio = Paths.get(args[1]);
                     String title = args[2];
+                    long rid;
                     try (Connection conn = open()) {
                         bootstrap(conn);
+                        TranscriptSegmentDao.createTable(conn);
+                        TranscriptCacheDao.createTable(conn);
                         var rdao = new RecordingDao(conn);
-                        var ndao = new NoteDao(conn);
-                        var tdao = new TranscriptDao(conn);
-                        long rid = rdao.insert(title, audio.toString(), 0L, System.currentTimeMillis());
-                        System.out.println("Recording created id=" + rid);
-                        Path bin = pathEnv("WHISPER_CPP_BIN");
-                        Path model = pathEnv("WHISPER_CPP_MODEL");
-                        TranscriptionService transcriber = new WhisperCppTranscriber(bin, model);
-                        var manager = new TranscriptionManager(transcriber, ndao, tdao);
-                        String txt;
+                        rid = rdao.insert(title, audio.toString(), 0L, System.currentTimeMillis());
                         try {
-                            txt = manager.transcribeAndStore(rid, audio);
-                        } catch (Exception ex) {
-                            txt = "(transcription unavailable: missing whisper.cpp binary or model)";
-                            tdao.upsertByRecordingId(rid, txt);
+                            rdao.updateAudioInfo(Map.of(rid, AudioInfo.probe(audio)));
+                        } catch (IOException e) {
+                            System.out.println("Could not read audio header: " + e.getMessage());
+                        }
+                    }
+                    System.out.println("Recording created id=" + rid);
+                    Path bin = pathEnv("WHISPER_CPP_BIN");
+                    Path model = pathEnv("WHISPER_CPP_MODEL");
+                    // With WHISPER_LIB set, libwhisper runs in-process; the CLI binary is the fallback.
+                    TranscriptionService whisper = WhisperTranscribers.select(pathEnv("WHISPER_LIB"), model,
+                            new WhisperCppTranscriber(bin, model), System.out::println);
+                    // Audio is resampled to 16 kHz mono once (cached), then long recordings are
+                    // split at pauses and the pieces transcribed in parallel.
+                    TranscriptionService transcriber = new NormalizingTranscriptionService(
+                            new ChunkedTranscriptionService(whisper), new NormalizedAudioCache(NormalizedAudioCache.DEFAULT_DIR));
+                    // No connection is held while whisper runs, so the writer stays free for
+                    // other work; the result is stored in one short transaction, as the scheduler does.
+                    String modelId = transcriber.modelId();
+                    String hash = modelId == null ? null : sha256OrNull(audio);
+                    Optional<TranscriptCache.Hit> hit = Optional.empty();
+                    if (hash != null) {
+                        // A lookup also marks the entry used, so it takes the writer, briefly.
+                        try (Connection conn = open()) { hit = new TranscriptCache(conn).find(hash, modelId); }
+                    }
+                    List<TranscriptSegment> segments = new ArrayList<>();
+                    String text;
+                    boolean transcribed = false;
+                    try {
+                        if (hit.isPresent()) {
+                            // Identical audio already transcribed by this model comes from the cache.
+                            segments.addAll(hit.get().segments());
+                            segments.forEach(System.out::println);
+                            text = hit.get().text();
+                        } else {
+                            // Segments are printed while whisper.cpp is still running.
+                            transcriber.transcribeStreaming(audio, seg -> {
+                                System.out.println(seg);
+                                segments.add(seg);
+                            });
+                            text = segments.stream().map(TranscriptSegment::getText).collect(Collectors.joining("\n"));
                         }
-                        System.out.println("Transcript saved:\n" + txt);
-                        ndao.upsertByRecordingId(rid, "Auto-generated from transcription");
+                        transcribed = true;
+                    } catch (Exception ex) {
+                        text = "(transcription failed: " + ex.getMessage() + ")";
+                        segments.clear();
+                    }
+                    String body = text;
+                    try (Connection conn = open()) {
+                        UnitOfWork.inTransaction(conn, uow -> {
+                            new TranscriptDao(conn).upsertByRecordingId(rid, body);
+                            new TranscriptSegmentDao(conn).replaceAll(rid, segments);
+                            new NoteDao(conn).upsertByRecordingId(rid, "Auto-generated from transcription");
+                            return null;
+                        });
+                        if (transcribed && hit.isEmpty() && hash != null && !body.isBlank()) {
+                            new TranscriptCache(conn).put(hash, modelId, body, segments);
+                        }
+                    }
+                    if (transcribed) System.out.println("Transcript saved (" + segments.size() + " segments).");
+                    else System.out.println("Transcript saved:\n" + body);
+                }
+                case "transcribe-all" -> {
+                    // Queue every recording without a transcript and work the queue in parallel.
+                    int workers = args.length > 1 ? Integer.parseInt(args[1]) : WhisperCppTranscriber.DEFAULT_MAX_CONCURRENT;
+                    try (Connection conn = open()) {
+                        bootstrap(conn);
+                        TranscriptionJobDao.createTable(conn);
+                        pruneNormalizedAudio(conn);
+                    }
+                    // With WHISPER_CPP_SERVER set, each worker gets a warm server that keeps the model loaded.
+                    Path server = pathEnv("WHISPER_CPP_SERVER");
+                    WhisperServerPool pool = server == null ? null : new WhisperServerPool(server, pathEnv("WHISPER_CPP_MODEL"), workers);
+                    TranscriptionService transcriber = pool != null ? pool
+                            : WhisperTranscribers.select(pathEnv("WHISPER_LIB"), pathEnv("WHISPER_CPP_MODEL"),
+                                    new WhisperCppTranscriber(pathEnv("WHISPER_CPP_BIN"), pathEnv("WHISPER_CPP_MODEL"), workers),
+                                    System.out::println);
+                    AutoCloseable backend = transcriber instanceof AutoCloseable c ? c : null;
+                    TranscriptionService normalizing = new NormalizingTranscriptionService(transcriber, new NormalizedAudioCache(NormalizedAudioCache.DEFAULT_DIR));
+                    try (backend; var scheduler = new TranscriptionScheduler(MainCLI::open, normalizing, workers)) {
+                        if (pool != null) pool.start();
+                        int queued = scheduler.enqueueUntranscribed(0);
+                        System.out.println("Queued " + queued + " recording(s); running " + workers + " worker(s).");
+                        scheduler.setProgressListener(p -> System.out.println("  " + p));
+                        long t0 = System.currentTimeMillis();
+                        scheduler.runUntilIdle();
+                        System.out.println("Done in " + (System.currentTimeMillis() - t0) + " ms: " + scheduler.progress());
                     }
                 }
                 default -> printUsage();
@@ -198,63 +374,104 @@ public class MainCLI {
             System.err.println("CLI failed:");
             e.printStackTrace();
             System.exit(1);
+        } finally {
+            DatabaseManager.close();
         }
     }
     /* -------------------- helpers -------------------- */
+    /** Writer lease from the shared connection manager (PRAGMAs already applied). */
     private static Connection open() throws SQLException {
-        Connection conn = DriverManager.getConnection("jdbc:sqlite:data/app.db");
-        try (Statement st = conn.createStatement()) { st.execute("PRAGMA foreign_keys = ON"); }
-        return conn;
+        return DatabaseManager.getConnection();
+    }
+    /** Read-only pooled lease; does not wait on a concurrent writer. */
+    private static Connection openReader() throws SQLException {
+        return DatabaseManager.getReadConnection();
     }
     private static void bootstrap(Connection conn) throws SQLException {
         RecordingDao.createTable(conn);
         NoteDao.createTable(conn);
-        TranscriptDao.createTable(conn);
+        TranscriptDao.migrate(conn);   // older DBs may lack the text column
+        SearchIndexDao.createTable(conn);
         // Ensure tag column exists (idempotent)
-        try (Statement st = conn.createStatement()) {
-            st.execute("ALTER TABLE recordings ADD COLUMN tag TEXT DEFAULT ''");
-        } catch (SQLException ignored) {}
+        if (!SchemaCache.hasColumn(conn, "recordings", "tag")) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("ALTER TABLE recordings ADD COLUMN tag TEXT DEFAULT ''");
+            }
+            SchemaCache.invalidate();
+        }
+    }
+    /** Header in one query; note and transcript are streamed to stdout, never loaded whole. */
+    private static void displayRecording(Connection conn, long rid) throws SQLException, IOException {
+        RecordingDao.Header header = new RecordingDao(conn).findHeader(rid).orElse(null);
+        if (header == null) {
+            System.out.println("No recording with id " + rid);
+            return;
+        }
+        System.out.printf("Title: %s%nTag: %s%n%nNote:%n", header.getTitle(), nullToEmpty(header.getTag()));
+        PrintWriter out = new PrintWriter(System.out);
+        if (header.hasNote()) {
+            try (Reader note = new NoteDao(conn).openContentReader(rid)) { note.transferTo(out); }
+        }
+        out.printf("%n%nTranscript:%n");
+        if (header.hasTranscript()) {
+            try (Reader transcript = new TranscriptDao(conn).openTextReader(rid)) { transcript.transferTo(out); }
+        }
+        out.println();
+        out.flush();
     }
-    private static void displayRecording(Connection conn, long rid) throws SQLException {
-        String title = getString(conn, "SELECT title FROM recordings WHERE id=?", rid);
-        String tag = getString(conn, "SELECT tag FROM recordings WHERE id=?", rid);
-        String note = getString(conn, "SELECT content FROM notes WHERE recording_id=?", rid);
-        String transcript = getString(conn,
-                "SELECT " + resolveTranscriptBodyColumn(conn) +
-                        " FROM transcripts WHERE recording_id=?", rid);
-        System.out.printf("Title: %s%nTag: %s%n%nNote:%n%s%n%nTranscript:%n%s%n",
-                title, tag, note, transcript);
+    /** Drop the 16 kHz copies of recordings that no longer exist. */
+    private static void pruneNormalizedAudio(Connection conn) throws SQLException {
+        List<Path> live = new RecordingDao(conn).findAudioPaths(false).values().stream().map(Paths::get).toList();
+        try {
+            new NormalizedAudioCache(NormalizedAudioCache.DEFAULT_DIR).retainOnly(live);
+        } catch (IOException e) {
+            System.err.println("Could not clean up resampled audio: " + e.getMessage());
+        }
     }
-    private static String getString(Connection conn, String sql, long id) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? rs.getString(1) : "";
-            }
+    private static String sha256OrNull(Path audio) {
+        try {
+            return TranscriptCache.sha256(audio);
+        } catch (IOException e) {
+            return null;   // unreadable audio: let the transcriber report it
         }
     }
     private static Path pathEnv(String var) {
         String val = System.getenv(var);
         return (val == null || val.isBlank()) ? null : Paths.get(val);
     }
-    private static String resolveTranscriptBodyColumn(Connection conn) throws SQLException {
-        if (tableHasColumn(conn, "transcripts", "text")) return "text";
-        if (tableHasColumn(conn, "transcripts", "content")) return "content";
-        try (Statement st = conn.createStatement()) {
-            st.execute("ALTER TABLE transcripts ADD COLUMN text TEXT");
-        }
-        return "text";
+    private static String nullToEmpty(String s) { return s == null ? "" : s; }
+    private static long startOfDayMs(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
-    private static boolean tableHasColumn(Connection conn, String table, String col) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement("PRAGMA table_info(" + table + ")")) {
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next())
-                    if (col.equalsIgnoreCase(rs.getString("name"))) return true;
-            }
+    /** Probe the audio headers of unprobed (or, with {@code all}, every) recording in parallel; one batched update. */
+    private static void probeAudio(boolean all, int threads) throws SQLException, InterruptedException {
+        long t0 = System.nanoTime();
+        Map<Long, Path> paths = new LinkedHashMap<>();
+        try (Connection conn = openReader()) {
+            new RecordingDao(conn).findAudioPaths(!all).forEach((id, p) -> paths.put(id, Paths.get(p)));
+        }
+        if (paths.isEmpty()) return;
+        int[] failed = {0};
+        Map<Long, AudioInfo> found = new AudioProber(threads).probeAll(paths, e -> failed[0]++);
+        int updated;
+        try (Connection conn = open()) {
+            updated = new RecordingDao(conn).updateAudioInfo(found);
         }
-        return false;
+        long withFormat = found.values().stream().filter(AudioInfo::hasFormat).count();
+        System.out.printf("Probed %d file(s) in %d ms: %d updated, %d with WAV format, %d unreadable%n",
+                paths.size(), (System.nanoTime() - t0) / 1_000_000, updated, withFormat, failed[0]);
+    }
+    private static boolean isAudioFile(Path p) {
+        String n = p.getFileName().toString().toLowerCase();
+        return n.endsWith(".wav") || n.endsWith(".mp3") || n.endsWith(".m4a") || n.endsWith(".flac") || n.endsWith(".ogg");
+    }
+    private static Recording toRecording(Path p) {
+        String name = p.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        long modified;
+        try { modified = Files.getLastModifiedTime(p).toMillis(); } catch (IOException e) { modified = System.currentTimeMillis(); }
+        return new Recording(dot > 0 ? name.substring(0, dot) : name, p.toAbsolutePath().toString(), 0, String.valueOf(modified));
     }
-    private static String nullToEmpty(String s) { return s == null ? "" : s; }
     private static void printUsage() {
         System.out.println("""
                 Usage:
@@ -264,11 +481,15 @@ public class MainCLI {
                   show <recordingId>
                   delete <recordingId>
                   export <recordingId> <out.pdf>
+                  export-bulk <out.pdf|out.zip> [class=<name>] [tag=<tag>] [from=<yyyy-mm-dd>] [to=<yyyy-mm-dd>] [threads=<n>]
                   set-note <recordingId> "<content>"
                   set-transcript <recordingId> "<text>"
                   set-tag <recordingId> "<tag>"
                   search <keyword>
                   transcribe <audioPath> "<title>"
+                  import-dir <folder> [batchSize]
+                  probe-audio [all] [threads=<n>]
+                  transcribe-all [workers]
                 """);
     }
 }
@@ -1,4 +1,5 @@
 package com.notesapp;
+import com.notesapp.ui.MainController;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -18,6 +19,11 @@ public class MainFX extends Application {
         stage.setTitle("School Notes App");
         stage.show();
     }
+    @Override
+    public void stop() {
+        // Unsaved note edits are only in memory and the journal until flushed.
+        MainController.closeNotes();
+    }
     public static void main(String[] args) {
         launch();
     }
@@ -1,6 +1,37 @@
 package com.notesapp.agents;
 
-public class Agent {
-    // Auto-generated placeholder after BOM cleanup
-}
+import java.util.function.Function;
+
+/**
+ * One step of the agent pipeline: turns an {@code I} into an {@code O}. Agents are
+ * composed into an {@link AgentGraph}, which may call {@link #process} from several
+ * threads at once, so implementations must be thread-safe (stateless is easiest).
+ */
+@FunctionalInterface
+public interface Agent<I, O> {
+
+    O process(I input) throws Exception;
 
+    /** Name used in results, errors and thread names. */
+    default String name() {
+        String n = getClass().getSimpleName();
+        return n.isEmpty() || n.contains("$$Lambda") ? "agent" : n;
+    }
+
+    /** This agent fed through {@code adapter}, e.g. to turn the previous stage's DTO into this one's. */
+    default <V> Agent<V, O> from(Function<? super V, ? extends I> adapter) {
+        Agent<I, O> self = this;
+        return new Agent<>() {
+            @Override public O process(V input) throws Exception { return self.process(adapter.apply(input)); }
+            @Override public String name() { return self.name(); }
+        };
+    }
+
+    /** A named agent from a function, for small glue steps. */
+    static <I, O> Agent<I, O> of(String name, Function<? super I, ? extends O> fn) {
+        return new Agent<>() {
+            @Override public O process(I input) { return fn.apply(input); }
+            @Override public String name() { return name; }
+        };
+    }
+}
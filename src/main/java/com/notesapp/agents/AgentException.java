@@ -1,6 +1,14 @@
 package com.notesapp.agents;
 
-public class AgentException {
-    // Auto-generated placeholder after BOM cleanup
-}
+/** Failure of one agent on one input; names the agent so pipeline errors say where they happened. */
+public class AgentException extends Exception {
+    private static final long serialVersionUID = 1L;
+    private final String agent;
+
+    public AgentException(String agent, String message, Throwable cause) {
+        super(agent + ": " + message, cause);
+        this.agent = agent;
+    }
 
+    public String getAgent() { return agent; }
+}
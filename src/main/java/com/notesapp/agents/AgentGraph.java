@@ -0,0 +1,223 @@
+package com.notesapp.agents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A DAG of agents that many inputs flow through at once.
+ * <p>
+ * Every node has a bounded inbox and a fixed number of workers on virtual threads. A worker
+ * takes an item, runs the node's agent and hands the output to each child's inbox, blocking
+ * while that inbox is full, so a slow stage throttles the stages before it (and finally
+ * {@link #submit}) instead of letting work pile up in memory. A node with several parents
+ * receives the outputs of all of them.
+ * <p>
+ * An input that makes an agent throw (anything, including errors and interrupts) stops there
+ * and is reported as a failed {@link AgentResult}; every output of a leaf node is reported as a
+ * successful one.
+ * <pre>
+ * AgentGraph&lt;Path&gt; graph = new AgentGraph&lt;&gt;();
+ * var transcribed = graph.input().then(importer, 2).then(transcriber, 4);
+ * transcribed.then(saver, 1);
+ * transcribed.then(exporter, 2);
+ * graph.start();
+ * for (Path p : files) graph.submit(p);
+ * graph.complete();
+ * graph.await();
+ * </pre>
+ */
+public final class AgentGraph<I> implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /** Item travelling through the graph together with the input it came from. */
+    private record Envelope(Object source, Object value) {}
+    private static final Envelope END = new Envelope(null, null);
+
+    /** A stage of the graph producing {@code T}s; extend the graph from it with {@link #then}. */
+    public final class Node<T> {
+        private final Agent<Object, Object> agent;
+        private final int workers;
+        private final BlockingQueue<Envelope> inbox;
+        private final List<Node<?>> children = new ArrayList<>();
+        private final AtomicInteger openParents = new AtomicInteger();
+        private final AtomicInteger liveWorkers = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        private Node(Agent<?, ?> agent, int workers) {
+            this.agent = (Agent<Object, Object>) agent;
+            this.workers = workers;
+            this.inbox = agent == null ? null : new ArrayBlockingQueue<>(capacity);
+        }
+
+        /** Feed this node's outputs to {@code next}, run by {@code workers} concurrent workers. */
+        public <O> Node<O> then(Agent<? super T, O> next, int workers) {
+            return join(next, workers, List.of(this));
+        }
+
+        public <O> Node<O> then(Agent<? super T, O> next) {
+            return then(next, 1);
+        }
+
+        public String name() { return agent == null ? "input" : agent.name(); }
+
+        private AgentGraph<?> graph() { return AgentGraph.this; }
+    }
+
+    private final int capacity;
+    private final Node<I> input = new Node<>(null, 0);
+    private final List<Node<?>> nodes = new ArrayList<>();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile Consumer<AgentResult<?>> listener = r -> {};
+    private ExecutorService executor;
+    private boolean completed;
+    private volatile boolean closed;
+
+    public AgentGraph() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** {@code capacity} is the size of each node's inbox. */
+    public AgentGraph(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.capacity = capacity;
+    }
+
+    /** The node that {@link #submit}ted inputs come out of. */
+    public Node<I> input() { return input; }
+
+    /** A node fed by all of {@code parents} (fan-in). */
+    public synchronized <T, O> Node<O> join(Agent<? super T, O> agent, int workers, List<? extends Node<? extends T>> parents) {
+        if (executor != null) throw new IllegalStateException("Graph already started");
+        if (workers <= 0) throw new IllegalArgumentException("workers must be > 0");
+        if (parents.isEmpty()) throw new IllegalArgumentException("A node needs at least one parent");
+        Node<O> node = new Node<>(agent, workers);
+        for (Node<? extends T> p : parents) {
+            if (p.graph() != this) throw new IllegalArgumentException("Parent belongs to another graph");
+            p.children.add(node);
+            node.openParents.incrementAndGet();
+        }
+        nodes.add(node);
+        return node;
+    }
+
+    /** Called, possibly concurrently, for every leaf output and every failure. */
+    public void setResultListener(Consumer<AgentResult<?>> listener) {
+        this.listener = listener == null ? r -> {} : listener;
+    }
+
+    /** Start every node's workers on virtual threads. */
+    public synchronized void start() {
+        if (executor != null) throw new IllegalStateException("Graph already started");
+        if (input.children.isEmpty()) throw new IllegalStateException("Graph has no agents");
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (Node<?> node : nodes) {
+            node.liveWorkers.set(node.workers);
+            for (int i = 0; i < node.workers; i++) executor.execute(() -> work(node));
+        }
+    }
+
+    /** Hand {@code item} to the first stages; blocks while they are backed up. */
+    public void submit(I item) throws InterruptedException {
+        synchronized (this) {
+            if (executor == null) throw new IllegalStateException("Graph not started");
+            if (completed) throw new IllegalStateException("Graph already completed");
+        }
+        Envelope env = new Envelope(item, item);
+        for (Node<?> child : input.children) child.inbox.put(env);
+    }
+
+    /** No more inputs: nodes finish once everything already submitted has passed through. */
+    public void complete() throws InterruptedException {
+        synchronized (this) {
+            if (completed) return;
+            completed = true;
+        }
+        closeOutputs(input);
+    }
+
+    /** Wait until every node has finished; call after {@link #complete()}. */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    public void await() throws InterruptedException {
+        await(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    public int succeeded() { return succeeded.get(); }
+    public int failed() { return failed.get(); }
+
+    /** Interrupts all workers; anything still in flight is dropped. */
+    @Override public synchronized void close() {
+        closed = true;
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private void work(Node<?> node) {
+        try {
+            for (Envelope env; (env = node.inbox.take()) != END; ) {
+                Object out;
+                try {
+                    out = node.agent.process(env.value());
+                } catch (InterruptedException e) {
+                    if (closed) return;   // close(): in-flight work is dropped
+                    report(AgentResult.failure(env.source(), new AgentException(node.name(), "interrupted", e)));
+                    continue;
+                } catch (Throwable e) {
+                    report(AgentResult.failure(env.source(), new AgentException(node.name(), String.valueOf(e.getMessage()), e)));
+                    continue;
+                }
+                if (node.children.isEmpty()) {
+                    report(AgentResult.success(env.source(), node.name(), out));
+                } else {
+                    Envelope next = new Envelope(env.source(), out);
+                    for (Node<?> child : node.children) child.inbox.put(next);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // However this worker stops, the last one out must end its children or await() never returns.
+            if (node.liveWorkers.decrementAndGet() == 0 && !closed) endOutputs(node);
+        }
+    }
+
+    /** {@link #closeOutputs} even if this thread's interrupt flag is set; restores the flag. */
+    private static void endOutputs(AgentGraph<?>.Node<?> node) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            closeOutputs(node);
+        } catch (InterruptedException e) {
+            interrupted = true;   // close() while handing over END: nobody is left to read it
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    /** {@code node} will produce nothing more: tell children whose parents are now all done. */
+    private static void closeOutputs(AgentGraph<?>.Node<?> node) throws InterruptedException {
+        for (AgentGraph<?>.Node<?> child : node.children) {
+            if (child.openParents.decrementAndGet() == 0) {
+                for (int i = 0; i < child.workers; i++) child.inbox.put(END);
+            }
+        }
+    }
+
+    private void report(AgentResult<?> result) {
+        (result.isSuccess() ? succeeded : failed).incrementAndGet();
+        try {
+            listener.accept(result);
+        } catch (RuntimeException e) {
+            System.err.println("Agent result listener failed: " + e.getMessage());
+        }
+    }
+}
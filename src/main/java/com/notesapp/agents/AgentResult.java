@@ -1,6 +1,39 @@
 package com.notesapp.agents;
 
-public class AgentResult {
-    // Auto-generated placeholder after BOM cleanup
-}
+/**
+ * Outcome of one submitted input at one end of an {@link AgentGraph}: the value a leaf
+ * agent produced, or the error that stopped the input on its way there.
+ */
+public final class AgentResult<O> {
+    private final Object source;
+    private final String agent;
+    private final O value;
+    private final AgentException error;
+
+    private AgentResult(Object source, String agent, O value, AgentException error) {
+        this.source = source;
+        this.agent = agent;
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <O> AgentResult<O> success(Object source, String agent, O value) {
+        return new AgentResult<>(source, agent, value, null);
+    }
 
+    public static <O> AgentResult<O> failure(Object source, AgentException error) {
+        return new AgentResult<>(source, error.getAgent(), null, error);
+    }
+
+    /** The input originally submitted to the graph. */
+    public Object getSource() { return source; }
+    /** The leaf agent that produced the value, or the agent that failed. */
+    public String getAgent() { return agent; }
+    public O getValue() { return value; }
+    public AgentException getError() { return error; }
+    public boolean isSuccess() { return error == null; }
+
+    @Override public String toString() {
+        return isSuccess() ? agent + "(" + source + ") = " + value : agent + "(" + source + ") failed: " + error.getMessage();
+    }
+}
@@ -3,64 +3,82 @@ package com.notesapp.agents;
 import com.notesapp.agents.dto.*;
 import com.notesapp.agents.impl.*;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 public class AgentRunner {
 
+    /** Workers per stage; transcription is the slow one. */
+    private static final int IMPORT_WORKERS = 2, TRANSCRIBE_WORKERS = 4, SAVE_WORKERS = 1, EXPORT_WORKERS = 2;
+
     public static void main(String[] args) {
         System.out.println("🤖 Running School Notes Agent System...\n");
 
-        try {
-            // ===== 1️⃣ Import Audio =====
-            ImportAudioAgent importAgent = new ImportAudioAgent();
-            ImportAudioIn importIn = new ImportAudioIn();
-            importIn.setSource(Path.of("C:/mock/audio/source.wav"));
-            importIn.setDest(Path.of("C:/mock/audio/dest.wav"));
-            importAgent.run(importIn);
-            System.out.println("✅ ImportAudioAgent executed.\n");
-
-            // ===== 2️⃣ Transcribe Audio =====
-            TranscribeAudioAgent transcribeAgent = new TranscribeAudioAgent();
-            TranscribeAudioIn transcribeIn = new TranscribeAudioIn();
-            transcribeIn.setAudioPath(Path.of("C:/mock/audio/dest.wav"));
-            transcribeAgent.run(transcribeIn);
-            System.out.println("✅ TranscribeAudioAgent executed.\n");
+        List<Path> sources = new ArrayList<>();
+        for (String a : args) sources.add(Path.of(a));
+        if (sources.isEmpty()) sources.add(Path.of("C:/mock/audio/source.wav"));
 
-            // ===== 3️⃣ Save Note =====
-            SaveNoteAgent saveAgent = new SaveNoteAgent();
-            SaveNoteIn saveIn = new SaveNoteIn();
-            saveIn.setTitle("Lecture Notes - Week 5");
-            saveIn.setContent("These are sample lecture notes saved via the agent system.");
-            saveAgent.run(saveIn);
-            System.out.println("✅ SaveNoteAgent executed.\n");
+        // import → transcribe → save → { tag, export }, every recording in flight at once
+        AgentGraph<Path> graph = new AgentGraph<>();
+        try (graph) {
+            var saved = graph.input()
+                    .then(new ImportAudioAgent().from(AgentRunner::importIn), IMPORT_WORKERS)
+                    .then(new TranscribeAudioAgent().from(AgentRunner::transcribeIn), TRANSCRIBE_WORKERS)
+                    .then(new SaveNoteAgent().from(AgentRunner::saveIn), SAVE_WORKERS);
+            saved.then(new TagNoteAgent().from(AgentRunner::tagIn));
+            saved.then(new ExportNotePdfAgent().from(AgentRunner::exportIn), EXPORT_WORKERS);
 
-            // ===== 4️⃣ Tag Note =====
-            TagNoteAgent tagAgent = new TagNoteAgent();
-            TagNoteIn tagIn = new TagNoteIn();
-            tagIn.setNoteId(1);
-            tagIn.setTags(List.of("JavaFX", "OOP", "SchoolNotes"));
-            tagAgent.run(tagIn);
-            System.out.println("✅ TagNoteAgent executed.\n");
+            graph.setResultListener(r -> System.out.println((r.isSuccess() ? "✅ " : "❌ ") + r));
+            graph.start();
+            for (Path source : sources) graph.submit(source);
+            graph.complete();
+            graph.await();
+            System.out.println("\nPipeline finished: " + graph.succeeded() + " result(s), " + graph.failed() + " failure(s).\n");
 
-            // ===== 5️⃣ Search Notes =====
-            SearchNotesAgent searchAgent = new SearchNotesAgent();
+            // ===== Search runs once, over everything saved =====
             SearchNotesIn searchIn = new SearchNotesIn();
             searchIn.setKeyword("Lecture");
-            searchAgent.run(searchIn);
+            new SearchNotesAgent().run(searchIn);
             System.out.println("✅ SearchNotesAgent executed.\n");
 
-            // ===== 6️⃣ Export PDF =====
-            ExportNotePdfAgent exportAgent = new ExportNotePdfAgent();
-            ExportNotePdfIn exportIn = new ExportNotePdfIn();
-            exportIn.setNoteId(1);
-            exportIn.setExportPath(Path.of("C:/mock/exports/lecture5.pdf"));
-            exportAgent.run(exportIn);
-            System.out.println("✅ ExportNotePdfAgent executed.\n");
-
             System.out.println("🎯 All agents executed successfully.");
         } catch (Exception e) {
             System.err.println("🔥 AgentRunner failed: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    private static ImportAudioIn importIn(Path source) {
+        ImportAudioIn in = new ImportAudioIn();
+        in.setSource(source);
+        in.setDest(Path.of("data/recordings").resolve(source.getFileName()));
+        return in;
+    }
+
+    private static TranscribeAudioIn transcribeIn(ImportAudioIn imported) {
+        TranscribeAudioIn in = new TranscribeAudioIn();
+        in.setAudioPath(imported.getDest());
+        return in;
+    }
+
+    private static SaveNoteIn saveIn(TranscribeAudioOut transcribed) {
+        SaveNoteIn in = new SaveNoteIn();
+        in.setTitle("Lecture Notes - " + transcribed.getTranscriptId());
+        in.setContent("These are sample lecture notes saved via the agent system.");
+        return in;
+    }
+
+    private static TagNoteIn tagIn(SaveNoteOut saved) {
+        TagNoteIn in = new TagNoteIn();
+        in.setNoteId(saved.getNoteId());
+        in.setTags(List.of("JavaFX", "OOP", "SchoolNotes"));
+        return in;
+    }
+
+    private static ExportNotePdfIn exportIn(SaveNoteOut saved) {
+        ExportNotePdfIn in = new ExportNotePdfIn();
+        in.setNoteId(saved.getNoteId());
+        in.setExportPath(Path.of("data/exports/note-" + saved.getNoteId() + ".pdf"));
+        return in;
+    }
 }
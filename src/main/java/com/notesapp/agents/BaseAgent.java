@@ -1,6 +1,21 @@
 package com.notesapp.agents;
 
-public class BaseAgent {
-    // Auto-generated placeholder after BOM cleanup
-}
+import java.util.Optional;
+
+/**
+ * Convenience base for agents that are also called directly (e.g. from the UI):
+ * {@link #run} processes one input and reports a failure instead of throwing.
+ */
+public abstract class BaseAgent<I, O> implements Agent<I, O> {
 
+    /** Process {@code input} on the calling thread; empty if the agent failed. */
+    public Optional<O> run(I input) {
+        try {
+            return Optional.ofNullable(process(input));
+        } catch (Exception e) {
+            System.err.println(name() + " failed: " + e.getMessage());
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package com.notesapp.agents.impl;
 
+import com.notesapp.agents.BaseAgent;
 import com.notesapp.agents.dto.SearchNotesIn;
 import com.notesapp.agents.dto.SearchNotesOut;
-import java.util.Optional;
-import java.util.List;
+import com.notesapp.dao.SearchCache;
+import com.notesapp.dao.SearchIndexDao;
+import com.notesapp.db.DatabaseManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
 
-public class SearchNotesAgent {
-    public Optional<SearchNotesOut> run(SearchNotesIn input) {
+public class SearchNotesAgent extends BaseAgent<SearchNotesIn, SearchNotesOut> {
+    private static final int MAX_RESULTS = 50;
+    // Shared by every instance: repeated and as-you-type queries are answered from memory until the next write.
+    private static final SearchCache CACHE = new SearchCache();
+    private static volatile boolean indexReady;
+
+    @Override
+    public SearchNotesOut process(SearchNotesIn input) throws SQLException {
         System.out.println("🔍 Searching notes...");
         SearchNotesOut out = new SearchNotesOut();
-        try {
-            out.setResults(List.of());
-        } catch (Exception e) {
-            e.printStackTrace();
+        // Make sure the index exists (once per process), then query it on a pooled read-only connection.
+        if (!indexReady) {
+            try (Connection w = DatabaseManager.getConnection()) {
+                SearchIndexDao.createTable(w);
+            }
+            indexReady = true;
+        }
+        try (Connection r = DatabaseManager.getReadConnection()) {
+            out.setResults(new ArrayList<>(CACHE.search(r, input.getKeyword(), MAX_RESULTS)));
         }
-        return Optional.of(out);
+        return out;
     }
 }
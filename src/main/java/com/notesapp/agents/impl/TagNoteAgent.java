@@ -1,11 +1,12 @@
 package com.notesapp.agents.impl;
 
+import com.notesapp.agents.BaseAgent;
 import com.notesapp.agents.dto.TagNoteIn;
-import java.util.Optional;
 
-public class TagNoteAgent {
-    public Optional<String> run(TagNoteIn input) {
+public class TagNoteAgent extends BaseAgent<TagNoteIn, String> {
+    @Override
+    public String process(TagNoteIn input) {
         System.out.println("?? Tagging note...");
-        return Optional.of("ok");
+        return "ok";
     }
 }
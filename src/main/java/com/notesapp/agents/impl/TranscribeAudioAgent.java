@@ -1,18 +1,15 @@
 package com.notesapp.agents.impl;
 
+import com.notesapp.agents.BaseAgent;
 import com.notesapp.agents.dto.TranscribeAudioIn;
 import com.notesapp.agents.dto.TranscribeAudioOut;
-import java.util.Optional;
 
-public class TranscribeAudioAgent {
-    public Optional<TranscribeAudioOut> run(TranscribeAudioIn input) {
+public class TranscribeAudioAgent extends BaseAgent<TranscribeAudioIn, TranscribeAudioOut> {
+    @Override
+    public TranscribeAudioOut process(TranscribeAudioIn input) {
         System.out.println("🗣 Transcribing audio...");
         TranscribeAudioOut out = new TranscribeAudioOut();
-        try {
-            out.setTranscriptId("mock-transcript-id");
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return Optional.of(out);
+        out.setTranscriptId("mock-transcript-id");
+        return out;
     }
 }
@@ -0,0 +1,177 @@
+package com.notesapp.audio;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+/**
+ * Splits a long WAV file into chunks that can be transcribed independently.
+ * <p>
+ * Each cut is placed at the quietest analysis window in the last part of a chunk, so cuts
+ * land in pauses rather than mid-word. Each chunk also runs {@code overlap} past its cut, into
+ * the start of the next chunk, so a word clipped at the cut is still heard whole once. The
+ * file is read twice, as a stream: once to measure loudness and once to write the chunks.
+ */
+public final class AudioChunker {
+    public static final Duration DEFAULT_CHUNK = Duration.ofSeconds(60);
+    public static final Duration DEFAULT_OVERLAP = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_SEARCH_WINDOW = Duration.ofSeconds(10);
+    private static final int ANALYSIS_MS = 20;
+    /** One piece of the source recording. */
+    public static final class Chunk {
+        private final int index;
+        private final Path file;
+        private final long startMs;
+        private final long endMs;
+        public Chunk(int index, Path file, long startMs, long endMs) {
+            this.index = index;
+            this.file = file;
+            this.startMs = startMs;
+            this.endMs = endMs;
+        }
+        public int getIndex() { return index; }
+        public Path getFile() { return file; }
+        /** Where the chunk starts in the source recording. */
+        public long getStartMs() { return startMs; }
+        /** Where the chunk ends in the source recording, overlap included. */
+        public long getEndMs() { return endMs; }
+    }
+    private final long chunkMs;
+    private final long overlapMs;
+    private final long searchMs;
+    public AudioChunker() {
+        this(DEFAULT_CHUNK, DEFAULT_OVERLAP, DEFAULT_SEARCH_WINDOW);
+    }
+    /**
+     * @param chunk        target chunk length; chunks are at most this long plus {@code overlap}
+     * @param overlap      audio each chunk repeats from the start of the next
+     * @param searchWindow how far before the target length to look for a pause
+     */
+    public AudioChunker(Duration chunk, Duration overlap, Duration searchWindow) {
+        this.chunkMs = Math.max(ANALYSIS_MS * 2, chunk.toMillis());
+        this.overlapMs = Math.max(0, overlap.toMillis());
+        this.searchMs = Math.min(Math.max(ANALYSIS_MS, searchWindow.toMillis()), chunkMs / 2);
+    }
+    /** Settings as {@code chunk/overlap/search} milliseconds. */
+    @Override public String toString() {
+        return chunkMs + "/" + overlapMs + "/" + searchMs;
+    }
+    /** True if {@code audio} is a PCM file javax.sound can read and that is longer than one chunk. */
+    public boolean shouldSplit(Path audio) {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(audio.toFile())) {
+            AudioFormat f = in.getFormat();
+            boolean pcm = f.getEncoding() == AudioFormat.Encoding.PCM_SIGNED
+                    || f.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED;
+            return pcm && in.getFrameLength() > 0
+                    && in.getFrameLength() / f.getFrameRate() * 1000 > chunkMs + searchMs;
+        } catch (UnsupportedAudioFileException | IOException e) {
+            return false;
+        }
+    }
+    /**
+     * Write the chunks of {@code wav} into {@code outDir} ({@code chunk-000.wav}, ...), in order.
+     * A recording no longer than one chunk comes back as a single chunk pointing at {@code wav}.
+     */
+    public List<Chunk> split(Path wav, Path outDir) throws IOException, UnsupportedAudioFileException {
+        AudioFormat format;
+        long totalFrames;
+        float[] energy;
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(wav.toFile())) {
+            format = in.getFormat();
+            totalFrames = in.getFrameLength();
+            energy = energy(in);
+        }
+        float rate = format.getFrameRate();
+        long framesPerWindow = Math.max(1, Math.round(rate * ANALYSIS_MS / 1000));
+        if (totalFrames <= 0) totalFrames = energy.length * framesPerWindow;
+        List<Integer> cuts = boundaries(energy, (int) (chunkMs / ANALYSIS_MS), (int) (searchMs / ANALYSIS_MS));
+        List<Chunk> chunks = new ArrayList<>();
+        if (cuts.size() == 1) {
+            chunks.add(new Chunk(0, wav, 0, Math.round(totalFrames / rate * 1000)));
+            return chunks;
+        }
+        Files.createDirectories(outDir);
+        long overlapFrames = Math.round(rate * overlapMs / 1000);
+        for (int i = 0; i < cuts.size(); i++) {
+            long start = cuts.get(i) * framesPerWindow;
+            long end = i + 1 < cuts.size() ? Math.min(totalFrames, cuts.get(i + 1) * framesPerWindow + overlapFrames) : totalFrames;
+            Path file = outDir.resolve(String.format("chunk-%03d.wav", i));
+            write(wav, start, end - start, file);
+            chunks.add(new Chunk(i, file, Math.round(start / rate * 1000), Math.round(end / rate * 1000)));
+        }
+        return chunks;
+    }
+    /**
+     * Cut points, in analysis windows, starting with 0: each chunk ends at the quietest window
+     * among the {@code searchWindows} before it would reach {@code chunkWindows}.
+     */
+    static List<Integer> boundaries(float[] energy, int chunkWindows, int searchWindows) {
+        List<Integer> cuts = new ArrayList<>();
+        cuts.add(0);
+        int pos = 0;
+        while (energy.length - pos > chunkWindows + searchWindows) {
+            int target = pos + chunkWindows;
+            int best = target;
+            for (int w = target; w > Math.max(pos, target - searchWindows); w--) {
+                if (energy[w] < energy[best]) best = w;
+            }
+            cuts.add(best);
+            pos = best;
+        }
+        return cuts;
+    }
+    /** Mean square amplitude per analysis window, over all channels. */
+    private static float[] energy(AudioInputStream source) throws IOException {
+        AudioFormat src = source.getFormat();
+        AudioFormat pcm16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, src.getSampleRate(), 16,
+                src.getChannels(), src.getChannels() * 2, src.getSampleRate(), false);
+        AudioInputStream in = src.matches(pcm16) ? source : AudioSystem.getAudioInputStream(pcm16, source);
+        int samplesPerWindow = Math.max(1, Math.round(src.getFrameRate() * ANALYSIS_MS / 1000)) * src.getChannels();
+        float[] energy = new float[1024];
+        int windows = 0;
+        byte[] buf = new byte[samplesPerWindow * 2 * 64];
+        double sum = 0;
+        int inWindow = 0;
+        int n;
+        // readNBytes fills the buffer except at end of stream, so samples never straddle reads.
+        while ((n = in.readNBytes(buf, 0, buf.length)) > 0) {
+            for (int i = 0; i + 1 < n; i += 2) {
+                short s = (short) ((buf[i + 1] << 8) | (buf[i] & 0xff));
+                sum += (double) s * s;
+                if (++inWindow == samplesPerWindow) {
+                    if (windows == energy.length) energy = Arrays.copyOf(energy, windows * 2);
+                    energy[windows++] = (float) (sum / samplesPerWindow);
+                    sum = 0;
+                    inWindow = 0;
+                }
+            }
+        }
+        if (inWindow > 0) {
+            if (windows == energy.length) energy = Arrays.copyOf(energy, windows + 1);
+            energy[windows++] = (float) (sum / inWindow);
+        }
+        return Arrays.copyOf(energy, windows);
+    }
+    private static void write(Path wav, long startFrame, long frames, Path out) throws IOException {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(wav.toFile())) {
+            long skip = startFrame * in.getFormat().getFrameSize();
+            while (skip > 0) {
+                long s = in.skip(skip);
+                if (s <= 0) throw new IOException("Unexpected end of " + wav);
+                skip -= s;
+            }
+            try (AudioInputStream part = new AudioInputStream(in, in.getFormat(), frames)) {
+                AudioSystem.write(part, AudioFileFormat.Type.WAVE, out.toFile());
+            }
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio file " + wav, e);
+        }
+    }
+}
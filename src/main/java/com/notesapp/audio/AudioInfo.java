@@ -0,0 +1,89 @@
+package com.notesapp.audio;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * Size and format of an audio file, read from its RIFF/WAVE header alone.
+ * <p>
+ * {@link #probe} walks the chunk headers with positional {@link FileChannel} reads (a few
+ * dozen bytes each) and skips over the sample data, so probing a multi-gigabyte recording
+ * costs the same as probing a short one. Files that are not WAV get their size only.
+ */
+public final class AudioInfo {
+    private static final int MAX_CHUNKS = 64;   // LIST/bext/junk chunks before "data"; real files have a handful
+    private final Path path;
+    private final long sizeBytes;
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final long durationMs;
+    public AudioInfo(Path path, long sizeBytes, int sampleRate, int channels, int bitsPerSample, long durationMs) {
+        this.path = path;
+        this.sizeBytes = sizeBytes;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.durationMs = durationMs;
+    }
+    public Path getPath() { return path; }
+    public long getSizeBytes() { return sizeBytes; }
+    /** 0 when unknown (not a WAV file). */
+    public int getSampleRate() { return sampleRate; }
+    public int getChannels() { return channels; }
+    public int getBitsPerSample() { return bitsPerSample; }
+    public long getDurationMs() { return durationMs; }
+    /** Whether the format was read from a WAV header, rather than just the file size. */
+    public boolean hasFormat() { return sampleRate > 0; }
+    /** Read the header of {@code file}; never reads sample data. */
+    public static AudioInfo probe(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            ByteBuffer buf = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            if (read(ch, buf, 0, 12) < 12 || buf.getInt(0) != fourCC("RIFF") || buf.getInt(8) != fourCC("WAVE")) {
+                return new AudioInfo(file, size, 0, 0, 0, 0);
+            }
+            int rate = 0, channels = 0, bits = 0;
+            long byteRate = 0, dataBytes = -1;
+            long pos = 12;
+            for (int i = 0; i < MAX_CHUNKS && dataBytes < 0 && read(ch, buf, pos, 8) == 8; i++) {
+                int id = buf.getInt(0);
+                long len = Integer.toUnsignedLong(buf.getInt(4));
+                if (id == fourCC("fmt ")) {
+                    if (read(ch, buf, pos + 8, 16) < 16) break;
+                    channels = Short.toUnsignedInt(buf.getShort(2));
+                    rate = buf.getInt(4);
+                    byteRate = Integer.toUnsignedLong(buf.getInt(8));
+                    bits = Short.toUnsignedInt(buf.getShort(14));
+                } else if (id == fourCC("data")) {
+                    // Recorders that never finalize the header leave 0 or 0xFFFFFFFF: use what is on disk.
+                    long onDisk = Math.max(0, size - pos - 8);
+                    dataBytes = (len == 0 || len == 0xFFFFFFFFL || len > onDisk) ? onDisk : len;
+                }
+                pos += 8 + len + (len & 1);   // chunks are padded to even sizes
+            }
+            long ms = (byteRate > 0 && dataBytes > 0) ? dataBytes * 1000 / byteRate : 0;
+            return new AudioInfo(file, size, rate, channels, bits, ms);
+        }
+    }
+    private static int read(FileChannel ch, ByteBuffer buf, long pos, int len) throws IOException {
+        buf.clear().limit(len);
+        int total = 0;
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos + total);
+            if (n < 0) break;
+            total += n;
+        }
+        return total;
+    }
+    private static int fourCC(String s) {
+        return (s.charAt(0) & 0xff) | (s.charAt(1) & 0xff) << 8 | (s.charAt(2) & 0xff) << 16 | (s.charAt(3) & 0xff) << 24;
+    }
+    @Override public String toString() {
+        return hasFormat()
+                ? String.format("%s: %d Hz, %d ch, %d bit, %d ms, %d bytes", path.getFileName(), sampleRate, channels, bitsPerSample, durationMs, sizeBytes)
+                : path.getFileName() + ": " + sizeBytes + " bytes";
+    }
+}
@@ -0,0 +1,206 @@
+package com.notesapp.audio;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+/**
+ * Rewrites audio as what whisper.cpp reads natively: 16 kHz, mono, 16-bit PCM WAV.
+ * <p>
+ * The source is streamed in blocks of {@code blockFrames} frames through two direct buffers
+ * (one in, one out), so memory use does not depend on the recording's length. Channels are
+ * averaged. Downsampling averages the source samples under each output sample (a box filter,
+ * which keeps most aliasing out of the speech band); upsampling interpolates linearly. PCM of
+ * 8 to 32 bits and 32-bit float are decoded here; anything else javax.sound can convert
+ * (e.g. u-law) is first converted to 16-bit PCM.
+ */
+public final class AudioNormalizer {
+    public static final int TARGET_RATE = 16_000;
+    public static final int DEFAULT_BLOCK_FRAMES = 8192;
+    private static final int HEADER_BYTES = 44;
+    private final int blockFrames;
+    public AudioNormalizer() {
+        this(DEFAULT_BLOCK_FRAMES);
+    }
+    public AudioNormalizer(int blockFrames) {
+        if (blockFrames <= 0) throw new IllegalArgumentException("blockFrames must be > 0");
+        this.blockFrames = blockFrames;
+    }
+    /** True if {@code info} already describes a 16 kHz mono 16-bit WAV. */
+    public static boolean isNormalized(AudioInfo info) {
+        return info.getSampleRate() == TARGET_RATE && info.getChannels() == 1 && info.getBitsPerSample() == 16;
+    }
+    /**
+     * Write {@code source} normalized to {@code target}, replacing it atomically once complete.
+     *
+     * @return frames written
+     */
+    public long normalize(Path source, Path target) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            long frames;
+            try (AudioInputStream in = open(source);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.position(HEADER_BYTES);
+                frames = convert(in, out);
+                write(out, header(frames * 2), 0);
+                out.force(false);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return frames;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+    /** {@code source} as a stream this class can decode. */
+    private static AudioInputStream open(Path source) throws IOException {
+        AudioInputStream in;
+        try {
+            in = AudioSystem.getAudioInputStream(source.toFile());
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio file " + source, e);
+        }
+        AudioFormat f = in.getFormat();
+        if (decodable(f)) return in;
+        AudioFormat pcm16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, f.getSampleRate(), 16,
+                f.getChannels(), f.getChannels() * 2, f.getSampleRate(), false);
+        try {
+            return AudioSystem.getAudioInputStream(pcm16, in);
+        } catch (IllegalArgumentException e) {
+            in.close();
+            throw new IOException("Cannot decode " + f + " in " + source, e);
+        }
+    }
+    private static boolean decodable(AudioFormat f) {
+        int bits = f.getSampleSizeInBits();
+        AudioFormat.Encoding enc = f.getEncoding();
+        boolean sizes = f.getChannels() > 0 && f.getSampleRate() > 0 && f.getFrameSize() == f.getChannels() * bits / 8;
+        return sizes && ((enc == AudioFormat.Encoding.PCM_SIGNED && (bits == 8 || bits == 16 || bits == 24 || bits == 32))
+                || (enc == AudioFormat.Encoding.PCM_UNSIGNED && bits == 8)
+                || (enc == AudioFormat.Encoding.PCM_FLOAT && bits == 32));
+    }
+    /** Stream every frame of {@code in} to {@code out} as 16 kHz mono; returns frames written. */
+    private long convert(AudioInputStream in, FileChannel out) throws IOException {
+        AudioFormat f = in.getFormat();
+        int channels = f.getChannels();
+        int frameSize = f.getFrameSize();
+        Resampler resampler = new Resampler(f.getSampleRate() / TARGET_RATE);
+        ByteBuffer src = ByteBuffer.allocateDirect(blockFrames * frameSize)
+                .order(f.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer dst = ByteBuffer.allocateDirect(resampler.maxOutput(blockFrames) * 2).order(ByteOrder.LITTLE_ENDIAN);
+        ReadableByteChannel ch = Channels.newChannel(in);
+        long written = 0;
+        boolean eof = false;
+        while (!eof) {
+            while (src.hasRemaining() && !eof) eof = ch.read(src) < 0;
+            src.flip();
+            while (src.remaining() >= frameSize) {
+                float sum = 0;
+                for (int c = 0; c < channels; c++) sum += sample(src, f);
+                resampler.push(sum / channels, dst);
+            }
+            if (eof) resampler.finish(dst);
+            written += drain(dst, out);
+            src.compact();   // a partial frame at end of stream is dropped
+        }
+        return written;
+    }
+    /** Next sample of {@code b} in [-1, 1]. */
+    private static float sample(ByteBuffer b, AudioFormat f) {
+        return switch (f.getSampleSizeInBits()) {
+            case 8 -> {
+                byte v = b.get();
+                yield (f.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED ? (v & 0xff) - 128 : v) / 128f;
+            }
+            case 16 -> b.getShort() / 32768f;
+            case 24 -> {
+                int b0 = b.get() & 0xff, b1 = b.get() & 0xff, b2 = b.get() & 0xff;
+                int s = b.order() == ByteOrder.LITTLE_ENDIAN ? (b2 << 24 | b1 << 16 | b0 << 8) : (b0 << 24 | b1 << 16 | b2 << 8);
+                yield (s >> 8) / 8388608f;
+            }
+            default -> f.getEncoding() == AudioFormat.Encoding.PCM_FLOAT ? b.getFloat() : b.getInt() / 2147483648f;
+        };
+    }
+    private static long drain(ByteBuffer dst, FileChannel out) throws IOException {
+        dst.flip();
+        long frames = dst.remaining() / 2;
+        while (dst.hasRemaining()) out.write(dst);
+        dst.clear();
+        return frames;
+    }
+    /** Streaming rate conversion of mono float samples into 16-bit output. */
+    private static final class Resampler {
+        private final double step;   // source samples per output sample
+        private double need;         // downsampling: source still to average into the current output
+        private double acc;
+        private double pos;          // upsampling: where the next output falls between prev and the next source sample
+        private float prev;
+        private boolean primed;
+        Resampler(double step) {
+            this.step = step;
+            this.need = step;
+        }
+        /** Upper bound of outputs for {@code n} pushes plus {@link #finish}. */
+        int maxOutput(int n) {
+            return (int) Math.ceil(n / step) + 2;
+        }
+        void push(float x, ByteBuffer out) {
+            if (step >= 1) {
+                double w = 1;
+                while (w > 1e-9) {
+                    double t = Math.min(w, need);
+                    acc += x * t;
+                    need -= t;
+                    w -= t;
+                    if (need <= 1e-9) {
+                        put(out, acc / step);
+                        acc = 0;
+                        need += step;
+                    }
+                }
+            } else if (!primed) {
+                prev = x;
+                primed = true;
+            } else {
+                for (; pos < 1; pos += step) put(out, prev + (x - prev) * pos);
+                pos -= 1;
+                prev = x;
+            }
+        }
+        void finish(ByteBuffer out) {
+            double covered = step - need;
+            if (step >= 1 && covered > 1e-9) put(out, acc / covered);
+            else if (step < 1 && primed && pos < 1e-9) put(out, prev);
+            acc = 0;
+            need = step;
+            primed = false;
+        }
+        private static void put(ByteBuffer out, double v) {
+            long s = Math.round(v * 32767);
+            out.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, s)));
+        }
+    }
+    private static ByteBuffer header(long dataBytes) {
+        if (dataBytes > 0xFFFFFFFFL - 36) throw new IllegalStateException("WAV data too large: " + dataBytes);
+        ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        h.putInt(0x46464952).putInt((int) (36 + dataBytes)).putInt(0x45564157);   // "RIFF" size "WAVE"
+        h.putInt(0x20746d66).putInt(16).putShort((short) 1).putShort((short) 1)     // "fmt " PCM mono
+                .putInt(TARGET_RATE).putInt(TARGET_RATE * 2).putShort((short) 2).putShort((short) 16);
+        h.putInt(0x61746164).putInt((int) dataBytes);                               // "data"
+        return h.flip();
+    }
+    private static void write(FileChannel ch, ByteBuffer b, long pos) throws IOException {
+        while (b.hasRemaining()) pos += ch.write(b, pos);
+    }
+}
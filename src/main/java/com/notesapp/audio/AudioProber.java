@@ -0,0 +1,65 @@
+package com.notesapp.audio;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+/**
+ * Reads {@link AudioInfo} for many files at once. Probing is a few small reads per file, so
+ * the time goes into seeks and metadata lookups; running many probes concurrently keeps the
+ * disk (or network share) queue full. A file that cannot be read is reported and skipped.
+ * <pre>
+ * Map&lt;Long, AudioInfo&gt; found = new AudioProber(16).probeAll(pathsById, e -&gt; log(e));
+ * recordingDao.updateAudioInfo(found);
+ * </pre>
+ */
+public final class AudioProber {
+    /** Probes are I/O bound: more of them than cores pays off. */
+    public static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private final int threads;
+    public AudioProber() {
+        this(DEFAULT_THREADS);
+    }
+    public AudioProber(int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+        this.threads = threads;
+    }
+    /**
+     * Probe every file of {@code files} (keyed by e.g. recording id). The result keeps the
+     * input order and leaves out files that failed; {@code onError} (may be null) gets those.
+     */
+    public <K> Map<K, AudioInfo> probeAll(Map<K, Path> files, Consumer<IOException> onError) throws InterruptedException {
+        List<Map.Entry<K, Future<AudioInfo>>> pending = new ArrayList<>(files.size());
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, files.size())), r -> {
+            Thread t = new Thread(r, "audio-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (Map.Entry<K, Path> e : files.entrySet()) {
+                Path p = e.getValue();
+                pending.add(Map.entry(e.getKey(), pool.submit(() -> AudioInfo.probe(p))));
+            }
+            Map<K, AudioInfo> found = new LinkedHashMap<>();
+            for (Map.Entry<K, Future<AudioInfo>> e : pending) {
+                try {
+                    found.put(e.getKey(), e.getValue().get());
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (onError != null) {
+                        onError.accept(cause instanceof IOException io ? io : new IOException(cause));
+                    }
+                }
+            }
+            return found;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.notesapp.audio;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * Keeps one 16 kHz mono copy (see {@link AudioNormalizer}) per source recording in
+ * {@code dir}, so re-transcribing a recording does not resample it again.
+ * <p>
+ * A copy is named after the source's absolute path and stamped with its size and modification
+ * time; a source that changes gets a new copy and the old one is deleted. Sources that are
+ * already 16 kHz mono 16-bit WAV are used as they are. Copies of recordings that no longer
+ * exist are removed by {@link #retainOnly}.
+ * <pre>
+ * Path wav = new NormalizedAudioCache(NormalizedAudioCache.DEFAULT_DIR).get(recording);
+ * </pre>
+ */
+public final class NormalizedAudioCache {
+    /** Where the app keeps its copies. */
+    public static final Path DEFAULT_DIR = Paths.get("data", "audio-16k");
+    private final Path dir;
+    private final AudioNormalizer normalizer;
+    private final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<>();
+    public NormalizedAudioCache(Path dir) {
+        this(dir, new AudioNormalizer());
+    }
+    public NormalizedAudioCache(Path dir, AudioNormalizer normalizer) {
+        this.dir = dir;
+        this.normalizer = normalizer;
+    }
+    /** A 16 kHz mono 16-bit WAV of {@code source}: the source itself, a cached copy, or a new copy. */
+    public Path get(Path source) throws IOException {
+        AudioInfo info = AudioInfo.probe(source);
+        if (AudioNormalizer.isNormalized(info)) return source;
+        String name = nameOf(source);
+        String stamp = hash(info.getSizeBytes() + ":" + Files.getLastModifiedTime(source).toMillis());
+        Path copy = dir.resolve(name + "-" + stamp + ".wav");
+        // Two jobs for the same recording write the copy once.
+        synchronized (locks.computeIfAbsent(name, k -> new Object())) {
+            if (Files.exists(copy)) return copy;
+            normalizer.normalize(source, copy);
+            deleteOthers(name, copy);
+        }
+        return copy;
+    }
+    /** Delete the copies of every source not in {@code sources}; returns how many were deleted. */
+    public int retainOnly(Collection<Path> sources) throws IOException {
+        if (!Files.isDirectory(dir)) return 0;
+        Set<String> live = new HashSet<>();
+        for (Path source : sources) live.add(nameOf(source));
+        int deleted = 0;
+        try (DirectoryStream<Path> copies = Files.newDirectoryStream(dir, "*-*.wav")) {
+            for (Path p : copies) {
+                String file = p.getFileName().toString();
+                String name = file.substring(0, file.indexOf('-'));
+                if (live.contains(name)) continue;
+                synchronized (locks.computeIfAbsent(name, k -> new Object())) {
+                    if (Files.deleteIfExists(p)) deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+    private static String nameOf(Path source) {
+        return hash(source.toAbsolutePath().normalize().toString());
+    }
+    /** Copies of earlier versions of the same source. */
+    private void deleteOthers(String name, Path keep) throws IOException {
+        try (DirectoryStream<Path> old = Files.newDirectoryStream(dir, name + "-*.wav")) {
+            for (Path p : old) {
+                if (!p.equals(keep)) Files.deleteIfExists(p);
+            }
+        }
+    }
+    private static String hash(String s) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(d, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.notesapp.core;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+/** Helpers for work fanned out to a thread pool over a scratch directory. */
+public final class Tasks {
+    private Tasks() {}
+    /** The task's result; a failure is rethrown as the task's own exception, not an ExecutionException. */
+    public static <T> T await(Future<T> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ex ? ex : e;
+        }
+    }
+    /** Delete {@code dir} and everything in it, best effort: scratch directories live under the system temp directory. */
+    public static void deleteRecursively(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+            // whatever is left is cleaned up with the temp directory
+        }
+    }
+}
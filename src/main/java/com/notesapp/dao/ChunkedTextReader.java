@@ -0,0 +1,104 @@
+package com.notesapp.dao;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+/**
+ * Reads one TEXT value as characters, {@code chunkChars} at a time. The value is fetched as
+ * UTF-8 bytes, {@code sliceBytes} per query ({@code substr} over {@code CAST(... AS BLOB)}
+ * counts bytes, so no query scans characters to find its offset), and decoded as it is read:
+ * at most one slice and one chunk are held, however long the text is. SQLite reads the row
+ * again for each slice, so slices are large. A missing row or NULL value reads as empty. Keep
+ * the connection open until the reader is closed.
+ */
+public class ChunkedTextReader extends Reader {
+    public static final int DEFAULT_CHUNK_CHARS = 32 * 1024;
+    public static final int DEFAULT_SLICE_BYTES = 1024 * 1024;
+    private static final int MAX_UTF8_BYTES = 4;
+    private final PreparedStatement ps;
+    private final long key;
+    private final int sliceBytes;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chunk;
+    private ByteBuffer bytes = ByteBuffer.allocate(0);
+    private long offset = 1;       // next byte to fetch, 1-based as substr() counts
+    private boolean lastSlice;     // bytes holds the end of the value
+    private boolean eof;
+    public ChunkedTextReader(Connection conn, String table, String column, String keyColumn, long key) throws SQLException {
+        this(conn, table, column, keyColumn, key, DEFAULT_CHUNK_CHARS, DEFAULT_SLICE_BYTES);
+    }
+    public ChunkedTextReader(Connection conn, String table, String column, String keyColumn, long key,
+                             int chunkChars, int sliceBytes) throws SQLException {
+        this.ps = conn.prepareStatement("SELECT substr(CAST(" + column + " AS BLOB), ?, ?) FROM " + table
+                + " WHERE " + keyColumn + " = ?");
+        this.key = key;
+        // A slice always holds a whole character, so every decode step makes progress.
+        this.sliceBytes = Math.max(MAX_UTF8_BYTES, sliceBytes);
+        // Room for at least one surrogate pair, for the same reason.
+        this.chunk = CharBuffer.allocate(Math.max(2, chunkChars)).flip();
+    }
+    @Override public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!chunk.hasRemaining() && !fill()) return -1;
+        int n = Math.min(len, chunk.remaining());
+        chunk.get(cbuf, off, n);
+        return n;
+    }
+    private boolean fill() throws IOException {
+        chunk.clear();
+        while (chunk.position() == 0 && !eof) {
+            // Fewer bytes than a character may be the first part of one split across slices.
+            if (!lastSlice && bytes.remaining() < MAX_UTF8_BYTES) bytes = fetch();
+            decoder.decode(bytes, chunk, lastSlice);
+            if (lastSlice && !bytes.hasRemaining()) {
+                decoder.flush(chunk);   // UTF-8 keeps no state to flush; after this the decoder is done
+                eof = true;
+                closeStatement();
+            }
+        }
+        chunk.flip();
+        return chunk.hasRemaining();
+    }
+    /** The undecoded rest of the current slice followed by the next slice. */
+    private ByteBuffer fetch() throws IOException {
+        byte[] b;
+        try {
+            ps.setLong(1, offset);
+            ps.setInt(2, sliceBytes);
+            ps.setLong(3, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                b = rs.next() ? rs.getBytes(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not read text of " + key, e);
+        }
+        if (b == null) b = new byte[0];
+        offset += b.length;
+        lastSlice = b.length < sliceBytes;
+        ByteBuffer next = ByteBuffer.allocate(bytes.remaining() + b.length);
+        next.put(bytes).put(b).flip();
+        return next;
+    }
+    @Override public void close() throws IOException {
+        eof = true;
+        chunk.clear().flip();
+        bytes = ByteBuffer.allocate(0);
+        closeStatement();
+    }
+    private void closeStatement() throws IOException {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+}
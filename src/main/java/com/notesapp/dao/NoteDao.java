@@ -1,5 +1,6 @@
 package com.notesapp.dao;
-import com.notesapp.db.DatabaseManager;
+import com.notesapp.db.SchemaCache;
+import java.io.Reader;
 import java.sql.*;
 import java.util.Optional;
 public class NoteDao {
@@ -9,8 +10,12 @@ public class NoteDao {
         try (Statement s = conn.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
         createTable(conn);
     }
+    /** Connection this DAO runs on; writes auto-commit unless a {@link com.notesapp.db.UnitOfWork} is active on it. */
+    public Connection connection() { return conn; }
     /** Create table if it doesnÃ¢â‚¬â„¢t exist (idempotent). */
     public static void createTable(Connection conn) throws SQLException {
+        // Already present: skip the DDL so read-only connections can build DAOs too.
+        if (!SchemaCache.columns(conn, "notes").isEmpty()) return;
         try (Statement st = conn.createStatement()) {
             st.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS notes (
@@ -27,12 +32,7 @@ public class NoteDao {
     }
     // ---------- MIGRATION HELPERS ----------
     private static boolean hasColumn(Connection c, String table, String col) throws SQLException {
-        try (PreparedStatement ps = c.prepareStatement("PRAGMA table_info(" + table + ")")) {
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) if (col.equalsIgnoreCase(rs.getString("name"))) return true;
-            }
-        }
-        return false;
+        return SchemaCache.hasColumn(c, table, col);
     }
     public static void migrate(Connection conn) throws SQLException {
         createTable(conn);
@@ -40,6 +40,7 @@ public class NoteDao {
             try (Statement st = conn.createStatement()) {
                 st.executeUpdate("ALTER TABLE notes ADD COLUMN updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP");
             }
+            SchemaCache.invalidate();
         }
     }
     // ---------- Row type for tests ----------
@@ -75,11 +76,7 @@ public class NoteDao {
             ps.setLong(1, recordingId);
             ps.setString(2, content == null ? "" : content);
             int updated = ps.executeUpdate();
-            DatabaseManager.commit();
             return updated;
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
         }
     }
     /** Legacy overload for tests */
@@ -107,10 +104,6 @@ public class NoteDao {
             ps.setString(1, title);
             ps.setString(2, content);
             ps.executeUpdate();
-            DatabaseManager.commit();
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
         }
     }
     // ---------- Record-based read/delete ----------
@@ -132,16 +125,25 @@ public class NoteDao {
         }
         return Optional.empty();
     }
+    /** Whether recording {@code recordingId} has a note, without reading its content. */
+    public boolean existsByRecordingId(long recordingId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM notes WHERE recording_id=?")) {
+            ps.setLong(1, recordingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    /** Streams the note content in slices; close the reader before the connection. */
+    public Reader openContentReader(long recordingId) throws SQLException {
+        return new ChunkedTextReader(conn, "notes", "content", "recording_id", recordingId);
+    }
     public int deleteByRecordingId(long recordingId) throws SQLException {
         String sql = "DELETE FROM notes WHERE recording_id=?";
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, recordingId);
             int deleted = ps.executeUpdate();
-            DatabaseManager.commit();
             return deleted;
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
         }
     }
 }
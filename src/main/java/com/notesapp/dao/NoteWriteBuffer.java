@@ -0,0 +1,234 @@
+package com.notesapp.dao;
+import com.notesapp.db.ConnectionSource;
+import com.notesapp.db.UnitOfWork;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+/**
+ * Write-behind buffer for note edits, so autosave can follow every keystroke.
+ * <p>
+ * {@link #edit} only records the latest content per recording in memory and returns; no I/O
+ * happens on the caller's thread. A background thread snapshots the pending notes to a small
+ * journal file shortly after each burst of edits, and writes them all to the database in one
+ * transaction every flush interval, on {@link #flushAsync()} (e.g. when the editor loses
+ * focus) and on {@link #close()}. After a crash, {@link #start()} replays the journal, so at
+ * most the last {@link #DEFAULT_JOURNAL_DELAY} of typing is lost.
+ * <pre>
+ * NoteWriteBuffer notes = new NoteWriteBuffer(DatabaseManager::getConnection, Path.of("data", "notes.journal"));
+ * notes.start();
+ * noteArea.textProperty().addListener((o, old, text) -&gt; notes.edit(recordingId, text));
+ * ...
+ * notes.close();   // on exit
+ * </pre>
+ */
+public class NoteWriteBuffer implements AutoCloseable {
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_JOURNAL_DELAY = Duration.ofMillis(250);
+    private static final int JOURNAL_MAGIC = 0x4E4A5231;   // "NJR1"
+    private final ConnectionSource db;
+    private final Path journal;
+    private final Duration flushInterval;
+    private final Duration journalDelay;
+    private final Map<Long, String> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean journalScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "note-write-behind");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile Consumer<Throwable> onError = Throwable::printStackTrace;
+    private boolean started;
+    private boolean closed;
+    public NoteWriteBuffer(ConnectionSource db, Path journal) {
+        this(db, journal, DEFAULT_FLUSH_INTERVAL, DEFAULT_JOURNAL_DELAY);
+    }
+    public NoteWriteBuffer(ConnectionSource db, Path journal, Duration flushInterval, Duration journalDelay) {
+        this.db = Objects.requireNonNull(db, "db");
+        this.journal = Objects.requireNonNull(journal, "journal");
+        if (flushInterval.isNegative() || flushInterval.isZero()) throw new IllegalArgumentException("flushInterval must be > 0");
+        this.flushInterval = flushInterval;
+        this.journalDelay = journalDelay.isNegative() ? Duration.ZERO : journalDelay;
+    }
+    /** Called on the background thread when a journal write or flush fails; edits stay pending. */
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError == null ? Throwable::printStackTrace : onError;
+    }
+    /**
+     * Replay a journal left by a crash, then start the periodic flush.
+     *
+     * @return how many notes were recovered from the journal
+     */
+    public synchronized int start() throws IOException, SQLException {
+        if (closed) throw new IllegalStateException("Buffer closed");
+        if (started) return 0;
+        Map<Long, String> recovered = readJournal(journal);
+        recovered.forEach(pending::putIfAbsent);
+        flush();
+        long ms = flushInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::flushQuietly, ms, ms, TimeUnit.MILLISECONDS);
+        started = true;
+        return recovered.size();
+    }
+    // ---------- Editing (any thread, no I/O) ----------
+    /** Record the latest content of the note of {@code recordingId}; earlier unsaved edits are replaced. */
+    public void edit(long recordingId, String content) {
+        pending.put(recordingId, content == null ? "" : content);
+        if (journalScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::journalQuietly, journalDelay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                journalScheduled.set(false);   // closed: the edit stays in memory only
+            }
+        }
+    }
+    /** The unsaved content of a note, if it was edited since the last flush. */
+    public Optional<String> pending(long recordingId) {
+        return Optional.ofNullable(pending.get(recordingId));
+    }
+    public int pendingCount() {
+        return pending.size();
+    }
+    // ---------- Flushing ----------
+    /** Write pending notes in the background, e.g. when the editor loses focus. */
+    public void flushAsync() {
+        if (pending.isEmpty()) return;
+        try {
+            executor.execute(this::flushQuietly);
+        } catch (RejectedExecutionException ignored) {
+            // Closed: close() already flushed.
+        }
+    }
+    /**
+     * Write every pending note in one transaction, then shrink the journal to whatever was
+     * edited meanwhile. Returns how many notes were written.
+     */
+    public synchronized int flush() throws SQLException, IOException {
+        if (pending.isEmpty()) {
+            Files.deleteIfExists(journal);
+            return 0;
+        }
+        Map<Long, String> batch = new LinkedHashMap<>(pending);
+        try (Connection conn = db.get()) {
+            UnitOfWork.inTransaction(conn, uow -> {
+                NoteDao notes = new NoteDao(uow.connection());
+                for (Map.Entry<Long, String> e : batch.entrySet()) notes.upsertByRecordingId(e.getKey(), e.getValue());
+                return null;
+            });
+        }
+        // Keep anything edited again while the batch was being written.
+        batch.forEach(pending::remove);
+        writeJournal();
+        return batch.size();
+    }
+    /** Flush what is pending and stop the background thread. */
+    @Override
+    public void close() throws SQLException, IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            onError.accept(e);
+        }
+    }
+    private void journalQuietly() {
+        journalScheduled.set(false);
+        try {
+            synchronized (this) {
+                writeJournal();
+            }
+        } catch (IOException e) {
+            onError.accept(e);
+        }
+    }
+    // ---------- Journal ----------
+    /** Replace the journal with the pending notes (or remove it when there are none). Caller holds the lock. */
+    private void writeJournal() throws IOException {
+        Map<Long, String> snapshot = Map.copyOf(pending);
+        if (snapshot.isEmpty()) {
+            Files.deleteIfExists(journal);
+            return;
+        }
+        Path dir = journal.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = journal.resolveSibling(journal.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch)))) {
+            out.writeInt(JOURNAL_MAGIC);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Long, String> e : snapshot.entrySet()) {
+                byte[] text = e.getValue().getBytes(StandardCharsets.UTF_8);
+                out.writeLong(e.getKey());
+                out.writeInt(text.length);
+                out.write(text);
+            }
+            out.flush();
+            ch.force(true);   // on disk before the rename makes it the journal, or a power cut could leave it empty
+        }
+        // The rename is atomic, so a crash leaves either the old or the new journal, never half of one.
+        Files.move(tmp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (dir != null) syncDirectory(dir);
+    }
+    /** Make a rename in {@code dir} durable; best effort, as not every platform can open a directory. */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException ignored) {
+            // e.g. Windows: the rename is still atomic, just not yet forced to disk
+        }
+    }
+    /** Notes saved in {@code journal}; empty if there is none. A damaged journal is an error. */
+    static Map<Long, String> readJournal(Path journal) throws IOException {
+        Map<Long, String> notes = new LinkedHashMap<>();
+        if (!Files.exists(journal)) return notes;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal)))) {
+            if (in.readInt() != JOURNAL_MAGIC) throw new IOException("Not a note journal: " + journal);
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long recordingId = in.readLong();
+                byte[] text = new byte[in.readInt()];
+                in.readFully(text);
+                notes.put(recordingId, new String(text, StandardCharsets.UTF_8));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated note journal: " + journal, e);
+        }
+        return notes;
+    }
+}
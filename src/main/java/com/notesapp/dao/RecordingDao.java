@@ -1,28 +1,38 @@
 package com.notesapp.dao;
-import com.notesapp.db.DatabaseManager;
+import com.notesapp.audio.AudioInfo;
+import com.notesapp.db.SchemaCache;
+import com.notesapp.db.UnitOfWork;
 import com.notesapp.model.Recording;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 public class RecordingDao {
     private final Connection conn;
+    private volatile RecordingSchema schema;
     public RecordingDao(Connection conn) throws SQLException {
         this.conn = conn;
         try (Statement s = conn.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
         RecordingDao.createTable(conn);
     }
+    /** Connection this DAO runs on; writes auto-commit unless a {@link UnitOfWork} is active on it. */
+    public Connection connection() { return conn; }
     /** Create table if missing; ensure at least one variant of each logical field exists. */
     public static void createTable(Connection conn) throws SQLException {
-        try (Statement st = conn.createStatement()) {
-            st.execute("""
-                CREATE TABLE IF NOT EXISTS recordings(
-                  id INTEGER PRIMARY KEY AUTOINCREMENT,
-                  title TEXT NOT NULL
-                )
-            """);
+        // Skip the DDL when the table exists so read-only connections can build DAOs too.
+        if (SchemaCache.columns(conn, "recordings").isEmpty()) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("""
+                    CREATE TABLE IF NOT EXISTS recordings(
+                      id INTEGER PRIMARY KEY AUTOINCREMENT,
+                      title TEXT NOT NULL
+                    )
+                """);
+            }
         }
         ensureAny(conn, "recordings", new String[]{"audio_path", "file_path", "path"},
                 "ALTER TABLE recordings ADD COLUMN audio_path TEXT");
@@ -34,116 +44,112 @@ public class RecordingDao {
                 "ALTER TABLE recordings ADD COLUMN class_name TEXT");
         ensureAny(conn, "recordings", new String[]{"tag"},
                 "ALTER TABLE recordings ADD COLUMN tag TEXT DEFAULT ''");
+        // Filled from the audio header by updateAudioInfo; NULL size_bytes means not probed yet.
+        ensureAny(conn, "recordings", new String[]{"sample_rate"},
+                "ALTER TABLE recordings ADD COLUMN sample_rate INTEGER");
+        ensureAny(conn, "recordings", new String[]{"channels"},
+                "ALTER TABLE recordings ADD COLUMN channels INTEGER");
+        ensureAny(conn, "recordings", new String[]{"size_bytes"},
+                "ALTER TABLE recordings ADD COLUMN size_bytes INTEGER");
+        // Serves findPage: newest first, id breaking ties, without a sort step.
+        String created = SchemaCache.firstColumn(conn, "recordings", "created_at", "created_at_ms", "timestamp", "recorded_at");
+        ensureIndex(conn, PAGE_INDEX, "CREATE INDEX IF NOT EXISTS " + PAGE_INDEX + " ON recordings(" + created + ", id)");
     }
-    private static void ensureAny(Connection c, String table, String[] cols, String ddlIfMissing) throws SQLException {
-        boolean any = false;
-        for (String col : cols) if (hasColumn(c, table, col)) { any = true; break; }
-        if (!any) try (Statement st = c.createStatement()) { st.execute(ddlIfMissing); }
-    }
-    private static boolean hasColumn(Connection c, String table, String col) throws SQLException {
-        try (PreparedStatement ps = c.prepareStatement("PRAGMA table_info(" + table + ")")) {
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) if (col.equalsIgnoreCase(rs.getString("name"))) return true;
-            }
+    private static final String PAGE_INDEX = "idx_recordings_created_id";
+    private static void ensureIndex(Connection c, String name, String ddl) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'index' AND name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) { if (rs.next()) return; }
         }
-        return false;
+        try (Statement st = c.createStatement()) { st.execute(ddl); }
     }
-    private String existingColOrThrow(String... names) throws SQLException {
-        for (String n : names) if (hasColumn(conn, "recordings", n)) return n;
-        throw new SQLException("None of the expected columns exist: " + String.join(",", names));
-    }
-    private String pathCol() throws SQLException {
-        if (hasColumn(conn, "recordings", "audio_path")) return "audio_path";
-        if (hasColumn(conn, "recordings", "file_path")) return "file_path";
-        if (hasColumn(conn, "recordings", "path")) return "path";
-        try (Statement st = conn.createStatement()) { st.execute("ALTER TABLE recordings ADD COLUMN audio_path TEXT"); }
-        return "audio_path";
-    }
-    private String durationCol() throws SQLException {
-        if (hasColumn(conn, "recordings", "duration_ms")) return "duration_ms";
-        if (hasColumn(conn, "recordings", "duration")) return "duration";
-        try (Statement st = conn.createStatement()) { st.execute("ALTER TABLE recordings ADD COLUMN duration_ms INTEGER NOT NULL DEFAULT 0"); }
-        return "duration_ms";
+    private static void ensureAny(Connection c, String table, String[] cols, String ddlIfMissing) throws SQLException {
+        if (SchemaCache.firstColumn(c, table, cols) != null) return;
+        try (Statement st = c.createStatement()) { st.execute(ddlIfMissing); }
+        SchemaCache.invalidate();
     }
-    private List<String> createdCols() throws SQLException {
-        List<String> cols = new ArrayList<>();
-        if (hasColumn(conn, "recordings", "created_at")) cols.add("created_at");
-        if (hasColumn(conn, "recordings", "created_at_ms")) cols.add("created_at_ms");
-        if (hasColumn(conn, "recordings", "timestamp")) cols.add("timestamp");
-        if (hasColumn(conn, "recordings", "recorded_at")) cols.add("recorded_at");
-        if (cols.isEmpty()) {
-            try (Statement st = conn.createStatement()) { st.execute("ALTER TABLE recordings ADD COLUMN created_at INTEGER NOT NULL DEFAULT 0"); }
-            cols.add("created_at");
-        }
-        return cols;
+    /** Column layout for this connection; re-resolved only after {@link SchemaCache#invalidate()}. */
+    private RecordingSchema schema() throws SQLException {
+        RecordingSchema s = schema;
+        if (s == null || !s.isCurrent()) schema = s = RecordingSchema.resolve(conn);
+        return s;
     }
     /* ---------------- App API (explicit args) ---------------- */
     public long insert(String title, String filePath, long durationMs, long createdAtEpochMs) throws SQLException {
-        String pcol = pathCol();
-        String dcol = durationCol();
-        List<String> ccols = createdCols();
-        StringBuilder sbCols = new StringBuilder("title, ").append(pcol).append(", ").append(dcol);
-        StringBuilder sbVals = new StringBuilder("?,?,?");
-        for (int i = 0; i < ccols.size(); i++) {
-            sbCols.append(", ").append(ccols.get(i));
-            sbVals.append(", ?");
-        }
-        sbCols.append(", class_name, tag");
-        sbVals.append(", NULL, ''");
-        String sql = "INSERT INTO recordings(" + sbCols + ") VALUES (" + sbVals + ")";
-        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            int idx = 1;
-            ps.setString(idx++, nz(title));
-            ps.setString(idx++, nz(filePath));
-            ps.setLong(idx++, durationMs);
-            for (int i = 0; i < ccols.size(); i++) ps.setLong(idx++, createdAtEpochMs);
+        RecordingSchema layout = schema();
+        try (PreparedStatement ps = conn.prepareStatement(layout.insertSql, Statement.RETURN_GENERATED_KEYS)) {
+            RecordingMapper.bindInsert(ps, layout, title, filePath, durationMs, createdAtEpochMs, null);
             ps.executeUpdate();
-            DatabaseManager.commit(); // Ã¢Å“â€¦ Commit transaction
             Long id = readGeneratedKeyOrFallback(ps, conn);
             if (id != null) return id;
-        } catch (SQLException e) {
-            DatabaseManager.rollback(); // Ã°Å¸â€Â Rollback on error
-            throw e;
         }
         throw new SQLException("Failed to insert recording (no id returned)");
     }
     public Recording insert(Recording r) throws SQLException {
-        String title     = pickString(r, "getTitle", "title", "getName", "name");
-        String filePath  = pickString(r, "getFilePath", "getPath", "getAudioPath", "path", "filePath", "file");
-        long durationMs  = pickLong(r, 0L, "getDurationMs", "getDurationMillis", "getDuration", "durationMs", "duration");
-        long createdAtMs = pickLong(r, System.currentTimeMillis(),
-                "getCreatedAtEpochMs", "getCreatedAtMs", "getCreatedAt", "getTimestamp", "createdAtMs", "createdAt", "getRecordedAt", "recordedAt");
-        String className = pickStringOrNull(r, "getClassName", "className", "getCourse", "course", "getCourseName", "courseName");
-        String pcol = pathCol();
-        String dcol = durationCol();
-        List<String> ccols = createdCols();
-        StringBuilder sbCols = new StringBuilder("title, ").append(pcol).append(", ").append(dcol);
-        StringBuilder sbVals = new StringBuilder("?,?,?");
-        for (int i = 0; i < ccols.size(); i++) { sbCols.append(", ").append(ccols.get(i)); sbVals.append(", ?"); }
-        sbCols.append(", class_name, tag");
-        sbVals.append(", ?, ''");
-        String sql = "INSERT INTO recordings(" + sbCols + ") VALUES (" + sbVals + ")";
-        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            int idx = 1;
-            ps.setString(idx++, nz(title));
-            ps.setString(idx++, nz(filePath));
-            ps.setLong(idx++, durationMs);
-            for (int i = 0; i < ccols.size(); i++) ps.setLong(idx++, createdAtMs);
-            if (className == null || className.isBlank()) ps.setNull(idx, Types.VARCHAR); else ps.setString(idx, className);
+        RecordingSchema layout = schema();
+        try (PreparedStatement ps = conn.prepareStatement(layout.insertSql, Statement.RETURN_GENERATED_KEYS)) {
+            RecordingMapper.bindInsert(ps, layout, r);
             ps.executeUpdate();
-            DatabaseManager.commit(); // Ã¢Å“â€¦ commit success
             Long id = readGeneratedKeyOrFallback(ps, conn);
             if (id != null) {
-                setIdOnModel(r, id);
-                setString(r, "setClassName", className);
+                r.setId(id.intValue());
+                if (r.getClassName() != null && r.getClassName().isBlank()) r.setClassName(null);
                 return r;
             }
-        } catch (SQLException e) {
-            DatabaseManager.rollback(); // Ã°Å¸â€Â rollback on failure
-            throw e;
         }
         throw new SQLException("Failed to insert recording (no id returned)");
     }
+    /* ---------------- Batch import ---------------- */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    /** Insert all recordings with {@link #DEFAULT_BATCH_SIZE}-row batches; ids are returned (and set on the models) in order. */
+    public List<Long> insertAll(Collection<? extends Recording> recordings) throws SQLException {
+        return insertBatch(recordings.iterator(), DEFAULT_BATCH_SIZE);
+    }
+    /**
+     * Stream recordings into the table through one prepared statement, executing a JDBC
+     * batch and committing one transaction per {@code chunkSize} rows. Ids are returned
+     * (and set on the models) in input order.
+     */
+    public List<Long> insertBatch(Iterator<? extends Recording> source, int chunkSize) throws SQLException {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be > 0");
+        RecordingSchema layout = schema();
+        List<Long> ids = new ArrayList<>();
+        List<Recording> chunk = new ArrayList<>(chunkSize);
+        try (PreparedStatement ps = conn.prepareStatement(layout.insertSql)) {
+            while (source.hasNext()) {
+                chunk.add(source.next());
+                if (chunk.size() == chunkSize || !source.hasNext()) {
+                    insertChunk(ps, layout, chunk, ids);
+                    chunk.clear();
+                }
+            }
+        }
+        return ids;
+    }
+    private void insertChunk(PreparedStatement ps, RecordingSchema layout, List<Recording> chunk, List<Long> ids) throws SQLException {
+        UnitOfWork.inTransaction(conn, uow -> {
+            for (Recording r : chunk) {
+                RecordingMapper.bindInsert(ps, layout, r);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            // One writer inside one transaction: AUTOINCREMENT ids of the batch are consecutive.
+            long first = lastInsertRowId() - chunk.size() + 1;
+            for (int i = 0; i < chunk.size(); i++) {
+                Recording r = chunk.get(i);
+                r.setId((int) (first + i));
+                if (r.getClassName() != null && r.getClassName().isBlank()) r.setClassName(null);
+                ids.add(first + i);
+            }
+            return null;
+        });
+    }
+    private long lastInsertRowId() throws SQLException {
+        try (Statement s = conn.createStatement(); ResultSet rs = s.executeQuery("SELECT last_insert_rowid()")) {
+            if (rs.next()) return rs.getLong(1);
+        }
+        throw new SQLException("last_insert_rowid() returned no row");
+    }
     private static Long readGeneratedKeyOrFallback(PreparedStatement ps, Connection c) {
         try (ResultSet rs = ps.getGeneratedKeys()) {
             if (rs != null && rs.next()) return rs.getLong(1);
@@ -156,32 +162,173 @@ public class RecordingDao {
     }
     /* ---------------- Model-based reads ---------------- */
     public Optional<Recording> findById(long id) throws SQLException {
-        String pcol = existingColOrThrow("audio_path", "file_path", "path");
-        String dcol = existingColOrThrow("duration_ms", "duration");
-        String ccol = existingColOrThrow("created_at", "created_at_ms", "timestamp", "recorded_at");
-        String sql = "SELECT id, title, " + pcol + " AS _path, " + dcol + " AS _duration_ms, "
-                   + ccol + " AS _created_at, class_name, tag FROM recordings WHERE id=?";
+        String sql = "SELECT " + schema().selectColumns + " FROM recordings WHERE id=?";
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) return Optional.empty();
-                return Optional.of(mapToModel(rs));
+                return Optional.of(RecordingMapper.fromRow(rs));
             }
         }
     }
     public List<Recording> findAllModels() throws SQLException {
-        String pcol = existingColOrThrow("audio_path", "file_path", "path");
-        String dcol = existingColOrThrow("duration_ms", "duration");
-        String ccol = existingColOrThrow("created_at", "created_at_ms", "timestamp", "recorded_at");
-        String sql = "SELECT id, title, " + pcol + " AS _path, " + dcol + " AS _duration_ms, "
-                   + ccol + " AS _created_at, class_name, tag FROM recordings ORDER BY _created_at DESC";
+        String sql = "SELECT " + schema().selectColumns + " FROM recordings ORDER BY _created_at DESC";
         try (PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             List<Recording> out = new ArrayList<>();
-            while (rs.next()) out.add(mapToModel(rs));
+            while (rs.next()) out.add(RecordingMapper.fromRow(rs));
             return out;
         }
     }
+    /**
+     * One page of recordings, newest first (ties broken by id, descending), starting after the
+     * row ({@code afterCreatedAt}, {@code afterId}); pass nulls for the first page. Keyset
+     * pagination: each page is an index range scan, however deep into the list it is.
+     * Continue from the last row of a page with {@link #createdAtOf} and its id.
+     */
+    public List<Recording> findPage(Long afterCreatedAt, Long afterId, int limit) throws SQLException {
+        RecordingSchema layout = schema();
+        String created = layout.createdCol;
+        String sql = "SELECT " + layout.selectColumns + " FROM recordings"
+                + (afterId == null ? "" : " WHERE (" + created + ", id) < (?, ?)")
+                + " ORDER BY " + created + " DESC, id DESC LIMIT ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int idx = 1;
+            if (afterId != null) {
+                ps.setLong(idx++, afterCreatedAt == null ? Long.MAX_VALUE : afterCreatedAt);
+                ps.setLong(idx++, afterId);
+            }
+            ps.setInt(idx, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Recording> out = new ArrayList<>(limit);
+                while (rs.next()) out.add(RecordingMapper.fromRow(rs));
+                return out;
+            }
+        }
+    }
+    /** Creation time (epoch millis) of a recording read by this DAO, for {@link #findPage}. */
+    public static long createdAtOf(Recording r) {
+        return RecordingMapper.createdAtMillis(r.getRecordedAt(), 0L);
+    }
+    public long count() throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM recordings")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+    /**
+     * Recordings of {@code className} with {@code tag}, created in [{@code fromMs}, {@code toMs})
+     * (epoch millis), oldest first. A null argument does not filter.
+     */
+    public List<Recording> findMatching(String className, String tag, Long fromMs, Long toMs) throws SQLException {
+        RecordingSchema layout = schema();
+        StringBuilder sql = new StringBuilder("SELECT ").append(layout.selectColumns).append(" FROM recordings WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+        if (className != null) { sql.append(" AND class_name = ?"); args.add(className); }
+        if (tag != null) { sql.append(layout.hasTag ? " AND tag = ?" : " AND ? IS NULL"); args.add(tag); }
+        if (fromMs != null) { sql.append(" AND ").append(layout.createdCol).append(" >= ?"); args.add(fromMs); }
+        if (toMs != null) { sql.append(" AND ").append(layout.createdCol).append(" < ?"); args.add(toMs); }
+        sql.append(" ORDER BY _created_at, id");
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Recording> out = new ArrayList<>();
+                while (rs.next()) out.add(RecordingMapper.fromRow(rs));
+                return out;
+            }
+        }
+    }
+    /* ---------------- Headers (no note or transcript text) ---------------- */
+    /** What detail views show before the bodies: metadata plus whether a note and transcript exist. */
+    public static class Header {
+        private final long id;
+        private final String title;
+        private final String tag;
+        private final String className;
+        private final boolean hasNote;
+        private final boolean hasTranscript;
+        public Header(long id, String title, String tag, String className, boolean hasNote, boolean hasTranscript) {
+            this.id = id;
+            this.title = title;
+            this.tag = tag;
+            this.className = className;
+            this.hasNote = hasNote;
+            this.hasTranscript = hasTranscript;
+        }
+        public long getId() { return id; }
+        public String getTitle() { return title; }
+        public String getTag() { return tag; }
+        public String getClassName() { return className; }
+        public boolean hasNote() { return hasNote; }
+        public boolean hasTranscript() { return hasTranscript; }
+    }
+    /**
+     * Header of recording {@code id} in one query. The EXISTS probes use the recording_id
+     * indexes and never read the text; stream that with {@link NoteDao#openContentReader}
+     * and {@link TranscriptDao#openTextReader} when it is actually shown.
+     */
+    public Optional<Header> findHeader(long id) throws SQLException {
+        String sql = "SELECT r.id, r.title, " + (schema().hasTag ? "r.tag" : "''") + ", r.class_name, "
+                + exists("notes") + ", " + exists("transcripts") + " FROM recordings r WHERE r.id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                return Optional.of(new Header(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getBoolean(5), rs.getBoolean(6)));
+            }
+        }
+    }
+    private String exists(String table) throws SQLException {
+        // Read-only connections cannot create missing tables; nothing attached then.
+        if (SchemaCache.columns(conn, table).isEmpty()) return "0";
+        return "EXISTS(SELECT 1 FROM " + table + " x WHERE x.recording_id = r.id)";
+    }
+    /* ---------------- Audio metadata ---------------- */
+    /** Audio path by recording id, in id order; with {@code unprobedOnly}, only rows never probed. */
+    public Map<Long, String> findAudioPaths(boolean unprobedOnly) throws SQLException {
+        String sql = "SELECT id, " + schema().pathCol + " FROM recordings"
+                + (unprobedOnly ? " WHERE size_bytes IS NULL" : "") + " ORDER BY id";
+        try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            Map<Long, String> out = new LinkedHashMap<>();
+            while (rs.next()) {
+                String path = rs.getString(2);
+                if (path != null && !path.isBlank()) out.put(rs.getLong(1), path);
+            }
+            return out;
+        }
+    }
+    /**
+     * Store probed size and format in one transaction and one JDBC batch. Duration is only
+     * overwritten when the header gave one, so a known duration survives a failed parse.
+     */
+    public int updateAudioInfo(Map<Long, AudioInfo> infos) throws SQLException {
+        if (infos.isEmpty()) return 0;
+        String duration = schema().durationCol;
+        String sql = "UPDATE recordings SET size_bytes = ?, sample_rate = ?, channels = ?, "
+                + duration + " = CASE WHEN ? > 0 THEN ? ELSE " + duration + " END WHERE id = ?";
+        return UnitOfWork.inTransaction(conn, uow -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Map.Entry<Long, AudioInfo> e : infos.entrySet()) {
+                    AudioInfo a = e.getValue();
+                    ps.setLong(1, a.getSizeBytes());
+                    if (a.hasFormat()) {
+                        ps.setInt(2, a.getSampleRate());
+                        ps.setInt(3, a.getChannels());
+                    } else {
+                        ps.setNull(2, Types.INTEGER);
+                        ps.setNull(3, Types.INTEGER);
+                    }
+                    ps.setLong(4, a.getDurationMs());
+                    ps.setLong(5, a.getDurationMs());
+                    ps.setLong(6, e.getKey());
+                    ps.addBatch();
+                }
+                int n = 0;
+                for (int c : ps.executeBatch()) n += Math.max(c, 0);
+                return n;
+            }
+        });
+    }
     /* ---------------- Simple helpers ---------------- */
     public List<String> getAllRecordingNames() throws SQLException {
         List<String> list = new ArrayList<>();
@@ -191,16 +338,10 @@ public class RecordingDao {
         }
         return list;
     }
+    /** Titles of recordings matching {@code keyword} in title, tag, transcript or note, best match first. */
     public List<String> searchByKeyword(String keyword) throws SQLException {
         List<String> list = new ArrayList<>();
-        try (PreparedStatement ps = conn.prepareStatement(
-                "SELECT title FROM recordings WHERE title LIKE ? OR tag LIKE ? ORDER BY id")) {
-            ps.setString(1, "%" + keyword + "%");
-            ps.setString(2, "%" + keyword + "%");
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(rs.getString("title"));
-            }
-        }
+        for (SearchIndexDao.SearchHit hit : new SearchIndexDao(conn).search(keyword, Integer.MAX_VALUE)) list.add(hit.getTitle());
         return list;
     }
     public String getTagForRecording(String title) throws SQLException {
@@ -216,96 +357,14 @@ public class RecordingDao {
             ps.setString(1, tag);
             ps.setString(2, title);
             ps.executeUpdate();
-            DatabaseManager.commit(); // Ã¢Å“â€¦ commit change
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
-        }
-    }
-    /* ---------------- Reflection helpers ---------------- */
-    private Recording mapToModel(ResultSet rs) throws SQLException {
-        long id         = rs.getLong("id");
-        String title    = rs.getString("title");
-        String filePath = rs.getString("_path");
-        long durationMs = rs.getLong("_duration_ms");
-        long createdAt  = rs.getLong("_created_at");
-        String classNm  = rs.getString("class_name");
-        String tag      = hasColumn(conn, "recordings", "tag") ? rs.getString("tag") : "";
-        Recording r = newInstance(Recording.class);
-        setLong(r, "setId", id);
-        setString(r, "setTitle", title);
-        setString(r, "setFilePath", filePath);
-        setString(r, "setPath", filePath);
-        setString(r, "setAudioPath", filePath);
-        setLong(r, "setDurationMs", durationMs);
-        setLong(r, "setDuration", durationMs);
-        setLong(r, "setCreatedAt", createdAt);
-        setString(r, "setClassName", classNm);
-        setString(r, "setTag", tag);
-        setFieldIfPresent(r, "tag", tag);
-        return r;
-    }
-    private static <T> T newInstance(Class<T> c) {
-        try { return c.getDeclaredConstructor().newInstance(); }
-        catch (Exception e) { throw new RuntimeException("Model needs a no-arg ctor: " + c.getName(), e); }
-    }
-    private static void setIdOnModel(Object obj, long id) {
-        setLong(obj, "setId", id);
-        setInt(obj, "setId", (int) id);
-        setFieldIfPresent(obj, "id", id);
-    }
-    private static String nz(String s) { return s == null ? "" : s; }
-    private static void setString(Object o, String setter, String v) {
-        try { Method m = o.getClass().getMethod(setter, String.class); m.invoke(o, v); } catch (Exception ignored) {}
-    }
-    private static void setLong(Object o, String setter, long v) {
-        try { Method m = o.getClass().getMethod(setter, long.class); m.invoke(o, v); } catch (Exception ignored) {}
-        try { Method m = o.getClass().getMethod(setter, Long.class); m.invoke(o, v); } catch (Exception ignored) {}
-    }
-    private static void setInt(Object o, String setter, int v) {
-        try { Method m = o.getClass().getMethod(setter, int.class); m.invoke(o, v); } catch (Exception ignored) {}
-        try { Method m = o.getClass().getMethod(setter, Integer.class); m.invoke(o, v); } catch (Exception ignored) {}
-    }
-    private static void setFieldIfPresent(Object o, String name, Object v) {
-        try { Field f = o.getClass().getDeclaredField(name); f.setAccessible(true); f.set(o, v); } catch (Exception ignored) {}
-    }
-    private static String pickString(Object obj, String... names) {
-        for (String n : names) {
-            try { Method m = obj.getClass().getMethod(n); Object v = m.invoke(obj); if (v != null) return String.valueOf(v); }
-            catch (Exception ignored) {}
-        }
-        return "";
-    }
-    private static String pickStringOrNull(Object obj, String... names) {
-        for (String n : names) {
-            try { Method m = obj.getClass().getMethod(n); Object v = m.invoke(obj);
-                  if (v != null && !String.valueOf(v).isBlank()) return String.valueOf(v); }
-            catch (Exception ignored) {}
-        }
-        return null;
-    }
-    private static long pickLong(Object obj, long def, String... names) {
-        for (String n : names) {
-            try {
-                Method m = obj.getClass().getMethod(n);
-                Object v = m.invoke(obj);
-                if (v == null) continue;
-                if (v instanceof Number num) return num.longValue();
-                return Long.parseLong(String.valueOf(v));
-            } catch (Exception ignored) {}
         }
-        return def;
     }
     /* ---------- Legacy test helpers ---------- */
     public int deleteById(long id) throws SQLException {
         try (PreparedStatement ps = conn.prepareStatement("DELETE FROM recordings WHERE id=?")) {
             ps.setLong(1, id);
             int rows = ps.executeUpdate();
-            DatabaseManager.commit();
             return rows;
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
         }
     }
     public void updateClassName(int id, String className) throws SQLException {
@@ -313,10 +372,6 @@ public class RecordingDao {
             ps.setString(1, className);
             ps.setInt(2, id);
             ps.executeUpdate();
-            DatabaseManager.commit();
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
         }
     }
 }
@@ -0,0 +1,51 @@
+package com.notesapp.dao;
+import com.notesapp.model.Recording;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+/**
+ * Binds {@code recordings} rows to {@link Recording} through its setters/getters.
+ * Columns are read by position, in the order of {@link RecordingSchema#selectColumns},
+ * so mapping a row does no name lookups, reflection or exception handling.
+ */
+public final class RecordingMapper {
+    static final int ID = 1, TITLE = 2, PATH = 3, DURATION_MS = 4, CREATED_AT = 5, CLASS_NAME = 6, TAG = 7;
+    private RecordingMapper() {}
+    /** Map the current row of a result set selected with {@link RecordingSchema#selectColumns}. */
+    public static Recording fromRow(ResultSet rs) throws SQLException {
+        Recording r = new Recording();
+        r.setId((int) rs.getLong(ID));
+        r.setTitle(rs.getString(TITLE));
+        r.setPath(rs.getString(PATH));
+        r.setDurationSec((int) (rs.getLong(DURATION_MS) / 1000L));
+        r.setRecordedAt(rs.getString(CREATED_AT));
+        r.setClassName(rs.getString(CLASS_NAME));
+        return r;
+    }
+    /** Bind {@link RecordingSchema#insertSql} parameters. */
+    static void bindInsert(PreparedStatement ps, RecordingSchema layout, String title, String path,
+                           long durationMs, long createdAtMs, String className) throws SQLException {
+        int idx = 1;
+        ps.setString(idx++, title == null ? "" : title);
+        ps.setString(idx++, path == null ? "" : path);
+        ps.setLong(idx++, durationMs);
+        for (int i = 0; i < layout.createdCols.size(); i++) ps.setLong(idx++, createdAtMs);
+        if (className == null || className.isBlank()) ps.setNull(idx, Types.VARCHAR); else ps.setString(idx, className);
+    }
+    static void bindInsert(PreparedStatement ps, RecordingSchema layout, Recording r) throws SQLException {
+        bindInsert(ps, layout, r.getTitle(), r.getPath(), r.getDurationSec() * 1000L,
+                createdAtMillis(r.getRecordedAt(), System.currentTimeMillis()), r.getClassName());
+    }
+    /** Epoch millis stored in {@code recordedAt}; anything else (blank, ISO text) yields {@code fallback}. */
+    static long createdAtMillis(String recordedAt, long fallback) {
+        if (recordedAt == null || recordedAt.isEmpty() || recordedAt.length() > 18) return fallback;
+        long v = 0;
+        for (int i = 0; i < recordedAt.length(); i++) {
+            char c = recordedAt.charAt(i);
+            if (c < '0' || c > '9') return fallback;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+}
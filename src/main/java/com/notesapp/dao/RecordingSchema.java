@@ -0,0 +1,59 @@
+package com.notesapp.dao;
+import com.notesapp.db.SchemaCache;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+/**
+ * Resolved column layout of the {@code recordings} table (which legacy variant of
+ * path / duration / created columns this database uses) plus the SQL built from it.
+ * Resolved once per connection and schema generation; see {@link SchemaCache}.
+ */
+final class RecordingSchema {
+    static final String TABLE = "recordings";
+    final long generation;
+    final String pathCol;
+    final String durationCol;
+    final String createdCol;
+    final List<String> createdCols;
+    final boolean hasTag;
+    /** Columns in the order expected by {@link RecordingDao} row mapping. */
+    final String selectColumns;
+    final String insertSql;
+    private RecordingSchema(long generation, String pathCol, String durationCol, List<String> createdCols, boolean hasTag) {
+        this.generation = generation;
+        this.pathCol = pathCol;
+        this.durationCol = durationCol;
+        this.createdCols = Collections.unmodifiableList(createdCols);
+        this.createdCol = createdCols.get(0);
+        this.hasTag = hasTag;
+        this.selectColumns = "id, title, " + pathCol + " AS _path, " + durationCol + " AS _duration_ms, "
+                + createdCol + " AS _created_at, class_name, " + (hasTag ? "tag" : "'' AS tag");
+        StringBuilder cols = new StringBuilder("title, ").append(pathCol).append(", ").append(durationCol);
+        StringBuilder vals = new StringBuilder("?,?,?");
+        for (String c : createdCols) { cols.append(", ").append(c); vals.append(", ?"); }
+        cols.append(", class_name");
+        vals.append(", ?");
+        if (hasTag) { cols.append(", tag"); vals.append(", ''"); }
+        this.insertSql = "INSERT INTO recordings(" + cols + ") VALUES (" + vals + ")";
+    }
+    static RecordingSchema resolve(Connection conn) throws SQLException {
+        long gen = SchemaCache.generation();
+        String pcol = required(conn, "audio_path", "file_path", "path");
+        String dcol = required(conn, "duration_ms", "duration");
+        List<String> ccols = new ArrayList<>();
+        for (String c : new String[]{"created_at", "created_at_ms", "timestamp", "recorded_at"})
+            if (SchemaCache.hasColumn(conn, TABLE, c)) ccols.add(c);
+        if (ccols.isEmpty()) throw new SQLException("None of the expected columns exist: created_at,created_at_ms,timestamp,recorded_at");
+        return new RecordingSchema(gen, pcol, dcol, ccols, SchemaCache.hasColumn(conn, TABLE, "tag"));
+    }
+    boolean isCurrent() {
+        return generation == SchemaCache.generation();
+    }
+    private static String required(Connection conn, String... names) throws SQLException {
+        String col = SchemaCache.firstColumn(conn, TABLE, names);
+        if (col == null) throw new SQLException("None of the expected columns exist: " + String.join(",", names));
+        return col;
+    }
+}
@@ -0,0 +1,59 @@
+package com.notesapp.dao;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+/**
+ * Small LRU cache in front of {@link SearchIndexDao#search}, for as-you-type search where
+ * the same prefixes are asked for again and again. Entries are keyed by the normalized
+ * FTS query and limit, and are valid only for the {@link SearchIndexDao#version()} they
+ * were computed at: any write to recordings, transcripts or notes empties the cache.
+ * Thread-safe.
+ */
+public final class SearchCache {
+    public static final int DEFAULT_CAPACITY = 128;
+    private final Map<String, List<SearchIndexDao.SearchHit>> entries;
+    private long version = -1;   // index version the entries belong to; guarded by this
+    private long hits, misses;
+    public SearchCache() {
+        this(DEFAULT_CAPACITY);
+    }
+    public SearchCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.entries = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, List<SearchIndexDao.SearchHit>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+    /** Ranked hits for {@code userQuery}, from the cache when nothing was written since. */
+    public List<SearchIndexDao.SearchHit> search(Connection conn, String userQuery, int limit) throws SQLException {
+        SearchIndexDao index = new SearchIndexDao(conn);
+        String key = SearchIndexDao.toMatchQuery(userQuery) + '\u0000' + limit;
+        long current = index.version();
+        synchronized (this) {
+            if (current != version) {
+                entries.clear();
+                version = current;
+            }
+            List<SearchIndexDao.SearchHit> cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        List<SearchIndexDao.SearchHit> found = List.copyOf(index.search(userQuery, limit));
+        synchronized (this) {
+            if (version == current) entries.put(key, found);
+        }
+        return found;
+    }
+    public synchronized void clear() {
+        entries.clear();
+        version = -1;
+    }
+    public synchronized long hitCount() { return hits; }
+    public synchronized long missCount() { return misses; }
+}
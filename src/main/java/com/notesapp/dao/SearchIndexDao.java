@@ -0,0 +1,177 @@
+package com.notesapp.dao;
+import com.notesapp.db.SchemaCache;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * FTS5 full-text index over recording title/tag, transcript text and note content. Each
+ * source has its own index row ({@code search_sources}, rowid = recording id * 4 + source),
+ * so a note write re-tokenizes the note only, not a transcript of several megabytes.
+ * Triggers on the three source tables keep it in sync, so DAOs need no extra calls. The same
+ * triggers bump {@link #version()}, which lets callers cache search results until the next write.
+ */
+public class SearchIndexDao {
+    public static final String HIGHLIGHT_OPEN = "[";
+    public static final String HIGHLIGHT_CLOSE = "]";
+    private static final int SOURCES = 4;   // rowid slots per recording
+    private static final int HEADER = 0, TRANSCRIPT = 1, NOTE = 2;
+    private final Connection conn;
+    public SearchIndexDao(Connection conn) throws SQLException {
+        this.conn = conn;
+        createTable(conn);
+    }
+    public Connection connection() { return conn; }
+    /** Create the index, its sync triggers and backfill existing rows (idempotent). */
+    public static void createTable(Connection conn) throws SQLException {
+        boolean indexed = !SchemaCache.columns(conn, "search_sources").isEmpty();
+        if (indexed && !SchemaCache.columns(conn, "search_index_version").isEmpty()) return;
+        RecordingDao.createTable(conn);
+        NoteDao.createTable(conn);
+        TranscriptDao.createTable(conn);
+        String body = SchemaCache.firstColumn(conn, "transcripts", "text", "content");
+        if (body == null) throw new SQLException("transcripts table has no text/content column");
+        try (Statement st = conn.createStatement()) {
+            // The earlier index kept one row per recording; its triggers are dropped below.
+            st.execute("DROP TABLE IF EXISTS search_index");
+            st.execute("""
+                CREATE VIRTUAL TABLE IF NOT EXISTS search_sources USING fts5(
+                  title, tag, transcript, note,
+                  tokenize = 'unicode61 remove_diacritics 2',
+                  prefix = '2 3'
+                )
+            """);
+            st.execute("CREATE TABLE IF NOT EXISTS search_index_version(id INTEGER PRIMARY KEY CHECK (id = 1), v INTEGER NOT NULL)");
+            st.execute("INSERT OR IGNORE INTO search_index_version(id, v) VALUES (1, 0)");
+            // Indexes created before the version table have triggers that do not bump it.
+            for (String t : new String[]{"recordings_ai", "recordings_au", "recordings_ad", "transcripts_ai",
+                    "transcripts_au", "transcripts_ad", "notes_ai", "notes_au", "notes_ad"}) {
+                st.execute("DROP TRIGGER IF EXISTS search_" + t);
+            }
+            String insertHeader = "INSERT INTO search_sources(rowid, title, tag) VALUES (" + rowid("NEW.id", HEADER) + ", NEW.title, NEW.tag); ";
+            st.execute("CREATE TRIGGER IF NOT EXISTS search_recordings_ai AFTER INSERT ON recordings BEGIN "
+                    + insertHeader + BUMP_VERSION + " END");
+            st.execute("CREATE TRIGGER IF NOT EXISTS search_recordings_au AFTER UPDATE OF title, tag ON recordings BEGIN "
+                    + deleteRow("OLD.id", HEADER) + insertHeader + BUMP_VERSION + " END");
+            st.execute("CREATE TRIGGER IF NOT EXISTS search_recordings_ad AFTER DELETE ON recordings BEGIN "
+                    + "DELETE FROM search_sources WHERE rowid BETWEEN " + rowid("OLD.id", 0) + " AND " + rowid("OLD.id", SOURCES - 1) + "; "
+                    + BUMP_VERSION + " END");
+            createSourceTriggers(st, "transcripts", body, "transcript", TRANSCRIPT);
+            createSourceTriggers(st, "notes", "content", "note", NOTE);
+        }
+        SchemaCache.invalidate();
+        if (!indexed) rebuild(conn, body);
+    }
+    private static final String BUMP_VERSION = "UPDATE search_index_version SET v = v + 1;";
+    /** Triggers that keep the {@code column} row of each recording in step with {@code table.source}. */
+    private static void createSourceTriggers(Statement st, String table, String source, String column, int kind) throws SQLException {
+        String insert = "INSERT INTO search_sources(rowid, " + column + ") VALUES ("
+                + rowid("NEW.recording_id", kind) + ", NEW." + source + "); ";
+        String delete = deleteRow("OLD.recording_id", kind);
+        st.execute("CREATE TRIGGER IF NOT EXISTS search_" + table + "_ai AFTER INSERT ON " + table + " BEGIN "
+                + insert + BUMP_VERSION + " END");
+        st.execute("CREATE TRIGGER IF NOT EXISTS search_" + table + "_au AFTER UPDATE OF " + source + ", recording_id ON " + table
+                + " BEGIN " + delete + insert + BUMP_VERSION + " END");
+        st.execute("CREATE TRIGGER IF NOT EXISTS search_" + table + "_ad AFTER DELETE ON " + table + " BEGIN "
+                + delete + BUMP_VERSION + " END");
+    }
+    private static String rowid(String idExpr, int kind) {
+        return "(" + idExpr + ") * " + SOURCES + " + " + kind;
+    }
+    private static String deleteRow(String idExpr, int kind) {
+        return "DELETE FROM search_sources WHERE rowid = " + rowid(idExpr, kind) + "; ";
+    }
+    private static void rebuild(Connection conn, String body) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DELETE FROM search_sources");
+            st.execute("INSERT INTO search_sources(rowid, title, tag) SELECT " + rowid("id", HEADER) + ", title, tag FROM recordings");
+            st.execute("INSERT INTO search_sources(rowid, transcript) SELECT " + rowid("recording_id", TRANSCRIPT) + ", " + body + " FROM transcripts");
+            st.execute("INSERT INTO search_sources(rowid, note) SELECT " + rowid("recording_id", NOTE) + ", content FROM notes");
+            st.execute(BUMP_VERSION);
+        }
+    }
+    /** Re-create every index row from the source tables. */
+    public void rebuild() throws SQLException {
+        rebuild(conn, SchemaCache.firstColumn(conn, "transcripts", "text", "content"));
+    }
+    /** Changes with every write to an indexed table; equal versions mean equal search results. */
+    public long version() throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT v FROM search_index_version WHERE id = 1")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+    // ---------- Row type ----------
+    public static class SearchHit {
+        private final long recordingId;
+        private final String title;
+        private final String tag;
+        private final double score;
+        private final String snippet;
+        public SearchHit(long recordingId, String title, String tag, double score, String snippet) {
+            this.recordingId = recordingId;
+            this.title = title;
+            this.tag = tag;
+            this.score = score;
+            this.snippet = snippet;
+        }
+        public long getRecordingId() { return recordingId; }
+        public String getTitle() { return title; }
+        public String getTag() { return tag; }
+        /** Relevance (negated bm25); higher is better. */
+        public double getScore() { return score; }
+        /** Best-matching fragment with terms wrapped in {@link #HIGHLIGHT_OPEN}/{@link #HIGHLIGHT_CLOSE}. */
+        public String getSnippet() { return snippet; }
+        @Override public String toString() { return title; }
+    }
+    // ---------- Search ----------
+    /**
+     * Ranked search; title and tag matches weigh more than note and transcript matches, and a
+     * recording's score adds up over its sources. Every word of {@code userQuery} must match,
+     * as a prefix, in any of the recording's sources.
+     */
+    public List<SearchHit> search(String userQuery, int limit) throws SQLException {
+        List<String> terms = terms(userQuery);
+        List<SearchHit> hits = new ArrayList<>();
+        if (terms.isEmpty()) return hits;
+        // Rows matching any word are scored; the IN clauses keep recordings that have every word.
+        // The snippet comes from the row with min(rank), the best one.
+        // MATERIALIZED: bm25() and snippet() only work in the query that runs the MATCH.
+        StringBuilder sql = new StringBuilder()
+                .append("WITH h AS MATERIALIZED (")
+                .append("SELECT rowid / ").append(SOURCES).append(" AS rid, bm25(search_sources, 10.0, 5.0, 1.0, 2.0) AS rank, ")
+                .append("snippet(search_sources, -1, ?, ?, '…', 12) AS snip ")
+                .append("FROM search_sources WHERE search_sources MATCH ?) ")
+                .append("SELECT h.rid, r.title, r.tag, sum(h.rank) AS score, min(h.rank), h.snip ")
+                .append("FROM h JOIN recordings r ON r.id = h.rid WHERE 1");
+        for (int i = 0; i < terms.size(); i++) {
+            sql.append(" AND h.rid IN (SELECT rowid / ").append(SOURCES).append(" FROM search_sources WHERE search_sources MATCH ?)");
+        }
+        sql.append(" GROUP BY h.rid ORDER BY score LIMIT ?");
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int p = 1;
+            ps.setString(p++, HIGHLIGHT_OPEN);
+            ps.setString(p++, HIGHLIGHT_CLOSE);
+            ps.setString(p++, String.join(" OR ", terms));
+            for (String term : terms) ps.setString(p++, term);
+            ps.setInt(p, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    hits.add(new SearchHit(rs.getLong(1), rs.getString(2), rs.getString(3), -rs.getDouble(4), rs.getString(6)));
+                }
+            }
+        }
+        return hits;
+    }
+    /** Turn free text into an FTS5 query: each word quoted (no operator injection) and prefix-matched. */
+    public static String toMatchQuery(String userQuery) {
+        return String.join(" ", terms(userQuery));
+    }
+    private static List<String> terms(String userQuery) {
+        List<String> terms = new ArrayList<>();
+        if (userQuery == null) return terms;
+        for (String word : userQuery.split("[^\\p{L}\\p{N}_]+")) {
+            if (!word.isEmpty()) terms.add('"' + word + "\"*");
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,100 @@
+package com.notesapp.dao;
+import com.notesapp.db.SchemaCache;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.Optional;
+/**
+ * Transcripts by (audio content hash, model identity), independent of any recording, so
+ * identical audio imported again does not have to be transcribed again.
+ */
+public class TranscriptCacheDao {
+    /** Cached text and, when it came from a streaming run, one "start_ms end_ms" line per text line. */
+    public record Entry(String text, String timings) {}
+    private final Connection conn;
+    public TranscriptCacheDao(Connection conn) throws SQLException {
+        this.conn = conn;
+        createTable(conn);
+    }
+    public Connection connection() { return conn; }
+    /** Create table if it doesn't exist (idempotent). */
+    public static void createTable(Connection conn) throws SQLException {
+        if (!SchemaCache.columns(conn, "transcript_cache").isEmpty()) {
+            if (!SchemaCache.hasColumn(conn, "transcript_cache", "timings")) {
+                try (Statement st = conn.createStatement()) {
+                    st.executeUpdate("ALTER TABLE transcript_cache ADD COLUMN timings TEXT");
+                }
+                SchemaCache.invalidate();
+            }
+            return;
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS transcript_cache (
+                    audio_sha256 TEXT NOT NULL,
+                    model TEXT NOT NULL,
+                    text TEXT NOT NULL,
+                    timings TEXT,
+                    bytes INTEGER NOT NULL,
+                    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    last_used_at INTEGER NOT NULL,
+                    PRIMARY KEY (audio_sha256, model)
+                ) WITHOUT ROWID
+            """);
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transcript_cache_lru ON transcript_cache(last_used_at)");
+        }
+    }
+    /** Cached entry, marking it as just used. */
+    public Optional<Entry> find(String audioSha256, String model) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE transcript_cache SET last_used_at = ? WHERE audio_sha256 = ? AND model = ? RETURNING text, timings")) {
+            ps.setLong(1, System.currentTimeMillis());
+            ps.setString(2, audioSha256);
+            ps.setString(3, model);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(new Entry(rs.getString(1), rs.getString(2))) : Optional.empty();
+            }
+        }
+    }
+    /** {@code timings} may be null: the text is cached without segment timing. */
+    public void put(String audioSha256, String model, String text, String timings) throws SQLException {
+        final String sql = """
+            INSERT INTO transcript_cache (audio_sha256, model, text, timings, bytes, last_used_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(audio_sha256, model) DO UPDATE SET
+              text = excluded.text, timings = excluded.timings, bytes = excluded.bytes,
+              last_used_at = excluded.last_used_at
+        """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, audioSha256);
+            ps.setString(2, model);
+            ps.setString(3, text);
+            ps.setString(4, timings);
+            ps.setLong(5, text.getBytes(StandardCharsets.UTF_8).length
+                    + (timings == null ? 0 : timings.length()));
+            ps.setLong(6, System.currentTimeMillis());
+            ps.executeUpdate();
+        }
+    }
+    /** Total size of cached text and timings in bytes. */
+    public long totalBytes() throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(SUM(bytes), 0) FROM transcript_cache")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    /** Drop least recently used entries until at most {@code maxBytes} remain; returns how many were dropped. */
+    public int evictTo(long maxBytes) throws SQLException {
+        final String sql = """
+            DELETE FROM transcript_cache WHERE (audio_sha256, model) IN (
+              SELECT audio_sha256, model FROM (
+                SELECT audio_sha256, model,
+                       SUM(bytes) OVER (ORDER BY last_used_at DESC, audio_sha256, model) AS kept
+                FROM transcript_cache)
+              WHERE kept > ?)
+        """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, maxBytes);
+            return ps.executeUpdate();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.notesapp.dao;
-import com.notesapp.db.DatabaseManager;
+import com.notesapp.db.SchemaCache;
+import java.io.Reader;
 import java.sql.*;
 import java.util.Optional;
 public class TranscriptDao {
@@ -11,8 +12,12 @@ public class TranscriptDao {
         }
         createTable(conn);
     }
+    /** Connection this DAO runs on; writes auto-commit unless a {@link com.notesapp.db.UnitOfWork} is active on it. */
+    public Connection connection() { return conn; }
     /** Create table if not exists (idempotent). */
     public static void createTable(Connection conn) throws SQLException {
+        // Already present: skip the DDL so read-only connections can build DAOs too.
+        if (!SchemaCache.columns(conn, "transcripts").isEmpty()) return;
         try (Statement st = conn.createStatement()) {
             st.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS transcripts (
@@ -27,14 +32,7 @@ public class TranscriptDao {
     }
     // ---------- MIGRATION HELPERS ----------
     private static boolean hasColumn(Connection c, String table, String col) throws SQLException {
-        try (PreparedStatement ps = c.prepareStatement("PRAGMA table_info(" + table + ")")) {
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    if (col.equalsIgnoreCase(rs.getString("name"))) return true;
-                }
-            }
-        }
-        return false;
+        return SchemaCache.hasColumn(c, table, col);
     }
     /** Add missing 'text' or 'created_at' columns for older DBs. Idempotent. */
     public static void migrate(Connection conn) throws SQLException {
@@ -45,11 +43,13 @@ public class TranscriptDao {
             try (Statement st = conn.createStatement()) {
                 st.executeUpdate("ALTER TABLE transcripts ADD COLUMN text TEXT");
             }
+            SchemaCache.invalidate();
         }
         if (!hasColumn(conn, "transcripts", "created_at")) {
             try (Statement st = conn.createStatement()) {
                 st.executeUpdate("ALTER TABLE transcripts ADD COLUMN created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP");
             }
+            SchemaCache.invalidate();
         }
     }
     // ---------- Row type ----------
@@ -87,11 +87,7 @@ public class TranscriptDao {
             ps.setLong(1, recordingId);
             ps.setString(2, text == null ? "" : text);
             int updated = ps.executeUpdate();
-            DatabaseManager.commit();     // Ã¢Å“â€¦ commit on success
             return updated;
-        } catch (SQLException e) {
-            DatabaseManager.rollback();   // Ã°Å¸â€Â rollback on error
-            throw e;
         }
     }
     // ---------- Reads ----------
@@ -117,17 +113,27 @@ public class TranscriptDao {
             }
         }
     }
+    /**
+     * Streams the transcript text; close the reader before the connection. A transcript stored
+     * with timed segments is read from them a page at a time, otherwise the text column is read
+     * in slices.
+     */
+    public Reader openTextReader(long recordingId) throws SQLException {
+        if (!SchemaCache.columns(conn, "transcript_segments").isEmpty()) {
+            TranscriptSegmentDao segments = new TranscriptSegmentDao(conn);
+            if (segments.count(recordingId) > 0) return segments.openTextReader(recordingId);
+        }
+        String body = SchemaCache.firstColumn(conn, "transcripts", "text", "content");
+        if (body == null) return Reader.nullReader();
+        return new ChunkedTextReader(conn, "transcripts", body, "recording_id", recordingId);
+    }
     // ---------- Deletes ----------
     public int deleteByRecordingId(long recordingId) throws SQLException {
         String sql = "DELETE FROM transcripts WHERE recording_id = ?";
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, recordingId);
             int deleted = ps.executeUpdate();
-            DatabaseManager.commit();
             return deleted;
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
         }
     }
     // ---------- Title-based helpers (UI) ----------
@@ -156,10 +162,6 @@ public class TranscriptDao {
             ps.setString(1, transcript);
             ps.setString(2, title);
             ps.executeUpdate();
-            DatabaseManager.commit();     // Ã¢Å“â€¦ commit save
-        } catch (SQLException e) {
-            DatabaseManager.rollback();
-            throw e;
         }
     }
 }
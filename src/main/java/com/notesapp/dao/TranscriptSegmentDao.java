@@ -0,0 +1,261 @@
+package com.notesapp.dao;
+import com.notesapp.db.SchemaCache;
+import com.notesapp.db.UnitOfWork;
+import com.notesapp.transcription.TranscriptSegment;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+/**
+ * Timestamped transcript segments, numbered 0, 1, 2... per recording in the order whisper
+ * produced them. The table is clustered by (recording_id, seq) (WITHOUT ROWID), so a page
+ * is one contiguous read; {@code idx_transcript_segments_time} on (recording_id, start_ms,
+ * end_ms) answers time ranges without touching the text of segments outside them.
+ * Segments of one recording are assumed not to overlap, as whisper emits them.
+ * <p>
+ * A transcription in progress writes to {@code transcript_segment_drafts} instead
+ * ({@link #stage}); {@link #publishStaged} swaps the drafts in once it has succeeded, and
+ * {@link #discardStaged} drops them if it did not, so a failed run leaves the previous
+ * transcript as it was.
+ */
+public class TranscriptSegmentDao {
+    /** Segments fetched per query by {@link #openTextReader}. */
+    static final int TEXT_PAGE = 256;
+    private final Connection conn;
+    public TranscriptSegmentDao(Connection conn) throws SQLException {
+        this.conn = conn;
+        try (Statement s = conn.createStatement()) { s.execute("PRAGMA foreign_keys = ON"); }
+        createTable(conn);
+    }
+    public Connection connection() { return conn; }
+    /** Create tables and index if they don't exist (idempotent). */
+    public static void createTable(Connection conn) throws SQLException {
+        // Already present: skip the DDL so read-only connections can build DAOs too.
+        if (!SchemaCache.columns(conn, "transcript_segments").isEmpty()
+                && !SchemaCache.columns(conn, "transcript_segment_drafts").isEmpty()) return;
+        RecordingDao.createTable(conn);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS transcript_segments (
+                    recording_id INTEGER NOT NULL,
+                    seq INTEGER NOT NULL,
+                    start_ms INTEGER NOT NULL,
+                    end_ms INTEGER NOT NULL,
+                    text TEXT NOT NULL,
+                    PRIMARY KEY (recording_id, seq),
+                    FOREIGN KEY (recording_id) REFERENCES recordings(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+            """);
+            // The primary key columns ride along in every index entry, so this also yields seq.
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transcript_segments_time "
+                    + "ON transcript_segments(recording_id, start_ms, end_ms)");
+            // Same shape, no time index: only appended to and read back in order.
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS transcript_segment_drafts (
+                    recording_id INTEGER NOT NULL,
+                    seq INTEGER NOT NULL,
+                    start_ms INTEGER NOT NULL,
+                    end_ms INTEGER NOT NULL,
+                    text TEXT NOT NULL,
+                    PRIMARY KEY (recording_id, seq),
+                    FOREIGN KEY (recording_id) REFERENCES recordings(id) ON DELETE CASCADE
+                ) WITHOUT ROWID
+            """);
+        }
+    }
+    // ---------- Writes ----------
+    /** Append {@code segments} after the recording's last one; returns the seq of the first. */
+    public long append(long recordingId, List<TranscriptSegment> segments) throws SQLException {
+        return insert("transcript_segments", recordingId, segments);
+    }
+    private long insert(String table, long recordingId, List<TranscriptSegment> segments) throws SQLException {
+        long first = lastSeq(table, recordingId) + 1;
+        if (segments.isEmpty()) return first;
+        UnitOfWork.inTransaction(conn, uow -> {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO " + table + "(recording_id, seq, start_ms, end_ms, text) VALUES (?, ?, ?, ?, ?)")) {
+                long seq = first;
+                for (TranscriptSegment s : segments) {
+                    ps.setLong(1, recordingId);
+                    ps.setLong(2, seq++);
+                    ps.setLong(3, s.getStartMs());
+                    ps.setLong(4, s.getEndMs());
+                    ps.setString(5, s.getText());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+        return first;
+    }
+    /** Replace all segments of a recording. */
+    public void replaceAll(long recordingId, List<TranscriptSegment> segments) throws SQLException {
+        UnitOfWork.inTransaction(conn, uow -> {
+            deleteByRecordingId(recordingId);
+            append(recordingId, segments);
+            return null;
+        });
+    }
+    public int deleteByRecordingId(long recordingId) throws SQLException {
+        return delete("transcript_segments", recordingId);
+    }
+    private int delete(String table, long recordingId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + table + " WHERE recording_id = ?")) {
+            ps.setLong(1, recordingId);
+            return ps.executeUpdate();
+        }
+    }
+    // ---------- Drafts of a transcription in progress ----------
+    /** Append {@code segments} to the recording's draft; returns the seq of the first. */
+    public long stage(long recordingId, List<TranscriptSegment> segments) throws SQLException {
+        return insert("transcript_segment_drafts", recordingId, segments);
+    }
+    /** The draft's text, one segment per line. */
+    public String stagedText(long recordingId) throws SQLException {
+        StringBuilder text = new StringBuilder();
+        forEachStaged(recordingId, seg -> {
+            if (text.length() > 0) text.append('\n');
+            text.append(seg.getText());
+        });
+        return text.toString();
+    }
+    public void forEachStaged(long recordingId, Consumer<TranscriptSegment> action) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT start_ms, end_ms, text FROM transcript_segment_drafts WHERE recording_id = ? ORDER BY seq")) {
+            ps.setLong(1, recordingId);
+            forEachRow(ps, action);
+        }
+    }
+    /** Replace the recording's segments with its draft and clear the draft; returns the segment count. */
+    public int publishStaged(long recordingId) throws SQLException {
+        return UnitOfWork.inTransaction(conn, uow -> {
+            deleteByRecordingId(recordingId);
+            int n;
+            try (PreparedStatement ps = conn.prepareStatement("""
+                    INSERT INTO transcript_segments(recording_id, seq, start_ms, end_ms, text)
+                    SELECT recording_id, seq, start_ms, end_ms, text FROM transcript_segment_drafts
+                    WHERE recording_id = ? ORDER BY seq
+                    """)) {
+                ps.setLong(1, recordingId);
+                n = ps.executeUpdate();
+            }
+            discardStaged(recordingId);
+            return n;
+        });
+    }
+    public int discardStaged(long recordingId) throws SQLException {
+        return delete("transcript_segment_drafts", recordingId);
+    }
+    // ---------- Reads ----------
+    public long count(long recordingId) throws SQLException {
+        // seq is dense from 0, so the last one gives the count without a scan.
+        return lastSeq("transcript_segments", recordingId) + 1;
+    }
+    private long lastSeq(String table, long recordingId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT seq FROM " + table + " WHERE recording_id = ? ORDER BY seq DESC LIMIT 1")) {
+            ps.setLong(1, recordingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1L;
+            }
+        }
+    }
+    /** Up to {@code limit} segments starting at {@code fromSeq}; the next page starts at {@code fromSeq + size}. */
+    public List<TranscriptSegment> findPage(long recordingId, long fromSeq, int limit) throws SQLException {
+        String sql = "SELECT start_ms, end_ms, text FROM transcript_segments "
+                + "WHERE recording_id = ? AND seq >= ? ORDER BY seq LIMIT ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, recordingId);
+            ps.setLong(2, fromSeq);
+            ps.setInt(3, limit);
+            List<TranscriptSegment> out = new ArrayList<>(Math.min(limit, 1024));
+            forEachRow(ps, out::add);
+            return out;
+        }
+    }
+    /** Segments overlapping [{@code fromMs}, {@code toMs}), in order, e.g. "20:00 to 25:00". */
+    public List<TranscriptSegment> findRange(long recordingId, long fromMs, long toMs) throws SQLException {
+        List<TranscriptSegment> out = new ArrayList<>();
+        forEachInRange(recordingId, fromMs, toMs, out::add);
+        return out;
+    }
+    /** Streams the segments overlapping [{@code fromMs}, {@code toMs}) one row at a time. */
+    public void forEachInRange(long recordingId, long fromMs, long toMs, Consumer<TranscriptSegment> action) throws SQLException {
+        // Seek to the segment containing fromMs, then read forward until toMs: two index range scans.
+        String sql = """
+            SELECT start_ms, end_ms, text FROM transcript_segments
+            WHERE recording_id = ? AND start_ms < ? AND end_ms > ?
+              AND start_ms >= coalesce((SELECT max(start_ms) FROM transcript_segments
+                                        WHERE recording_id = ? AND start_ms <= ?), 0)
+            ORDER BY start_ms, seq
+        """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, recordingId);
+            ps.setLong(2, toMs);
+            ps.setLong(3, fromMs);
+            ps.setLong(4, recordingId);
+            ps.setLong(5, fromMs);
+            forEachRow(ps, action);
+        }
+    }
+    /** Streams every segment of a recording in order without building a list. */
+    public void forEach(long recordingId, Consumer<TranscriptSegment> action) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT start_ms, end_ms, text FROM transcript_segments WHERE recording_id = ? ORDER BY seq")) {
+            ps.setLong(1, recordingId);
+            forEachRow(ps, action);
+        }
+    }
+    /**
+     * The recording's text, one segment per line as it is stored in {@code transcripts}, read
+     * through {@link #findPage} a page at a time; close the reader before the connection.
+     */
+    public Reader openTextReader(long recordingId) {
+        return new TextReader(recordingId);
+    }
+    private final class TextReader extends Reader {
+        private final long recordingId;
+        private long nextSeq;
+        private CharBuffer page = CharBuffer.allocate(0);
+        private boolean lastPage;
+        TextReader(long recordingId) { this.recordingId = recordingId; }
+        @Override public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            while (!page.hasRemaining()) {
+                if (lastPage) return -1;
+                nextPage();
+            }
+            int n = Math.min(len, page.remaining());
+            page.get(cbuf, off, n);
+            return n;
+        }
+        private void nextPage() throws IOException {
+            List<TranscriptSegment> segments;
+            try {
+                segments = findPage(recordingId, nextSeq, TEXT_PAGE);
+            } catch (SQLException e) {
+                throw new IOException("Could not read segments of " + recordingId, e);
+            }
+            StringBuilder text = new StringBuilder();
+            for (TranscriptSegment seg : segments) {
+                if (nextSeq++ > 0) text.append('\n');
+                text.append(seg.getText());
+            }
+            lastPage = segments.size() < TEXT_PAGE;
+            page = CharBuffer.wrap(text);
+        }
+        @Override public void close() {
+            lastPage = true;
+            page = CharBuffer.allocate(0);
+        }
+    }
+    private static void forEachRow(PreparedStatement ps, Consumer<TranscriptSegment> action) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) action.accept(new TranscriptSegment(rs.getLong(1), rs.getLong(2), rs.getString(3)));
+        }
+    }
+}
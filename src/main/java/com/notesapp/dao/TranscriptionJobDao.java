@@ -0,0 +1,233 @@
+package com.notesapp.dao;
+import com.notesapp.db.SchemaCache;
+import java.sql.*;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+/**
+ * Persistent transcription queue. Jobs are claimed highest priority first, then oldest;
+ * a recording has at most one queued or running job at a time.
+ */
+public class TranscriptionJobDao {
+    public enum Status { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private final Connection conn;
+    public TranscriptionJobDao(Connection conn) throws SQLException {
+        this.conn = conn;
+        createTable(conn);
+    }
+    public Connection connection() { return conn; }
+    /** Create table and indexes if they don't exist (idempotent). */
+    public static void createTable(Connection conn) throws SQLException {
+        if (!SchemaCache.columns(conn, "transcription_jobs").isEmpty()) return;
+        // Workers write transcripts and notes, so those tables must exist too.
+        RecordingDao.createTable(conn);
+        TranscriptDao.createTable(conn);
+        NoteDao.createTable(conn);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS transcription_jobs (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    recording_id INTEGER NOT NULL,
+                    audio_path TEXT NOT NULL,
+                    priority INTEGER NOT NULL DEFAULT 0,
+                    status TEXT NOT NULL DEFAULT 'QUEUED',
+                    attempts INTEGER NOT NULL DEFAULT 0,
+                    max_attempts INTEGER NOT NULL DEFAULT 3,
+                    not_before INTEGER NOT NULL DEFAULT 0,
+                    last_error TEXT,
+                    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (recording_id) REFERENCES recordings(id) ON DELETE CASCADE
+                )
+            """);
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_transcription_jobs_claim "
+                    + "ON transcription_jobs(status, priority DESC, id)");
+            st.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS idx_transcription_jobs_active "
+                    + "ON transcription_jobs(recording_id) WHERE status IN ('QUEUED', 'RUNNING')");
+        }
+    }
+    // ---------- Row type ----------
+    public static class Job {
+        private final long id;
+        private final long recordingId;
+        private final String audioPath;
+        private final int priority;
+        private final Status status;
+        private final int attempts;
+        private final int maxAttempts;
+        private final String lastError;
+        public Job(long id, long recordingId, String audioPath, int priority, Status status,
+                   int attempts, int maxAttempts, String lastError) {
+            this.id = id;
+            this.recordingId = recordingId;
+            this.audioPath = audioPath;
+            this.priority = priority;
+            this.status = status;
+            this.attempts = attempts;
+            this.maxAttempts = maxAttempts;
+            this.lastError = lastError;
+        }
+        public long getId() { return id; }
+        public long getRecordingId() { return recordingId; }
+        public String getAudioPath() { return audioPath; }
+        public int getPriority() { return priority; }
+        public Status getStatus() { return status; }
+        public int getAttempts() { return attempts; }
+        public int getMaxAttempts() { return maxAttempts; }
+        public String getLastError() { return lastError; }
+    }
+    private static final String COLUMNS = "id, recording_id, audio_path, priority, status, attempts, max_attempts, last_error";
+    private static Job map(ResultSet rs) throws SQLException {
+        return new Job(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getInt(4),
+                Status.valueOf(rs.getString(5)), rs.getInt(6), rs.getInt(7), rs.getString(8));
+    }
+    // ---------- Enqueue ----------
+    /** Queue a job for the recording; returns the already active job's id if there is one. */
+    public long enqueue(long recordingId, String audioPath, int priority) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT OR IGNORE INTO transcription_jobs (recording_id, audio_path, priority, max_attempts) VALUES (?, ?, ?, ?)")) {
+            ps.setLong(1, recordingId);
+            ps.setString(2, audioPath);
+            ps.setInt(3, priority);
+            ps.setInt(4, DEFAULT_MAX_ATTEMPTS);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT id FROM transcription_jobs WHERE recording_id = ? AND status IN ('QUEUED', 'RUNNING')")) {
+            ps.setLong(1, recordingId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Job for recording " + recordingId + " was not queued");
+                return rs.getLong(1);
+            }
+        }
+    }
+    /** Queue every recording that has no transcript text and no active job; returns how many were queued. */
+    public int enqueueUntranscribed(int priority) throws SQLException {
+        String path = RecordingSchema.resolve(conn).pathCol;
+        String body = SchemaCache.firstColumn(conn, "transcripts", "text", "content");
+        if (body == null) throw new SQLException("transcripts table has no text/content column");
+        String sql = "INSERT OR IGNORE INTO transcription_jobs (recording_id, audio_path, priority, max_attempts) "
+                   + "SELECT r.id, r." + path + ", ?, ? FROM recordings r "
+                   + "WHERE r." + path + " IS NOT NULL AND r." + path + " <> '' "
+                   + "AND NOT EXISTS (SELECT 1 FROM transcripts t WHERE t.recording_id = r.id "
+                   + "AND t." + body + " IS NOT NULL AND t." + body + " <> '') ORDER BY r.id";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, priority);
+            ps.setInt(2, DEFAULT_MAX_ATTEMPTS);
+            return ps.executeUpdate();
+        }
+    }
+    // ---------- Worker side ----------
+    /** Atomically move the best due job to RUNNING and count the attempt; empty if none is due. */
+    public Optional<Job> claimNext(long nowEpochMs) throws SQLException {
+        String sql = "UPDATE transcription_jobs SET status = 'RUNNING', attempts = attempts + 1, "
+                   + "updated_at = CURRENT_TIMESTAMP WHERE id = ("
+                   + "SELECT id FROM transcription_jobs WHERE status = 'QUEUED' AND not_before <= ? "
+                   + "ORDER BY priority DESC, id LIMIT 1) RETURNING " + COLUMNS;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, nowEpochMs);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+            }
+        }
+    }
+    /** Mark a running job done; false if it is no longer running (e.g. cancelled meanwhile). */
+    public boolean markDone(long jobId) throws SQLException {
+        return transition(jobId, "status = 'DONE', last_error = NULL", "status = 'RUNNING'") == 1;
+    }
+    /**
+     * Record a failed attempt: back to QUEUED, not before {@code retryAtEpochMs}, while attempts
+     * remain; FAILED otherwise. Returns the resulting status, or empty if the job was not running.
+     */
+    public Optional<Status> markFailed(long jobId, String error, long retryAtEpochMs) throws SQLException {
+        String sql = "UPDATE transcription_jobs SET "
+                   + "status = CASE WHEN attempts < max_attempts THEN 'QUEUED' ELSE 'FAILED' END, "
+                   + "not_before = ?, last_error = ?, updated_at = CURRENT_TIMESTAMP "
+                   + "WHERE id = ? AND status = 'RUNNING' RETURNING status";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, retryAtEpochMs);
+            ps.setString(2, error);
+            ps.setLong(3, jobId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(Status.valueOf(rs.getString(1))) : Optional.empty();
+            }
+        }
+    }
+    /** Fail a running job without further retries (e.g. whisper.cpp is not installed). */
+    public boolean markFailedPermanently(long jobId, String error) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE transcription_jobs SET status = 'FAILED', "
+                + "last_error = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND status = 'RUNNING'")) {
+            ps.setString(1, error);
+            ps.setLong(2, jobId);
+            return ps.executeUpdate() == 1;
+        }
+    }
+    /** Put a running job back in the queue without counting the attempt (worker shut down). */
+    public boolean release(long jobId) throws SQLException {
+        return transition(jobId, "status = 'QUEUED', attempts = MAX(attempts - 1, 0)", "status = 'RUNNING'") == 1;
+    }
+    /** Cancel a queued or running job; false if it had already finished. */
+    public boolean cancel(long jobId) throws SQLException {
+        return transition(jobId, "status = 'CANCELLED'", "status IN ('QUEUED', 'RUNNING')") == 1;
+    }
+    /** Cancel every queued or running job; returns how many were cancelled. */
+    public int cancelAll() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            return st.executeUpdate("UPDATE transcription_jobs SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE status IN ('QUEUED', 'RUNNING')");
+        }
+    }
+    /** Re-queue jobs left RUNNING by a process that died; call before starting workers. */
+    public int requeueRunning() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            return st.executeUpdate("UPDATE transcription_jobs SET status = 'QUEUED', updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE status = 'RUNNING'");
+        }
+    }
+    private int transition(long jobId, String set, String when) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE transcription_jobs SET " + set
+                + ", updated_at = CURRENT_TIMESTAMP WHERE id = ? AND " + when)) {
+            ps.setLong(1, jobId);
+            return ps.executeUpdate();
+        }
+    }
+    // ---------- Reads ----------
+    public Optional<Job> findById(long jobId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT " + COLUMNS + " FROM transcription_jobs WHERE id = ?")) {
+            ps.setLong(1, jobId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+            }
+        }
+    }
+    /** Job count per status (every status present, zero if none). */
+    public Map<Status, Integer> countByStatus() throws SQLException {
+        return countByStatus("");
+    }
+    /**
+     * Like {@link #countByStatus()}, but finished jobs only count if they changed at or after
+     * {@code sinceUtc} ({@code yyyy-MM-dd HH:mm:ss}, as stored by CURRENT_TIMESTAMP).
+     */
+    public Map<Status, Integer> countByStatus(String sinceUtc) throws SQLException {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status s : Status.values()) counts.put(s, 0);
+        try (PreparedStatement ps = conn.prepareStatement("SELECT status, COUNT(*) FROM transcription_jobs "
+                + "WHERE status IN ('QUEUED', 'RUNNING') OR updated_at >= ? GROUP BY status")) {
+            ps.setString(1, sinceUtc);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) counts.put(Status.valueOf(rs.getString(1)), rs.getInt(2));
+            }
+        }
+        return counts;
+    }
+    /** Earliest {@code not_before} among queued jobs, or empty if nothing is queued. */
+    public Optional<Long> nextDueAt() throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MIN(not_before) FROM transcription_jobs WHERE status = 'QUEUED'")) {
+            if (!rs.next()) return Optional.empty();
+            long v = rs.getLong(1);
+            return rs.wasNull() ? Optional.empty() : Optional.of(v);
+        }
+    }
+}
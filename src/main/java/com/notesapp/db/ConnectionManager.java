@@ -0,0 +1,164 @@
+package com.notesapp.db;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+/**
+ * Connections for one SQLite database: a single writer plus a pool of read-only
+ * connections, all in WAL mode so readers never wait for the writer.
+ * <p>
+ * {@link #writer()} and {@link #reader()} hand out leases; closing a lease releases
+ * the writer lock or returns the reader to the pool instead of closing the
+ * underlying connection. Per-connection PRAGMAs are applied once, when opened.
+ */
+public final class ConnectionManager implements AutoCloseable {
+    private static final long ACQUIRE_TIMEOUT_MS = 30_000;
+    private static final long MMAP_SIZE = 256L * 1024 * 1024;
+    private static final int CACHE_SIZE_KIB = 16 * 1024;
+    private final String url;
+    private final Connection writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<Connection> idleReaders;
+    private final List<Connection> readers = new ArrayList<>();
+    private volatile boolean closed;
+    public ConnectionManager(String url, int readerCount) throws SQLException {
+        this.url = url;
+        boolean memory = url.contains(":memory:") || url.contains("mode=memory");
+        this.writer = DriverManager.getConnection(url);
+        try {
+            configure(writer, memory ? "MEMORY" : "WAL");
+            // Separate connections to an in-memory database would each see an empty database.
+            int n = memory ? 0 : Math.max(0, readerCount);
+            this.idleReaders = new ArrayBlockingQueue<>(Math.max(1, n));
+            for (int i = 0; i < n; i++) {
+                Connection r = DriverManager.getConnection(url);
+                readers.add(r);
+                configure(r, null);
+                try (Statement st = r.createStatement()) { st.execute("PRAGMA query_only = ON"); }
+                idleReaders.add(r);
+            }
+        } catch (SQLException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+    /** Open {@code dbFile} (creating parent directories) with {@code readerCount} pooled readers. */
+    public static ConnectionManager open(Path dbFile, int readerCount) throws SQLException {
+        try {
+            Path parent = dbFile.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+        } catch (Exception e) {
+            throw new SQLException("Cannot create database directory for " + dbFile, e);
+        }
+        return new ConnectionManager("jdbc:sqlite:" + dbFile, readerCount);
+    }
+    public String url() { return url; }
+    /**
+     * Exclusive lease on the writer connection. Blocks while another thread holds it;
+     * re-entrant for the holding thread. Closing the lease rolls back anything left
+     * uncommitted and releases the lock.
+     */
+    public Connection writer() throws SQLException {
+        ensureOpen();
+        try {
+            if (!writeLock.tryLock(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                throw new SQLException("Timed out waiting for the database writer");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for the database writer", e);
+        }
+        boolean outermost = writeLock.getHoldCount() == 1;
+        return lease(writer, () -> {
+            try { if (outermost) reset(writer); } finally { writeLock.unlock(); }
+        });
+    }
+    /** Pooled read-only lease; falls back to the writer for in-memory databases. */
+    public Connection reader() throws SQLException {
+        ensureOpen();
+        if (readers.isEmpty()) return writer();
+        Connection c;
+        try {
+            c = idleReaders.poll(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a read connection", e);
+        }
+        if (c == null) throw new SQLException("Timed out waiting for a read connection");
+        return lease(c, () -> {
+            try { reset(c); } finally { idleReaders.offer(c); }
+        });
+    }
+    public boolean isClosed() { return closed; }
+    @Override public void close() {
+        closed = true;
+        closeQuietly();
+    }
+    private void closeQuietly() {
+        for (Connection r : readers) {
+            try { r.close(); } catch (SQLException ignored) {}
+        }
+        try { writer.close(); } catch (SQLException ignored) {}
+    }
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("Connection manager closed: " + url);
+    }
+    private static void configure(Connection c, String journalMode) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("PRAGMA busy_timeout = " + ACQUIRE_TIMEOUT_MS);
+            if (journalMode != null) st.execute("PRAGMA journal_mode = " + journalMode);
+            st.execute("PRAGMA foreign_keys = ON");
+            st.execute("PRAGMA synchronous = NORMAL");
+            st.execute("PRAGMA mmap_size = " + MMAP_SIZE);
+            st.execute("PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+        }
+    }
+    /** Leave a returned connection the way the next borrower expects it: autocommit, no open transaction. */
+    private static void reset(Connection c) {
+        try {
+            if (!c.isClosed() && !c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException ignored) {}
+    }
+    private static Connection lease(Connection target, Runnable release) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease(target, release));
+    }
+    /** Delegates to the pooled connection until closed; close() releases instead of closing. */
+    private static final class Lease implements InvocationHandler {
+        private final Connection target;
+        private final Runnable release;
+        private boolean closed;
+        Lease(Connection target, Runnable release) { this.target = target; this.release = release; }
+        @Override public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close" -> {
+                    if (!closed) { closed = true; release.run(); }
+                    return null;
+                }
+                case "isClosed" -> { return closed || target.isClosed(); }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "Lease[" + target + "]"; }
+                default -> {
+                    if (closed) throw new SQLException("Connection lease already closed");
+                    try {
+                        return m.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
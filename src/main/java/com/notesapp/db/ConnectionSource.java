@@ -0,0 +1,11 @@
+package com.notesapp.db;
+import java.sql.Connection;
+import java.sql.SQLException;
+/**
+ * Where long-running components get short-lived connections, e.g.
+ * {@code DatabaseManager::getConnection} or {@code manager::writer}. Callers close what they get.
+ */
+@FunctionalInterface
+public interface ConnectionSource {
+    Connection get() throws SQLException;
+}
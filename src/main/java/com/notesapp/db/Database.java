@@ -1,18 +1,26 @@
 package com.notesapp.db;
 import java.sql.*;
-import java.nio.file.*;
+/**
+ * Legacy entry point that also creates the original schema. Same as
+ * {@link DatabaseManager#getConnection()}: an exclusive writer lease that must be closed.
+ */
 public class Database {
-  private static Connection CONN;
-  public static synchronized Connection get() throws SQLException {
-    try { Files.createDirectories(Paths.get("data")); } catch (Exception ignored) {}
-    if (CONN == null) {
-      CONN = DriverManager.getConnection("jdbc:sqlite:data/app.db");
-      try (Statement s = CONN.createStatement()) {
-        s.execute("PRAGMA foreign_keys=ON");
+  private static ConnectionManager initialized;
+  public static Connection get() throws SQLException {
+    ConnectionManager cm = DatabaseManager.manager();
+    Connection conn = cm.writer();
+    synchronized (Database.class) {
+      if (initialized != cm) {
+        try {
+          init(conn);
+        } catch (SQLException e) {
+          conn.close();
+          throw e;
+        }
+        initialized = cm;
       }
-      init(CONN);
     }
-    return CONN;
+    return conn;
   }
   private static void init(Connection c) throws SQLException {
     try (Statement st = c.createStatement()) {
@@ -1,39 +1,37 @@
 package com.notesapp.db;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+/**
+ * Process-wide access to the application database ({@code data/app.db}) through
+ * a single {@link ConnectionManager}: one writer plus a pool of WAL readers.
+ */
 public class DatabaseManager {
-    private static final String URL = "jdbc:sqlite:data/app.db";
-    private static Connection connection;
+    public static final Path DEFAULT_FILE = Paths.get("data", "app.db");
+    private static final int READERS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static Path dbFile = DEFAULT_FILE;
+    private static ConnectionManager manager;
     private DatabaseManager() {}
+    public static synchronized ConnectionManager manager() throws SQLException {
+        if (manager == null || manager.isClosed()) manager = ConnectionManager.open(dbFile, READERS);
+        return manager;
+    }
+    /** Exclusive writer lease; close it to release the writer for other threads. */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(URL);
-            connection.setAutoCommit(false);
-        }
-        return connection;
+        return manager().writer();
     }
-    public static void commit() {
-        try {
-            if (connection != null && !connection.isClosed()) connection.commit();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /** Pooled read-only lease; close it to return it to the pool. */
+    public static Connection getReadConnection() throws SQLException {
+        return manager().reader();
     }
-    public static void rollback() {
-        try {
-            if (connection != null && !connection.isClosed()) connection.rollback();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /** Use {@code file} from now on instead of {@link #DEFAULT_FILE}; the open database, if any, is closed. */
+    public static synchronized void useFile(Path file) {
+        close();
+        dbFile = file;
     }
-    public static void close() {
-        try {
-            if (connection != null && !connection.isClosed()) connection.close();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    public static synchronized void close() {
+        if (manager != null) manager.close();
+        manager = null;
     }
 }
-
-
@@ -3,11 +3,10 @@ import java.nio.file.*;
 import java.sql.*;
 public class Db {
     private static final String DB_PATH = "data/notes.db";
-    private static final String JDBC_URL = "jdbc:sqlite:" + DB_PATH;
+    private static ConnectionManager manager;
     public static void init() {
         try {
-            Files.createDirectories(Paths.get("data"));
-            try (Connection conn = DriverManager.getConnection(JDBC_URL);
+            try (Connection conn = connect();
                  Statement st = conn.createStatement()) {
                 st.executeUpdate("""
                     CREATE TABLE IF NOT EXISTS notes(
@@ -23,8 +22,13 @@ public class Db {
             throw new RuntimeException("DB init failed", e);
         }
     }
+    /** Writer lease on {@code data/notes.db}; close it to release. */
     public static Connection connect() throws SQLException {
-        return DriverManager.getConnection(JDBC_URL);
+        return manager().writer();
+    }
+    private static synchronized ConnectionManager manager() throws SQLException {
+        if (manager == null || manager.isClosed()) manager = ConnectionManager.open(Paths.get(DB_PATH), 1);
+        return manager;
     }
 }
 
@@ -17,34 +17,31 @@ public final class DbMigrator {
             try (Statement st = conn.createStatement()) {
                 st.execute("ALTER TABLE transcripts ADD COLUMN text TEXT");
             }
+            SchemaCache.invalidate();
         }
         // Ensure created_at on transcripts
         if (!hasCol(conn, "transcripts", "created_at")) {
             try (Statement st = conn.createStatement()) {
                 st.execute("ALTER TABLE transcripts ADD COLUMN created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP");
             }
+            SchemaCache.invalidate();
         }
         // --- notes: ensure created_at/updated_at exist ---
         if (!hasCol(conn, "notes", "created_at")) {
             try (Statement st = conn.createStatement()) {
                 st.execute("ALTER TABLE notes ADD COLUMN created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP");
             }
+            SchemaCache.invalidate();
         }
         if (!hasCol(conn, "notes", "updated_at")) {
             try (Statement st = conn.createStatement()) {
                 st.execute("ALTER TABLE notes ADD COLUMN updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP");
             }
+            SchemaCache.invalidate();
         }
     }
     private static boolean hasCol(Connection conn, String table, String col) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement("PRAGMA table_info(" + table + ")")) {
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    if (col.equalsIgnoreCase(rs.getString("name"))) return true;
-                }
-            }
-        }
-        return false;
+        return SchemaCache.hasColumn(conn, table, col);
     }
 }
 
@@ -0,0 +1,57 @@
+package com.notesapp.db;
+import java.sql.*;
+import java.util.*;
+/**
+ * Per-connection cache of table column names, so DAOs can resolve legacy
+ * column variants without running PRAGMA table_info on every call.
+ * Call {@link #invalidate()} after any DDL or migration.
+ */
+public final class SchemaCache {
+    private static final Map<Connection, Map<String, Set<String>>> CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static volatile long generation;
+    private SchemaCache() {}
+    /** Lower-cased column names of {@code table}; empty if the table does not exist. */
+    public static Set<String> columns(Connection conn, String table) throws SQLException {
+        Map<String, Set<String>> tables = CACHE.computeIfAbsent(physical(conn), c -> new HashMap<>());
+        synchronized (tables) {
+            Set<String> cols = tables.get(table);
+            if (cols == null) {
+                cols = load(conn, table);
+                // Missing tables are not cached so a later CREATE TABLE needs no invalidation.
+                if (!cols.isEmpty()) tables.put(table, cols);
+            }
+            return cols;
+        }
+    }
+    public static boolean hasColumn(Connection conn, String table, String col) throws SQLException {
+        return columns(conn, table).contains(col.toLowerCase(Locale.ROOT));
+    }
+    /** First of {@code names} present on {@code table}, or null. */
+    public static String firstColumn(Connection conn, String table, String... names) throws SQLException {
+        Set<String> cols = columns(conn, table);
+        for (String n : names) if (cols.contains(n.toLowerCase(Locale.ROOT))) return n;
+        return null;
+    }
+    /** Drop every cached descriptor; schema changes on one connection are visible to all. */
+    public static synchronized void invalidate() {
+        CACHE.clear();
+        generation++;
+    }
+    /** Bumped by {@link #invalidate()}; lets holders of derived descriptors detect staleness cheaply. */
+    public static long generation() {
+        return generation;
+    }
+    /** Pooled connections are handed out as wrappers; key the cache by the connection underneath. */
+    private static Connection physical(Connection conn) throws SQLException {
+        return conn.isWrapperFor(Connection.class) ? conn.unwrap(Connection.class) : conn;
+    }
+    private static Set<String> load(Connection conn, String table) throws SQLException {
+        Set<String> cols = new LinkedHashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement("PRAGMA table_info(" + table + ")");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) cols.add(rs.getString("name").toLowerCase(Locale.ROOT));
+        }
+        return Collections.unmodifiableSet(cols);
+    }
+}
@@ -0,0 +1,89 @@
+package com.notesapp.db;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+/**
+ * Scoped transaction on one connection. DAOs built on {@link #connection()} take part in it;
+ * nothing is committed until {@link #commit()}, and closing without committing rolls back.
+ * <p>
+ * Beginning a unit of work on a connection that is already inside one nests it under a
+ * savepoint, so an inner failure can be rolled back without losing the outer work.
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.begin(conn)) {
+ *     new TranscriptDao(uow.connection()).upsertByRecordingId(id, text);
+ *     new NoteDao(uow.connection()).upsertByRecordingId(id, stub);
+ *     uow.commit();
+ * }
+ * </pre>
+ */
+public final class UnitOfWork implements AutoCloseable {
+    /** Work run inside {@link #inTransaction}. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(UnitOfWork uow) throws SQLException;
+    }
+    private final Connection conn;
+    private final Savepoint scope;   // null for the outermost unit of work
+    private boolean finished;
+    private UnitOfWork(Connection conn, Savepoint scope) {
+        this.conn = conn;
+        this.scope = scope;
+    }
+    public static UnitOfWork begin(Connection conn) throws SQLException {
+        if (conn.getAutoCommit()) {
+            conn.setAutoCommit(false);
+            return new UnitOfWork(conn, null);
+        }
+        return new UnitOfWork(conn, conn.setSavepoint());
+    }
+    /** Run {@code work} in a unit of work, committing on success and rolling back on any exception. */
+    public static <T> T inTransaction(Connection conn, Work<T> work) throws SQLException {
+        try (UnitOfWork uow = begin(conn)) {
+            T result = work.run(uow);
+            uow.commit();
+            return result;
+        }
+    }
+    public Connection connection() { return conn; }
+    public boolean isNested() { return scope != null; }
+    public Savepoint savepoint(String name) throws SQLException {
+        ensureActive();
+        return conn.setSavepoint(name);
+    }
+    public void rollbackTo(Savepoint savepoint) throws SQLException {
+        ensureActive();
+        conn.rollback(savepoint);
+    }
+    public void release(Savepoint savepoint) throws SQLException {
+        ensureActive();
+        conn.releaseSavepoint(savepoint);
+    }
+    /** Commit (outermost) or fold into the enclosing transaction (nested). */
+    public void commit() throws SQLException {
+        ensureActive();
+        if (scope == null) {
+            conn.commit();
+            conn.setAutoCommit(true);
+        } else {
+            conn.releaseSavepoint(scope);
+        }
+        finished = true;
+    }
+    public void rollback() throws SQLException {
+        ensureActive();
+        finished = true;
+        if (scope == null) {
+            try { conn.rollback(); } finally { conn.setAutoCommit(true); }
+        } else {
+            conn.rollback(scope);
+            conn.releaseSavepoint(scope);
+        }
+    }
+    /** Rolls back unless {@link #commit()} or {@link #rollback()} already ran. */
+    @Override public void close() throws SQLException {
+        if (!finished) rollback();
+    }
+    private void ensureActive() throws SQLException {
+        if (finished) throw new SQLException("Unit of work already finished");
+    }
+}
@@ -0,0 +1,186 @@
+package com.notesapp.export;
+import com.lowagie.text.Document;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+import com.notesapp.core.Tasks;
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.db.ConnectionSource;
+import com.notesapp.model.Recording;
+import com.notesapp.transcription.WhisperCppTranscriber;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+/**
+ * Exports many recordings in one go. Each recording is rendered by {@link PdfExporter} to
+ * its own temporary PDF on a fixed pool (one connection per task), then the parts are
+ * written out in selection order, either bound into a single PDF with one bookmark per
+ * recording or stored in a zip. Parts are deleted as soon as they have been written out.
+ */
+public class BulkExporter {
+    /**
+     * The cores one transcription worker gets: exports run alongside the scheduler's
+     * {@link WhisperCppTranscriber#DEFAULT_MAX_CONCURRENT} workers, not instead of them.
+     */
+    public static final int DEFAULT_THREADS = Math.max(1,
+            Runtime.getRuntime().availableProcessors() / WhisperCppTranscriber.DEFAULT_MAX_CONCURRENT);
+    public enum Format {
+        MERGED_PDF, ZIP;
+        /** {@link #ZIP} for a {@code .zip} output path, otherwise {@link #MERGED_PDF}. */
+        public static Format forPath(Path out) {
+            return out.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip") ? ZIP : MERGED_PDF;
+        }
+    }
+    /** Snapshot of a running export. */
+    public static final class Progress {
+        private final int rendered;
+        private final int total;
+        private final long bytes;
+        private final long elapsedMs;
+        Progress(int rendered, int total, long bytes, long elapsedMs) {
+            this.rendered = rendered;
+            this.total = total;
+            this.bytes = bytes;
+            this.elapsedMs = elapsedMs;
+        }
+        public int rendered() { return rendered; }
+        public int total() { return total; }
+        /** Size of the rendered parts so far. */
+        public long bytes() { return bytes; }
+        public long elapsedMs() { return elapsedMs; }
+        public double documentsPerSecond() { return elapsedMs == 0 ? 0 : rendered * 1000.0 / elapsedMs; }
+        @Override public String toString() {
+            return String.format(Locale.ROOT, "%d/%d rendered, %.1f docs/s, %.1f MB in %d ms",
+                    rendered, total, documentsPerSecond(), bytes / 1048576.0, elapsedMs);
+        }
+    }
+    private final ConnectionSource db;
+    private final int threads;
+    private volatile Consumer<Progress> listener = p -> {};
+    public BulkExporter(ConnectionSource db) {
+        this(db, DEFAULT_THREADS);
+    }
+    public BulkExporter(ConnectionSource db, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+        this.db = db;
+        this.threads = threads;
+    }
+    /** Called from the rendering threads after each recording is rendered. */
+    public void setProgressListener(Consumer<Progress> listener) {
+        this.listener = listener == null ? p -> {} : listener;
+    }
+    /** Export {@code recordings} to {@code out}, in the format its extension implies. */
+    public Progress export(List<Recording> recordings, Path out) throws Exception {
+        return export(recordings, out, Format.forPath(out));
+    }
+    public Progress export(List<Recording> recordings, Path out, Format format) throws Exception {
+        long t0 = System.nanoTime();
+        AtomicInteger rendered = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        int total = recordings.size();
+        Path dir = Files.createTempDirectory("bulk-export-");
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "pdf-export");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Path>> parts = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                Recording rec = recordings.get(i);
+                Path part = dir.resolve(i + ".pdf");
+                parts.add(pool.submit(() -> {
+                    render(rec, part);
+                    long size = bytes.addAndGet(Files.size(part));
+                    listener.accept(new Progress(rendered.incrementAndGet(), total, size, elapsedMs(t0)));
+                    return part;
+                }));
+            }
+            Path parent = out.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            if (format == Format.ZIP) writeZip(recordings, parts, out);
+            else writeMerged(recordings, parts, out);
+            return new Progress(rendered.get(), total, bytes.get(), elapsedMs(t0));
+        } finally {
+            pool.shutdownNow();
+            Tasks.deleteRecursively(dir);
+        }
+    }
+    private void render(Recording rec, Path part) throws Exception {
+        try (Connection conn = db.get();
+             Reader note = new NoteDao(conn).openContentReader(rec.getId());
+             Reader transcript = new TranscriptDao(conn).openTextReader(rec.getId())) {
+            PdfExporter.export(rec.getTitle(), note, transcript, part);
+        }
+    }
+    /** Copy the parts page by page into one PDF, with a bookmark to the first page of each. */
+    private static void writeMerged(List<Recording> recordings, List<Future<Path>> parts, Path out) throws Exception {
+        Document doc = new Document();
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(out))) {
+            PdfCopy copy = new PdfCopy(doc, os);
+            copy.setCloseStream(false);
+            doc.open();
+            List<Map<String, Object>> bookmarks = new ArrayList<>();
+            int page = 1;
+            for (int i = 0; i < parts.size(); i++) {
+                Path part = Tasks.await(parts.get(i));
+                PdfReader reader = new PdfReader(part.toString());
+                try {
+                    Map<String, Object> mark = new HashMap<>();
+                    mark.put("Title", titleOf(recordings.get(i)));
+                    mark.put("Action", "GoTo");
+                    mark.put("Page", page + " Fit");
+                    bookmarks.add(mark);
+                    for (int p = 1; p <= reader.getNumberOfPages(); p++, page++) {
+                        copy.addPage(copy.getImportedPage(reader, p));
+                    }
+                    copy.freeReader(reader);
+                } finally {
+                    reader.close();
+                }
+                Files.deleteIfExists(part);
+            }
+            copy.setOutlines(bookmarks);
+            doc.close();
+        }
+    }
+    private static void writeZip(List<Recording> recordings, List<Future<Path>> parts, Path out) throws Exception {
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(out)))) {
+            zip.setLevel(Deflater.BEST_SPEED);   // PDF streams are already compressed
+            for (int i = 0; i < parts.size(); i++) {
+                Path part = Tasks.await(parts.get(i));
+                zip.putNextEntry(new ZipEntry(entryName(i + 1, recordings.get(i))));
+                Files.copy(part, zip);
+                zip.closeEntry();
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+    static String entryName(int position, Recording rec) {
+        String safe = titleOf(rec).replaceAll("[^a-zA-Z0-9-_ ]", "").trim();
+        return String.format(Locale.ROOT, "%03d_%s.pdf", position, safe.isEmpty() ? "recording-" + rec.getId() : safe);
+    }
+    private static String titleOf(Recording rec) {
+        return rec.getTitle() == null || rec.getTitle().isBlank() ? "Recording " + rec.getId() : rec.getTitle();
+    }
+    private static long elapsedMs(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+}
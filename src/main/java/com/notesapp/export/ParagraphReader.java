@@ -0,0 +1,55 @@
+package com.notesapp.export;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+/**
+ * Splits text from a {@link Reader} into paragraphs for PDF output, one at a time: each
+ * non-blank line is a paragraph, and lines longer than {@code maxChars} are broken at a
+ * space, so no paragraph (or PDF table cell) grows without bound.
+ */
+public final class ParagraphReader implements Closeable {
+    public static final int DEFAULT_MAX_CHARS = 2000;
+    private final BufferedReader in;
+    private final int maxChars;
+    private final StringBuilder sb = new StringBuilder();
+    private boolean eof;
+    public ParagraphReader(Reader in) {
+        this(in, DEFAULT_MAX_CHARS);
+    }
+    public ParagraphReader(Reader in, int maxChars) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in);
+        this.maxChars = Math.max(16, maxChars);
+    }
+    /** Next paragraph, trimmed, or null once the text is exhausted. */
+    public String next() throws IOException {
+        while (true) {
+            if (sb.length() >= maxChars) return cut();
+            int c = eof ? -1 : in.read();
+            if (c == -1) {
+                eof = true;
+                String last = sb.toString().strip();
+                sb.setLength(0);
+                return last.isEmpty() ? null : last;
+            }
+            if (c == '\n') {
+                String line = sb.toString().strip();
+                sb.setLength(0);
+                if (!line.isEmpty()) return line;
+            } else if (c != '\r') {
+                sb.append((char) c);
+            }
+        }
+    }
+    /** Break an over-long line at the last space in its second half (or hard, if there is none). */
+    private String cut() {
+        int at = sb.lastIndexOf(" ");
+        if (at < maxChars / 2) at = maxChars;
+        String head = sb.substring(0, at).strip();
+        sb.delete(0, at);
+        return head.isEmpty() ? cut() : head;
+    }
+    @Override public void close() throws IOException {
+        in.close();
+    }
+}
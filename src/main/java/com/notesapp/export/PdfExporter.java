@@ -1,7 +1,11 @@
 package com.notesapp.export;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfWriter;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -9,6 +13,7 @@ import java.time.format.DateTimeFormatter;
  * PdfExporter Ã¢â‚¬â€œ Generates a combined PDF containing title, tag, notes, and transcript.
  */
 public class PdfExporter {
+    private static final DateTimeFormatter GENERATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     /**
      * Overload supporting tag field (Week 6+).
      */
@@ -20,26 +25,52 @@ public class PdfExporter {
      * Original 4-argument export method (without tag).
      */
     public static void export(String title, String note, String transcript, Path output) throws Exception {
-        Document doc = new Document(PageSize.A4);
-        PdfWriter.getInstance(doc, new FileOutputStream(output.toFile()));
+        export(title, note == null ? null : new StringReader(note),
+                transcript == null ? null : new StringReader(transcript), output);
+    }
+    /**
+     * Streaming export: notes and transcript are read paragraph by paragraph and each finished
+     * page is written out, so memory use does not grow with transcript length. Null readers
+     * print "(none)". The readers are consumed but not closed.
+     */
+    public static void export(String title, Reader note, Reader transcript, Path output) throws Exception {
+        export(PdfTemplate.NOTES, title, note, transcript, output);
+    }
+    public static void export(PdfTemplate template, String title, Reader note, Reader transcript, Path output) throws Exception {
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(output))) {
+            export(template, title, note, transcript, os);
+        }
+        System.out.println("PDF created: " + output.toAbsolutePath());
+    }
+    /** Write the PDF to {@code os}, which is left open. */
+    public static void export(PdfTemplate template, String title, Reader note, Reader transcript, OutputStream os) throws Exception {
+        Document doc = template.newDocument();
+        PdfWriter writer = PdfWriter.getInstance(doc, os);
+        writer.setCloseStream(false);
         doc.open();
-        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
-        Font sectionFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
-        Font textFont = FontFactory.getFont(FontFactory.HELVETICA, 12);
-        doc.add(new Paragraph(title, titleFont));
-        doc.add(new Paragraph("Generated on: " +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), textFont));
+        Font textFont = template.textFont();
+        doc.add(new Paragraph(title, template.titleFont()));
+        doc.add(new Paragraph("Generated on: " + LocalDateTime.now().format(GENERATED_AT), textFont));
         doc.add(Chunk.NEWLINE);
         // Notes section
-        doc.add(new Paragraph("Notes", sectionFont));
-        doc.add(new Paragraph(note == null ? "(none)" : note, textFont));
+        doc.add(new Paragraph("Notes", template.sectionFont()));
+        addParagraphs(doc, note, textFont);
         doc.add(Chunk.NEWLINE);
         // Transcript section
-        doc.add(new Paragraph("Transcript", sectionFont));
-        doc.add(new Paragraph(transcript == null ? "(none)" : transcript, textFont));
+        doc.add(new Paragraph("Transcript", template.sectionFont()));
+        addParagraphs(doc, transcript, textFont);
         doc.close();
-        System.out.println("PDF created: " + output.toAbsolutePath());
+    }
+    private static void addParagraphs(Document doc, Reader text, Font font) throws Exception {
+        if (text == null) {
+            doc.add(new Paragraph("(none)", font));
+            return;
+        }
+        ParagraphReader paragraphs = new ParagraphReader(text);
+        boolean any = false;
+        for (String p; (p = paragraphs.next()) != null; any = true) {
+            doc.add(new Paragraph(p, font));
+        }
+        if (!any) doc.add(new Paragraph("", font));
     }
 }
-
-
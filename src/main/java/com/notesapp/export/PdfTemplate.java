@@ -0,0 +1,82 @@
+package com.notesapp.export;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfPCell;
+/**
+ * Page setup, fonts and cell styles shared by every export, resolved once instead of per
+ * document. Instances are immutable and safe to share between threads: documents and cells
+ * are always created fresh, and the cached {@link Font}s are only ever read.
+ * <p>
+ * {@link #NOTES} is the layout of {@link PdfExporter}, {@link #SIDE_BY_SIDE} the one of
+ * {@code PdfExportService}.
+ */
+public final class PdfTemplate {
+    public static final PdfTemplate NOTES = notes();
+    public static final PdfTemplate SIDE_BY_SIDE = sideBySide();
+    private final Rectangle pageSize;
+    private final float margin;
+    private final Font title;
+    private final Font section;
+    private final Font text;
+    private final Font meta;
+    private final Font columnHeader;
+    private final Font cell;
+    private PdfTemplate(Rectangle pageSize, float margin, Font title, Font section, Font text,
+                        Font meta, Font columnHeader, Font cell) {
+        this.pageSize = new Rectangle(pageSize);
+        this.margin = margin;
+        this.title = title;
+        this.section = section;
+        this.text = text;
+        this.meta = meta;
+        this.columnHeader = columnHeader;
+        this.cell = cell;
+    }
+    /** Portrait A4 notes-then-transcript layout; builds new fonts, prefer {@link #NOTES}. */
+    public static PdfTemplate notes() {
+        return new PdfTemplate(PageSize.A4, 36f,
+                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18),
+                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14),
+                FontFactory.getFont(FontFactory.HELVETICA, 12),
+                FontFactory.getFont(FontFactory.HELVETICA, 10),
+                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12),
+                FontFactory.getFont(FontFactory.HELVETICA, 11));
+    }
+    /** Landscape Letter two-column layout; builds new fonts, prefer {@link #SIDE_BY_SIDE}. */
+    public static PdfTemplate sideBySide() {
+        return new PdfTemplate(PageSize.LETTER.rotate(), 36f,
+                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18),
+                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14),
+                FontFactory.getFont(FontFactory.HELVETICA, 12),
+                FontFactory.getFont(FontFactory.HELVETICA, 10),
+                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12),
+                FontFactory.getFont(FontFactory.HELVETICA, 11));
+    }
+    /** A new, unopened document with this template's page size and margins. */
+    public Document newDocument() {
+        return new Document(new Rectangle(pageSize), margin, margin, margin, margin);
+    }
+    public Font titleFont() { return title; }
+    public Font sectionFont() { return section; }
+    public Font textFont() { return text; }
+    public Font metaFont() { return meta; }
+    /** Shaded, bold table header cell. */
+    public PdfPCell headerCell(String label) {
+        PdfPCell c = new PdfPCell(new Phrase(label, columnHeader));
+        c.setGrayFill(0.92f);
+        c.setPadding(6f);
+        return c;
+    }
+    /** Top-aligned table body cell. */
+    public PdfPCell bodyCell(String content) {
+        PdfPCell c = new PdfPCell(new Phrase(content, cell));
+        c.setPadding(8f);
+        c.setVerticalAlignment(Element.ALIGN_TOP);
+        return c;
+    }
+}
@@ -1,24 +1,57 @@
 package com.notesapp.service;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.*;
+import com.notesapp.export.ParagraphReader;
+import com.notesapp.export.PdfTemplate;
 import java.io.*;
 import java.nio.file.*;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 public class PdfExportService {
+  /** Rows of the two-column table are handed to OpenPDF in batches of this many. */
+  private static final int ROWS_PER_FLUSH = 20;
+  private static final DateTimeFormatter FILE_TS = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+  public static final Path DEFAULT_DIR = Paths.get("data", "exports");
+  private final PdfTemplate template;
+  private final Path outDir;
+  public PdfExportService() {
+    this(PdfTemplate.SIDE_BY_SIDE);
+  }
+  /** {@code template} is shared, not copied; exports may run concurrently on one service. */
+  public PdfExportService(PdfTemplate template) {
+    this(template, DEFAULT_DIR);
+  }
+  /** Exports are written to {@code outDir}, created on first use. */
+  public PdfExportService(PdfTemplate template, Path outDir) {
+    this.template = template;
+    this.outDir = outDir;
+  }
   public Path exportSideBySide(String title,
                                String className,
                                String recordedAt,
                                String transcript,
                                String notes) throws Exception {
-    Path outDir = Paths.get("data", "exports");
+    return exportSideBySide(title, className, recordedAt,
+        transcript == null ? null : new StringReader(transcript),
+        notes == null ? null : new StringReader(notes));
+  }
+  /**
+   * Streaming variant: transcript and notes are read paragraph by paragraph into table rows
+   * (transcript left, notes right), and the table is flushed to the PDF every few rows, so
+   * memory stays flat however long the transcript is. The readers are consumed but not closed.
+   */
+  public Path exportSideBySide(String title,
+                               String className,
+                               String recordedAt,
+                               Reader transcript,
+                               Reader notes) throws Exception {
     Files.createDirectories(outDir);
     String safeTitle = (title == null || title.isBlank()) ? "untitled"
         : title.replaceAll("[^a-zA-Z0-9-_ ]","").trim();
-    String ts = OffsetDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+    String ts = OffsetDateTime.now().format(FILE_TS);
     Path out = outDir.resolve(ts + "_" + safeTitle + ".pdf");
-    Document doc = new Document(PageSize.LETTER.rotate(), 36, 36, 36, 36);
-    try (OutputStream os = Files.newOutputStream(out)) {
+    Document doc = template.newDocument();
+    try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(out))) {
       PdfWriter writer = PdfWriter.getInstance(doc, os);
       // prevent writer from closing stream before try-with-resources exits
       writer.setCloseStream(false);
@@ -26,9 +59,8 @@ public class PdfExportService {
       doc.addAuthor("School Notes App");
       doc.open();
       // Header
-      Font h1 = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
-      Font meta = FontFactory.getFont(FontFactory.HELVETICA, 10);
-      Paragraph pTitle = new Paragraph("Notes Export Ã¢â‚¬â€ " + safeTitle, h1);
+      Font meta = template.metaFont();
+      Paragraph pTitle = new Paragraph("Notes Export Ã¢â‚¬â€ " + safeTitle, template.titleFont());
       pTitle.setSpacingAfter(6f);
       doc.add(pTitle);
       doc.add(new Paragraph("Class: " + (className==null?"Ã¢â‚¬â€":className), meta));
@@ -37,28 +69,63 @@ public class PdfExportService {
       doc.add(Chunk.NEWLINE);
       // Two-column table
       PdfPTable table = new PdfPTable(new float[]{1f,1f});
-      table.setWidthPercentage(100f);
-      PdfPCell leftHeader = new PdfPCell(new Phrase("Transcript",
-          FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
-      PdfPCell rightHeader = new PdfPCell(new Phrase("Notes",
-          FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12)));
-      leftHeader.setGrayFill(0.92f); rightHeader.setGrayFill(0.92f);
-      leftHeader.setPadding(6f); rightHeader.setPadding(6f);
-      table.addCell(leftHeader); table.addCell(rightHeader);
-      PdfPCell leftBody = new PdfPCell(new Phrase(nullToDash(transcript),
-          FontFactory.getFont(FontFactory.HELVETICA, 11)));
-      PdfPCell rightBody = new PdfPCell(new Phrase(nullToDash(notes),
-          FontFactory.getFont(FontFactory.HELVETICA, 11)));
-      leftBody.setPadding(8f); rightBody.setPadding(8f);
-      leftBody.setVerticalAlignment(Element.ALIGN_TOP);
-      rightBody.setVerticalAlignment(Element.ALIGN_TOP);
-      table.addCell(leftBody); table.addCell(rightBody);
-      doc.add(table);
+      table.setTotalWidth(doc.right() - doc.left());
+      table.setLockedWidth(true);      // row heights are known before the rows are written
+      table.addCell(template.headerCell("Transcript"));
+      table.addCell(template.headerCell("Notes"));
+      table.setHeaderRows(1);          // repeat the header on every page
+      table.setSplitLate(false);       // let a tall row break across pages
+      table.setComplete(false);        // rows are added and written out in batches
+      ParagraphReader left = transcript == null ? null : new ParagraphReader(transcript);
+      ParagraphReader right = notes == null ? null : new ParagraphReader(notes);
+      String l = left == null ? null : left.next();
+      String r = right == null ? null : right.next();
+      // An empty side shows a dash in the first row, as before.
+      if (l == null) l = nullToDash(null);
+      if (r == null) r = nullToDash(null);
+      int pending = 0, flushed = 0;
+      while (l != null || r != null) {
+        table.addCell(template.bodyCell(l == null ? "" : l));
+        table.addCell(template.bodyCell(r == null ? "" : r));
+        if (++pending == ROWS_PER_FLUSH) {
+          flush(doc, writer, table, flushed++ > 0);
+          pending = 0;
+        }
+        l = left == null ? null : left.next();
+        r = right == null ? null : right.next();
+      }
+      table.setComplete(true);
+      flush(doc, writer, table, flushed > 0);
       // Close document before OutputStream auto-closes
       doc.close();
     }
     return out;
   }
+  /**
+   * Writes the buffered rows and drops them from the table. OpenPDF leaves out the repeated
+   * header when a continued batch starts on a fresh page, so that case is handled here: the
+   * page is broken if the next row cannot fit, and the header written by hand.
+   */
+  private static void flush(Document doc, PdfWriter writer, PdfPTable table, boolean continued)
+      throws DocumentException {
+    int first = table.getHeaderRows();
+    if (continued && table.size() > first) {
+      float room = writer.getVerticalPosition(true) - doc.bottom();
+      boolean freshPage = writer.getVerticalPosition(true) >= doc.top();
+      if (!freshPage && table.getHeaderHeight() + table.getRowHeight(first) > room) {
+        doc.newPage();
+        freshPage = true;
+      }
+      if (freshPage) {
+        PdfPTable header = new PdfPTable(table.getAbsoluteWidths());
+        header.setTotalWidth(table.getTotalWidth());
+        header.setLockedWidth(true);
+        for (PdfPCell cell : table.getRow(0).getCells()) header.addCell(new PdfPCell(cell));
+        doc.add(header);
+      }
+    }
+    doc.add(table);
+  }
   private static String nullToDash(String s){ return (s==null || s.isBlank()) ? "Ã¢â‚¬â€" : s; }
 }
 
@@ -1,7 +1,10 @@
 package com.notesapp.service;
 import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import com.notesapp.db.UnitOfWork;
 import com.notesapp.transcription.TranscriptionService;
 import java.nio.file.Path;
+import java.sql.Connection;
 import java.sql.SQLException;
 /**
  * Orchestrates "transcribe -> persist" for a given recording.
@@ -25,8 +28,15 @@ public class TranscriptionRunner {
         return text;
     }
     private void upsertTranscript(long recordingId, String text) throws SQLException {
-        // Use the same overloads your tests expect
-        transcriptDao.upsertByRecordingId(recordingId, text);
+        Connection c = transcriptDao.connection();
+        TranscriptSegmentDao segmentDao = new TranscriptSegmentDao(c);
+        UnitOfWork.inTransaction(c, uow -> {
+            // Use the same overloads your tests expect
+            transcriptDao.upsertByRecordingId(recordingId, text);
+            // No timing for this text: drop segments of an earlier transcript.
+            segmentDao.deleteByRecordingId(recordingId);
+            return null;
+        });
     }
 }
 
@@ -0,0 +1,112 @@
+package com.notesapp.transcription;
+import com.notesapp.audio.AudioChunker;
+import com.notesapp.audio.AudioChunker.Chunk;
+import com.notesapp.core.Tasks;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+/**
+ * Transcribes long WAV recordings as overlapping chunks in parallel and stitches the text
+ * back together in order, dropping the words repeated by the overlap. Anything
+ * {@link AudioChunker} will not split (short or non-PCM files) goes straight to the delegate.
+ */
+public class ChunkedTranscriptionService implements TranscriptionService {
+    /** Longest repeated run of words looked for where two chunks meet. */
+    static final int MAX_OVERLAP_WORDS = 40;
+    /** Shorter repeats are treated as coincidence ("the", "and the") and kept. */
+    static final int MIN_OVERLAP_WORDS = 2;
+    private final TranscriptionService delegate;
+    private final AudioChunker chunker;
+    private final int parallelism;
+    public ChunkedTranscriptionService(TranscriptionService delegate) {
+        this(delegate, new AudioChunker(), WhisperCppTranscriber.DEFAULT_MAX_CONCURRENT);
+    }
+    public ChunkedTranscriptionService(TranscriptionService delegate, AudioChunker chunker, int parallelism) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.chunker = Objects.requireNonNull(chunker, "chunker");
+        this.parallelism = Math.max(1, parallelism);
+    }
+    @Override
+    public String transcribeAudio(Path audioPath) throws Exception {
+        if (audioPath == null || !chunker.shouldSplit(audioPath)) return delegate.transcribeAudio(audioPath);
+        StringBuilder text = new StringBuilder();
+        transcribeChunks(audioPath, (chunk, piece) -> {
+            if (piece.isEmpty()) return;
+            if (text.length() > 0) text.append(' ');
+            text.append(piece);
+        });
+        return text.toString();
+    }
+    /** Chunk cuts can change the text, so the chunking settings are part of the identity. */
+    @Override
+    public String modelId() {
+        String inner = delegate.modelId();
+        return inner == null ? null : inner + "|chunked:" + chunker;
+    }
+    /** Emits one segment per chunk, in order, as soon as it and every earlier chunk are done. */
+    @Override
+    public void transcribeStreaming(Path audioPath, Consumer<TranscriptSegment> onSegment) throws Exception {
+        if (audioPath == null || !chunker.shouldSplit(audioPath)) {
+            delegate.transcribeStreaming(audioPath, onSegment);
+            return;
+        }
+        transcribeChunks(audioPath, (chunk, piece) -> {
+            if (!piece.isEmpty()) onSegment.accept(new TranscriptSegment(chunk.getStartMs(), chunk.getEndMs(), piece));
+        });
+    }
+    @FunctionalInterface
+    private interface PieceSink {
+        void accept(Chunk chunk, String dedupedText) throws Exception;
+    }
+    /** Feed de-duplicated chunk texts to {@code sink} in order; the first chunk to fail fails the whole. */
+    private void transcribeChunks(Path audioPath, PieceSink sink) throws Exception {
+        Path dir = Files.createTempDirectory("chunks-");
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "transcribe-chunk");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Chunk> chunks = chunker.split(audioPath, dir);
+            List<Future<String>> results = new ArrayList<>();
+            for (Chunk c : chunks) results.add(pool.submit(() -> delegate.transcribeAudio(c.getFile())));
+            String previous = "";
+            for (int i = 0; i < chunks.size(); i++) {
+                String text = Objects.requireNonNullElse(Tasks.await(results.get(i)), "").strip();
+                sink.accept(chunks.get(i), dropRepeatedPrefix(previous, text));
+                previous = text;
+            }
+        } finally {
+            pool.shutdownNow();
+            Tasks.deleteRecursively(dir);
+        }
+    }
+    /**
+     * {@code next} without the leading words that repeat the end of {@code previous}: the
+     * longest run of {@link #MIN_OVERLAP_WORDS} to {@link #MAX_OVERLAP_WORDS} words that
+     * matches, ignoring case and punctuation.
+     */
+    static String dropRepeatedPrefix(String previous, String next) {
+        String[] prev = previous.isBlank() ? new String[0] : previous.strip().split("\\s+");
+        String[] words = next.isBlank() ? new String[0] : next.strip().split("\\s+");
+        int max = Math.min(MAX_OVERLAP_WORDS, Math.min(prev.length, words.length));
+        for (int k = max; k >= MIN_OVERLAP_WORDS; k--) {
+            boolean same = true;
+            for (int j = 0; j < k && same; j++) {
+                same = normalize(prev[prev.length - k + j]).equals(normalize(words[j]));
+            }
+            if (same) return String.join(" ", List.of(words).subList(k, words.length));
+        }
+        return String.join(" ", words);
+    }
+    private static String normalize(String word) {
+        return word.replaceAll("[^\\p{L}\\p{N}]", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,51 @@
+package com.notesapp.transcription;
+import com.notesapp.audio.NormalizedAudioCache;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Consumer;
+/**
+ * Hands the delegate a 16 kHz mono 16-bit copy of the audio (from {@link NormalizedAudioCache})
+ * instead of the original recording. A file javax.sound cannot decode goes through unchanged,
+ * for whisper.cpp to try, and {@code onFallback} is told why.
+ */
+public class NormalizingTranscriptionService implements TranscriptionService {
+    private final TranscriptionService delegate;
+    private final NormalizedAudioCache cache;
+    private final Consumer<String> onFallback;
+    /** Fallbacks are reported on stderr. */
+    public NormalizingTranscriptionService(TranscriptionService delegate, NormalizedAudioCache cache) {
+        this(delegate, cache, System.err::println);
+    }
+    /** {@code onFallback} (may be null) hears about each file passed through unconverted. */
+    public NormalizingTranscriptionService(TranscriptionService delegate, NormalizedAudioCache cache,
+                                           Consumer<String> onFallback) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = Objects.requireNonNull(cache, "cache");
+        this.onFallback = onFallback == null ? m -> {} : onFallback;
+    }
+    @Override
+    public String transcribeAudio(Path audioPath) throws Exception {
+        return delegate.transcribeAudio(normalized(audioPath));
+    }
+    @Override
+    public void transcribeStreaming(Path audioPath, Consumer<TranscriptSegment> onSegment) throws Exception {
+        delegate.transcribeStreaming(normalized(audioPath), onSegment);
+    }
+    /** Resampling can change the text, so it is part of the identity. */
+    @Override
+    public String modelId() {
+        String inner = delegate.modelId();
+        return inner == null ? null : inner + "|pcm16k";
+    }
+    private Path normalized(Path audioPath) {
+        if (audioPath == null || !Files.exists(audioPath)) return audioPath;
+        try {
+            return cache.get(audioPath);
+        } catch (IOException e) {
+            onFallback.accept("Could not resample " + audioPath + " (" + e.getMessage() + "); transcribing the original");
+            return audioPath;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.notesapp.transcription;
+import com.notesapp.dao.TranscriptCacheDao;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+/**
+ * Looks up transcripts by SHA-256 of the audio bytes plus {@link TranscriptionService#modelId()},
+ * so a copied or re-imported file is not transcribed again by the same model. Entries are
+ * kept in SQLite and trimmed least-recently-used first to {@code maxBytes} of text.
+ * Transcripts from a streaming run keep their segment timing, so a hit can be replayed as the
+ * original segments.
+ */
+public class TranscriptCache {
+    /** A cached transcript; {@code segments} is empty when it was cached without timing. */
+    public record Hit(String text, List<TranscriptSegment> segments) {}
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final int HASH_BUFFER = 1 << 20;
+    private final TranscriptCacheDao dao;
+    private final long maxBytes;
+    public TranscriptCache(Connection conn) throws SQLException {
+        this(conn, DEFAULT_MAX_BYTES);
+    }
+    public TranscriptCache(Connection conn, long maxBytes) throws SQLException {
+        this.dao = new TranscriptCacheDao(conn);
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+    /** Hex SHA-256 of the file's bytes. */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buf = ByteBuffer.allocateDirect(HASH_BUFFER);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (ch.read(buf) >= 0) {
+                buf.flip();
+                md.update(buf);
+                buf.clear();
+            }
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+    public Optional<String> get(String audioSha256, String modelId) throws SQLException {
+        return find(audioSha256, modelId).map(Hit::text);
+    }
+    public Optional<Hit> find(String audioSha256, String modelId) throws SQLException {
+        return dao.find(audioSha256, modelId).map(e -> new Hit(e.text(), segments(e.text(), e.timings())));
+    }
+    /** Cache {@code text}, then trim the cache back under its size cap. */
+    public void put(String audioSha256, String modelId, String text) throws SQLException {
+        put(audioSha256, modelId, text, List.of());
+    }
+    /**
+     * Cache {@code text} with the timing of {@code segments}, its lines; segments that do not
+     * match the text line for line are not kept.
+     */
+    public void put(String audioSha256, String modelId, String text, List<TranscriptSegment> segments) throws SQLException {
+        dao.put(audioSha256, modelId, text, timings(text, segments));
+        if (dao.totalBytes() > maxBytes) dao.evictTo(maxBytes);
+    }
+    private static String timings(String text, List<TranscriptSegment> segments) {
+        if (segments.isEmpty()) return null;
+        String[] lines = text.split("\n", -1);
+        if (lines.length != segments.size()) return null;
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            TranscriptSegment seg = segments.get(i);
+            if (!seg.getText().equals(lines[i])) return null;
+            if (i > 0) out.append('\n');
+            out.append(seg.getStartMs()).append(' ').append(seg.getEndMs());
+        }
+        return out.toString();
+    }
+    private static List<TranscriptSegment> segments(String text, String timings) {
+        if (timings == null) return List.of();
+        String[] lines = text.split("\n", -1);
+        String[] times = timings.split("\n", -1);
+        if (lines.length != times.length) return List.of();
+        List<TranscriptSegment> out = new ArrayList<>(lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            int sp = times[i].indexOf(' ');
+            if (sp < 0) return List.of();
+            try {
+                out.add(new TranscriptSegment(Long.parseLong(times[i], 0, sp, 10),
+                        Long.parseLong(times[i], sp + 1, times[i].length(), 10), lines[i]));
+            } catch (NumberFormatException e) {
+                return List.of();
+            }
+        }
+        return out;
+    }
+}
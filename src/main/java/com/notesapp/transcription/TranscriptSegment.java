@@ -0,0 +1,40 @@
+package com.notesapp.transcription;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+/**
+ * One timestamped piece of a transcript, as printed by whisper.cpp:
+ * {@code [00:01:02.340 --> 00:01:05.120]   some text}.
+ */
+public final class TranscriptSegment {
+    private static final Pattern LINE = Pattern.compile(
+            "^\\s*\\[(\\d+):(\\d{2}):(\\d{2})[.,](\\d{3})\\s*-->\\s*(\\d+):(\\d{2}):(\\d{2})[.,](\\d{3})]\\s*(.*)$");
+    private final long startMs;
+    private final long endMs;
+    private final String text;
+    public TranscriptSegment(long startMs, long endMs, String text) {
+        this.startMs = startMs;
+        this.endMs = endMs;
+        this.text = text == null ? "" : text;
+    }
+    public long getStartMs() { return startMs; }
+    public long getEndMs() { return endMs; }
+    public String getText() { return text; }
+    /** Parse a whisper.cpp segment line; returns null for anything else (progress, logs, blanks). */
+    public static TranscriptSegment parse(String line) {
+        if (line == null) return null;
+        Matcher m = LINE.matcher(line);
+        if (!m.matches()) return null;
+        return new TranscriptSegment(millis(m, 1), millis(m, 5), m.group(9).strip());
+    }
+    private static long millis(Matcher m, int g) {
+        return ((Long.parseLong(m.group(g)) * 60 + Long.parseLong(m.group(g + 1))) * 60
+                + Long.parseLong(m.group(g + 2))) * 1000 + Long.parseLong(m.group(g + 3));
+    }
+    /** {@code mm:ss} (or {@code h:mm:ss}) of the segment start, for display. */
+    public String startLabel() {
+        long s = startMs / 1000;
+        return s >= 3600 ? String.format("%d:%02d:%02d", s / 3600, s / 60 % 60, s % 60)
+                         : String.format("%02d:%02d", s / 60, s % 60);
+    }
+    @Override public String toString() { return "[" + startLabel() + "] " + text; }
+}
@@ -1,20 +1,35 @@
 package com.notesapp.transcription;
 import com.notesapp.dao.NoteDao;
 import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import com.notesapp.db.UnitOfWork;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 /**
  * Coordinates transcription and persistence.
  * Supports both:
  *   new TranscriptionManager(transcriber, noteDao, transcriptDao)
  *   new TranscriptionManager(conn, transcriber, transcriptDao, noteDao)
+ * and, to skip audio that was already transcribed with the same model:
+ *   new TranscriptionManager(conn, transcriber, transcriptDao, noteDao, cache)
  */
 public class TranscriptionManager {
-    private final Connection conn;               // optional (unused for now)
+    /** Streaming output is written in small batches rather than one statement per segment. */
+    private static final int FLUSH_SEGMENTS = 16;
+    private static final long FLUSH_INTERVAL_MS = 2_000;
+    private final Connection conn;               // optional; defaults to the transcript DAO's connection
     private final TranscriptionService service;
     private final TranscriptDao transcriptDao;
     private final NoteDao noteDao;
+    private final TranscriptCache cache;         // optional
+    private record CacheKey(String audioSha256, String modelId) {}
     /** Preferred minimal ctor used by MainCLI (3 args). */
     public TranscriptionManager(TranscriptionService service,
                                 NoteDao noteDao,
@@ -26,6 +41,15 @@ public class TranscriptionManager {
                                 TranscriptionService service,
                                 TranscriptDao transcriptDao,
                                 NoteDao noteDao) {
+        this(conn, service, transcriptDao, noteDao, null);
+    }
+    /** Consults {@code cache} (may be null) before running the service and fills it afterwards. */
+    public TranscriptionManager(Connection conn,
+                                TranscriptionService service,
+                                TranscriptDao transcriptDao,
+                                NoteDao noteDao,
+                                TranscriptCache cache) {
+        this.cache = cache;
         this.conn = conn; // may be null
         this.service = Objects.requireNonNull(service, "service");
         this.transcriptDao = Objects.requireNonNull(transcriptDao, "transcriptDao");
@@ -33,17 +57,132 @@ public class TranscriptionManager {
     }
     /**
      * Transcribe audio and persist the transcript under the given recording id.
+     * Transcript and note stub are written in one transaction; both DAOs must share its connection.
      * Returns the transcript text for convenience.
      */
     public String transcribeAndStore(long recordingId, Path audioPath) throws Exception {
+        CacheKey key = cacheKey(audioPath);
+        Optional<String> cached = cached(key);
+        if (cached.isPresent()) {
+            store(recordingId, cached.get());
+            return cached.get();
+        }
         String text = service.transcribeAudio(audioPath);  // may throw checked exception
         if (text == null) text = "";
-        // Persist transcript (idempotent upsert)
-        transcriptDao.upsertByRecordingId(recordingId, text);
-        // Optional: leave a short note stub if there is none yet.
-        noteDao.upsertByRecordingId(recordingId, "Auto-generated from transcription");
+        store(recordingId, text);
+        remember(key, text, List.of());
         return text;
     }
+    /** Persist transcript + note stub atomically (outside of the slow transcription step). */
+    public void store(long recordingId, String text) throws SQLException {
+        Connection c = conn != null ? conn : transcriptDao.connection();
+        TranscriptSegmentDao segmentDao = new TranscriptSegmentDao(c);
+        UnitOfWork.inTransaction(c, uow -> {
+            transcriptDao.upsertByRecordingId(recordingId, text);
+            // No timing for this text: drop segments of an earlier transcript.
+            segmentDao.deleteByRecordingId(recordingId);
+            // Optional: leave a short note stub if there is none yet.
+            noteDao.upsertByRecordingId(recordingId, "Auto-generated from transcription");
+            return null;
+        });
+    }
+    /**
+     * Transcribe with {@link TranscriptionService#transcribeStreaming}. Segments are staged in
+     * {@link TranscriptSegmentDao}'s drafts every {@value #FLUSH_SEGMENTS} segments or
+     * {@value #FLUSH_INTERVAL_MS} ms, so only the unflushed tail is held in memory and the
+     * staging writes touch neither the transcript row nor the search index. Once the service
+     * has finished, one transaction writes the transcript text and swaps in the segments;
+     * if it fails or is cancelled, the draft is dropped and any previous transcript stays.
+     * {@code listener} (may be null) sees each segment first, e.g. to print it.
+     * <p>
+     * A cache hit is replayed as the segments it was cached with. Text cached without timing
+     * (by {@link #transcribeAndStore}) is stored as is, with no segments.
+     *
+     * @return number of segments stored
+     */
+    public int transcribeStreaming(long recordingId, Path audioPath,
+                                   Consumer<TranscriptSegment> listener) throws Exception {
+        CacheKey key = cacheKey(audioPath);
+        Optional<TranscriptCache.Hit> hit = key == null ? Optional.empty() : cache.find(key.audioSha256(), key.modelId());
+        if (hit.isPresent() && hit.get().segments().isEmpty()) {
+            store(recordingId, hit.get().text());
+            return 0;
+        }
+        Connection c = conn != null ? conn : transcriptDao.connection();
+        TranscriptSegmentDao segmentDao = new TranscriptSegmentDao(c);
+        segmentDao.discardStaged(recordingId);     // left over by a run that crashed
+        List<TranscriptSegment> pending = new ArrayList<>();
+        List<TranscriptSegment> timed = new ArrayList<>();   // for the cache
+        int[] stored = {0};
+        long[] lastFlush = {System.currentTimeMillis()};
+        String text;
+        try {
+            if (hit.isPresent()) {
+                pending.addAll(hit.get().segments());
+                if (listener != null) pending.forEach(listener);
+            } else {
+                service.transcribeStreaming(audioPath, seg -> {
+                    if (listener != null) listener.accept(seg);
+                    pending.add(seg);
+                    long now = System.currentTimeMillis();
+                    if (pending.size() >= FLUSH_SEGMENTS || now - lastFlush[0] >= FLUSH_INTERVAL_MS) {
+                        try {
+                            segmentDao.stage(recordingId, pending);
+                        } catch (SQLException e) {
+                            throw new PersistFailure(e);
+                        }
+                        stored[0] += pending.size();
+                        pending.clear();
+                        lastFlush[0] = now;
+                    }
+                });
+            }
+            text = UnitOfWork.inTransaction(c, uow -> {
+                segmentDao.stage(recordingId, pending);
+                String body = segmentDao.stagedText(recordingId);
+                if (key != null && hit.isEmpty()) segmentDao.forEachStaged(recordingId, timed::add);
+                transcriptDao.upsertByRecordingId(recordingId, body);
+                segmentDao.publishStaged(recordingId);
+                noteDao.upsertByRecordingId(recordingId, "Auto-generated from transcription");
+                return body;
+            });
+        } catch (Exception e) {
+            discard(segmentDao, recordingId, e);
+            throw e instanceof PersistFailure p ? p.getCause() : e;
+        }
+        if (hit.isEmpty()) remember(key, text, timed);
+        return stored[0] + pending.size();
+    }
+    /** Drop the draft of a failed run; a failure to do so is attached to {@code cause}. */
+    private static void discard(TranscriptSegmentDao segmentDao, long recordingId, Exception cause) {
+        try {
+            segmentDao.discardStaged(recordingId);
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+    /** Null when there is no cache, the service opts out, or the audio cannot be read. */
+    private CacheKey cacheKey(Path audioPath) {
+        if (cache == null || audioPath == null) return null;
+        String model = service.modelId();
+        if (model == null) return null;
+        try {
+            return new CacheKey(TranscriptCache.sha256(audioPath), model);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    private Optional<String> cached(CacheKey key) throws SQLException {
+        return key == null ? Optional.empty() : cache.get(key.audioSha256(), key.modelId());
+    }
+    private void remember(CacheKey key, String text, List<TranscriptSegment> segments) throws SQLException {
+        if (key == null || text.isBlank()) return;
+        cache.put(key.audioSha256(), key.modelId(), text, segments);
+    }
+    /** Carries a SQLException out of the segment callback. */
+    private static final class PersistFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        PersistFailure(SQLException cause) { super(cause); }
+        @Override public synchronized SQLException getCause() { return (SQLException) super.getCause(); }
+    }
 }
-
-
@@ -0,0 +1,305 @@
+package com.notesapp.transcription;
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import com.notesapp.dao.TranscriptionJobDao;
+import com.notesapp.dao.TranscriptionJobDao.Job;
+import com.notesapp.dao.TranscriptionJobDao.Status;
+import com.notesapp.db.ConnectionSource;
+import com.notesapp.db.UnitOfWork;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+/**
+ * Runs the persistent transcription queue ({@link TranscriptionJobDao}) on a fixed pool of
+ * worker threads. Workers claim jobs by priority, reuse a {@link TranscriptCache} hit when the
+ * same audio was transcribed before, otherwise transcribe without holding any connection,
+ * and store transcript, timed segments, note stub and job completion in one short transaction. Failed jobs
+ * are retried with exponential backoff; cancelling a running job interrupts its worker, which
+ * stops the service's run (a whisper.cpp process is killed).
+ * <pre>
+ * try (var scheduler = new TranscriptionScheduler(DatabaseManager::getConnection, service, 4)) {
+ *     scheduler.enqueueUntranscribed(0);
+ *     scheduler.runUntilIdle();
+ * }
+ * </pre>
+ */
+public class TranscriptionScheduler implements AutoCloseable {
+    public static final Duration DEFAULT_BACKOFF = Duration.ofSeconds(30);
+    private static final long MAX_BACKOFF_MS = Duration.ofMinutes(30).toMillis();
+    private static final long POLL_MS = 500;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /** Snapshot of the queue by job status: active jobs plus those finished since the scheduler was created. */
+    public static final class Progress {
+        private final Map<Status, Integer> counts;
+        Progress(Map<Status, Integer> counts) { this.counts = counts; }
+        public int count(Status status) { return counts.getOrDefault(status, 0); }
+        public int total() { return counts.values().stream().mapToInt(Integer::intValue).sum(); }
+        /** Jobs that will not run again: done, failed or cancelled. */
+        public int finished() { return count(Status.DONE) + count(Status.FAILED) + count(Status.CANCELLED); }
+        public boolean isIdle() { return count(Status.QUEUED) + count(Status.RUNNING) == 0; }
+        /** Finished fraction in [0, 1]; 1 when there are no jobs. */
+        public double fraction() { return total() == 0 ? 1.0 : (double) finished() / total(); }
+        @Override public String toString() {
+            return finished() + "/" + total() + " finished (" + count(Status.RUNNING) + " running, "
+                    + count(Status.QUEUED) + " queued, " + count(Status.FAILED) + " failed, "
+                    + count(Status.CANCELLED) + " cancelled)";
+        }
+    }
+    @FunctionalInterface
+    private interface JobWork<T> {
+        T run(TranscriptionJobDao jobs) throws SQLException;
+    }
+    private final ConnectionSource db;
+    private final TranscriptionService service;
+    private final int workers;
+    private final long backoffMs;
+    private final List<Thread> threads = new ArrayList<>();
+    private final Map<Long, Thread> running = new HashMap<>();   // guarded by itself
+    private final Object wakeup = new Object();
+    private final String since = LocalDateTime.now(ZoneOffset.UTC).format(TIMESTAMP);
+    private volatile Consumer<Progress> listener = p -> {};
+    private volatile boolean stopping;
+    /** Worker count defaults to one per whisper.cpp process the machine can run at once. */
+    public TranscriptionScheduler(ConnectionSource db, TranscriptionService service) {
+        this(db, service, WhisperCppTranscriber.DEFAULT_MAX_CONCURRENT, DEFAULT_BACKOFF);
+    }
+    public TranscriptionScheduler(ConnectionSource db, TranscriptionService service, int workers) {
+        this(db, service, workers, DEFAULT_BACKOFF);
+    }
+    /** {@code backoff} is the delay before the first retry; it doubles per failed attempt. */
+    public TranscriptionScheduler(ConnectionSource db, TranscriptionService service, int workers, Duration backoff) {
+        this.db = Objects.requireNonNull(db, "db");
+        this.service = Objects.requireNonNull(service, "service");
+        this.workers = Math.max(1, workers);
+        this.backoffMs = Math.max(0, backoff.toMillis());
+    }
+    /** Called from worker threads after each job state change. */
+    public void setProgressListener(Consumer<Progress> listener) {
+        this.listener = listener == null ? p -> {} : listener;
+    }
+    // ---------- Queue operations ----------
+    public long enqueue(long recordingId, Path audioPath, int priority) throws SQLException {
+        long id = withJobs(jobs -> jobs.enqueue(recordingId, audioPath.toString(), priority));
+        wake();
+        return id;
+    }
+    /** Queue every recording without a transcript; returns how many jobs were added. */
+    public int enqueueUntranscribed(int priority) throws SQLException {
+        int n = withJobs(jobs -> jobs.enqueueUntranscribed(priority));
+        wake();
+        return n;
+    }
+    /** Cancel a queued or running job; a running whisper.cpp process is killed. */
+    public boolean cancel(long jobId) throws SQLException {
+        boolean cancelled = withJobs(jobs -> jobs.cancel(jobId));
+        synchronized (running) {
+            Thread t = running.get(jobId);
+            if (t != null) t.interrupt();
+        }
+        return cancelled;
+    }
+    public int cancelAll() throws SQLException {
+        int n = withJobs(TranscriptionJobDao::cancelAll);
+        synchronized (running) {
+            running.values().forEach(Thread::interrupt);
+        }
+        return n;
+    }
+    public Progress progress() throws SQLException {
+        return new Progress(withJobs(jobs -> jobs.countByStatus(since)));
+    }
+    // ---------- Running ----------
+    /** Start the workers in the background; they wait for new jobs until {@link #close()}. */
+    public synchronized void start() throws SQLException {
+        if (!threads.isEmpty()) return;
+        spawn(false);
+    }
+    /** Run the workers until no job is queued or running (retries included), then return. */
+    public void runUntilIdle() throws SQLException, InterruptedException {
+        List<Thread> started;
+        synchronized (this) {
+            if (!threads.isEmpty()) throw new IllegalStateException("Scheduler already running");
+            started = spawn(true);
+        }
+        try {
+            for (Thread t : started) t.join();
+        } finally {
+            synchronized (this) { threads.removeAll(started); }
+        }
+    }
+    /**
+     * Stop the workers and wait for them; jobs they were running go back to the queue. If the
+     * caller is interrupted while waiting, the workers are left to finish on their own and the
+     * interrupt flag is restored.
+     */
+    @Override public void close() {
+        stopping = true;
+        wake();
+        synchronized (running) {
+            running.values().forEach(Thread::interrupt);
+        }
+        List<Thread> toJoin;
+        synchronized (this) { toJoin = new ArrayList<>(threads); }
+        try {
+            for (Thread t : toJoin) t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    private List<Thread> spawn(boolean untilIdle) throws SQLException {
+        withJobs(TranscriptionJobDao::requeueRunning);   // left over by a process that died mid-job
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            Thread t = new Thread(() -> work(untilIdle), "transcription-worker-" + i);
+            t.setDaemon(true);
+            started.add(t);
+        }
+        threads.addAll(started);
+        started.forEach(Thread::start);
+        return started;
+    }
+    private void work(boolean untilIdle) {
+        while (!stopping) {
+            Optional<Job> job;
+            try {
+                job = withJobs(jobs -> jobs.claimNext(System.currentTimeMillis()));
+                if (job.isEmpty()) {
+                    if (untilIdle && progress().isIdle()) return;
+                    pause();
+                    continue;
+                }
+            } catch (SQLException e) {
+                System.err.println("Transcription queue error: " + e.getMessage());
+                pause();
+                continue;
+            }
+            process(job.get());
+            fireProgress();
+        }
+    }
+    private void process(Job job) {
+        synchronized (running) { running.put(job.getId(), Thread.currentThread()); }
+        try {
+            Path audio = Path.of(job.getAudioPath());
+            String model = service.modelId();
+            String hash = model == null ? null : audioHash(audio);
+            Optional<TranscriptCache.Hit> cached = hash == null ? Optional.empty() : withCache(c -> c.find(hash, model));
+            if (cached.isPresent()) {
+                store(job, cached.get().text(), cached.get().segments());
+                return;
+            }
+            List<TranscriptSegment> segments = new ArrayList<>();
+            service.transcribeStreaming(audio, segments::add);
+            String text = text(segments);
+            store(job, text, segments);
+            if (hash != null && !text.isBlank()) withCache(c -> { c.put(hash, model, text, segments); return null; });
+        } catch (TranscriptionUnavailableException e) {
+            // Missing binary/model/audio will not fix itself between retries.
+            quietly(jobs -> jobs.markFailedPermanently(job.getId(), e.getMessage()));
+        } catch (InterruptedException e) {
+            // Cancelled (row already CANCELLED) or shutting down: hand the job back for the next run.
+            if (stopping) quietly(jobs -> jobs.release(job.getId()));
+        } catch (Exception e) {
+            long retryAt = System.currentTimeMillis() + backoff(job.getAttempts());
+            String error = e.getMessage() == null ? e.toString() : e.getMessage();
+            quietly(jobs -> jobs.markFailed(job.getId(), error, retryAt));
+        } finally {
+            synchronized (running) { running.remove(job.getId()); }
+            Thread.interrupted();   // do not carry a late cancel into the next job
+        }
+    }
+    /**
+     * Transcript, its segments (none for text cached without timing), note stub and job
+     * completion commit together; nothing is written if the job was cancelled.
+     */
+    private void store(Job job, String text, List<TranscriptSegment> timed) throws SQLException {
+        try (Connection c = db.get()) {
+            TranscriptionJobDao jobs = new TranscriptionJobDao(c);
+            TranscriptDao transcripts = new TranscriptDao(c);
+            NoteDao notes = new NoteDao(c);
+            TranscriptSegmentDao segments = new TranscriptSegmentDao(c);
+            UnitOfWork.inTransaction(c, uow -> {
+                if (!jobs.markDone(job.getId())) return null;
+                transcripts.upsertByRecordingId(job.getRecordingId(), text);
+                segments.replaceAll(job.getRecordingId(), timed);
+                if (!notes.existsByRecordingId(job.getRecordingId())) {
+                    notes.upsertByRecordingId(job.getRecordingId(), "Auto-generated from transcription");
+                }
+                return null;
+            });
+        }
+    }
+    /** One segment per line, as the streaming path in {@link TranscriptionManager} stores it. */
+    private static String text(List<TranscriptSegment> segments) {
+        StringBuilder text = new StringBuilder();
+        for (TranscriptSegment seg : segments) {
+            if (text.length() > 0) text.append('\n');
+            text.append(seg.getText());
+        }
+        return text.toString();
+    }
+    private static String audioHash(Path audio) {
+        try {
+            return TranscriptCache.sha256(audio);
+        } catch (IOException e) {
+            return null;   // unreadable audio: let the service report it
+        }
+    }
+    @FunctionalInterface
+    private interface CacheWork<T> {
+        T run(TranscriptCache cache) throws SQLException;
+    }
+    private <T> T withCache(CacheWork<T> work) throws SQLException {
+        try (Connection c = db.get()) {
+            return work.run(new TranscriptCache(c));
+        }
+    }
+    private long backoff(int attempts) {
+        long delay = backoffMs << Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(delay, MAX_BACKOFF_MS);
+    }
+    private void pause() {
+        synchronized (wakeup) {
+            try {
+                if (!stopping) wakeup.wait(POLL_MS);
+            } catch (InterruptedException ignored) {
+                // a cancel aimed at a job that just finished; keep going
+            }
+        }
+    }
+    private void wake() {
+        synchronized (wakeup) { wakeup.notifyAll(); }
+    }
+    private void fireProgress() {
+        try {
+            listener.accept(progress());
+        } catch (Exception e) {
+            System.err.println("Progress listener failed: " + e.getMessage());
+        }
+    }
+    private <T> T withJobs(JobWork<T> work) throws SQLException {
+        try (Connection c = db.get()) {
+            return work.run(new TranscriptionJobDao(c));
+        }
+    }
+    private void quietly(JobWork<?> work) {
+        try {
+            withJobs(work);
+        } catch (SQLException e) {
+            System.err.println("Could not update transcription job: " + e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,39 @@
 package com.notesapp.transcription;
 import java.nio.file.Path;
+import java.util.function.Consumer;
 /** Contract for transcription implementations. */
 public interface TranscriptionService {
     /**
      * Transcribe an audio file and return the raw text.
      * 
      * @param audioPath path to audio file (e.g. .wav)
-     * @return transcript text (or fallback message if unavailable)
-     * @throws Exception if process fails unexpectedly
+     * @return transcript text
+     * @throws TranscriptionUnavailableException if the transcriber or the audio is missing
+     * @throws Exception if transcription fails
      */
     String transcribeAudio(Path audioPath) throws Exception;
+    /**
+     * Transcribe an audio file, handing each segment to {@code onSegment} as soon as it is
+     * available instead of returning the whole text at the end. Called on the transcribing
+     * thread, in order. The default implementation emits the full result as one segment.
+     * Interrupting the calling thread should stop the work and throw InterruptedException;
+     * that is how {@link TranscriptionScheduler} cancels a running job.
+     *
+     * @param audioPath path to audio file (e.g. .wav)
+     * @param onSegment receives segments in order
+     * @throws TranscriptionUnavailableException if the transcriber or the audio is missing
+     * @throws Exception if transcription fails
+     */
+    default void transcribeStreaming(Path audioPath, Consumer<TranscriptSegment> onSegment) throws Exception {
+        String text = transcribeAudio(audioPath);
+        onSegment.accept(new TranscriptSegment(0, 0, text));
+    }
+    /**
+     * Identifies the model and every parameter that changes the output; transcripts are
+     * cached per audio content and this value (see {@link TranscriptCache}). The default,
+     * null, turns caching off: only a backend that knows its model can say two runs match.
+     */
+    default String modelId() {
+        return null;
+    }
 }
-
-
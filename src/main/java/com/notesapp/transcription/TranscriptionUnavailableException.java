@@ -0,0 +1,12 @@
+package com.notesapp.transcription;
+import java.io.IOException;
+/**
+ * The transcriber cannot run at all: whisper.cpp or its model is missing, or the audio file is.
+ * Unlike other failures, trying again later will not help until someone fixes the setup.
+ */
+public class TranscriptionUnavailableException extends IOException {
+    private static final long serialVersionUID = 1L;
+    public TranscriptionUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,56 +1,187 @@
 package com.notesapp.transcription;
+import com.notesapp.core.Tasks;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 /**
  * A thin wrapper around the whisper.cpp CLI binary.
- * If the binary or model are not found, it returns a placeholder string so the app continues to work.
+ * If the binary, model or audio is not found it throws {@link TranscriptionUnavailableException};
+ * a run that exits with an error throws a plain IOException.
+ * <p>
+ * Each run writes into its own temp directory, so any number of instances may transcribe at once;
+ * the number of live whisper.cpp processes is capped by a semaphore (shared by instances created
+ * without an explicit limit).
  */
 public class WhisperCppTranscriber implements TranscriptionService {
+    /** Threads given to each whisper.cpp process ({@code -t}). */
+    public static final int THREADS_PER_PROCESS = 4;
+    /** Default process cap: enough processes to use the cores, at least one. */
+    public static final int DEFAULT_MAX_CONCURRENT =
+            Math.max(1, Runtime.getRuntime().availableProcessors() / THREADS_PER_PROCESS);
+    private static final Semaphore SHARED_LIMIT = new Semaphore(DEFAULT_MAX_CONCURRENT, true);
     private final Path binary;
     private final Path model;
+    private final Semaphore limit;
     /** Default constructor: assumes ./whisper.cpp/main and ./models/ggml-base.en.bin exist */
     public WhisperCppTranscriber() {
         this(Paths.get("whisper.cpp", "main"),
              Paths.get("models", "ggml-base.en.bin"));
     }
     public WhisperCppTranscriber(Path binary, Path model) {
+        this(binary, model, SHARED_LIMIT);
+    }
+    /** Instance with its own cap of {@code maxConcurrent} simultaneous whisper.cpp processes. */
+    public WhisperCppTranscriber(Path binary, Path model, int maxConcurrent) {
+        this(binary, model, new Semaphore(Math.max(1, maxConcurrent), true));
+    }
+    private WhisperCppTranscriber(Path binary, Path model, Semaphore limit) {
         this.binary = binary;
         this.model  = model;
+        this.limit  = limit;
     }
     @Override
     public String transcribeAudio(Path audioPath) throws Exception {
-        // Guard: whisper.cpp not installed
-        if (binary == null || !Files.isExecutable(binary) || model == null || !Files.exists(model)) {
-            return "(transcription unavailable: missing whisper.cpp binary or model)";
-        }
-        if (audioPath == null || !Files.exists(audioPath)) {
-            return "(transcription unavailable: audio file not found)";
+        checkAvailable(audioPath);
+        // Run: ./whisper.cpp/main -m <model> -t N -f <audio> -otxt -of <job dir>/out
+        Path jobDir = Files.createTempDirectory("whisper-");
+        try {
+            Path out = jobDir.resolve("out");
+            ProcessBuilder pb = new ProcessBuilder(
+                    binary.toString(),
+                    "-m", model.toString(),
+                    "-t", String.valueOf(THREADS_PER_PROCESS),
+                    "-f", audioPath.toString(),
+                    "-otxt",
+                    "-of", out.toString()
+            );
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            int code = run(pb);
+            Path outTxt = jobDir.resolve("out.txt");
+            if (code == 0 && Files.exists(outTxt)) {
+                return Files.readString(outTxt);
+            }
+            throw new IOException("whisper.cpp failed with exit code " + code);
+        } finally {
+            Tasks.deleteRecursively(jobDir);
         }
-        // Run: ./whisper.cpp/main -m models/ggml-base.en.bin -f <audio> -otxt -of out
+    }
+    /**
+     * Runs whisper.cpp without file output and parses the timestamped segment lines it prints
+     * to stdout, so each segment reaches {@code onSegment} while the process is still running
+     * and nothing is accumulated here. Fails like {@link #transcribeAudio}. Interrupting the
+     * calling thread kills the process and throws InterruptedException.
+     */
+    @Override
+    public void transcribeStreaming(Path audioPath, Consumer<TranscriptSegment> onSegment) throws Exception {
+        checkAvailable(audioPath);
         ProcessBuilder pb = new ProcessBuilder(
                 binary.toString(),
                 "-m", model.toString(),
-                "-f", audioPath.toString(),
-                "-otxt",
-                "-of", "out"
+                "-t", String.valueOf(THREADS_PER_PROCESS),
+                "-f", audioPath.toString()
         );
-        pb.redirectErrorStream(true);
-        Process proc = pb.start();
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
-            while (r.readLine() != null) {
-                // drain process output for cleanliness
+        // Progress and model-loading logs go to stderr; segments are the only stdout lines.
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+        limit.acquire();
+        try {
+            Process proc = pb.start();
+            // A blocked readLine() ignores interrupts, so stdout is read on its own thread and
+            // this one waits on the queue, where a cancel reaches it.
+            LinePump out = new LinePump(proc);
+            Thread pump = Thread.ofVirtual().name("whisper-stdout").start(out);
+            try {
+                String line;
+                while ((line = out.next()) != null) {
+                    TranscriptSegment seg = TranscriptSegment.parse(line);
+                    if (seg != null && !seg.getText().isEmpty()) onSegment.accept(seg);
+                }
+                int code = proc.waitFor();
+                if (code != 0) throw new IOException("whisper.cpp failed with exit code " + code);
+            } finally {
+                if (proc.isAlive()) kill(proc);
+                pump.interrupt();
             }
+        } finally {
+            limit.release();
         }
-        int code = proc.waitFor();
-        Path outTxt = Paths.get("out.txt");
-        if (code == 0 && Files.exists(outTxt)) {
-            return Files.readString(outTxt);
+    }
+    /** Start {@code pb} under the process cap and wait for it to exit. */
+    private int run(ProcessBuilder pb) throws IOException, InterruptedException {
+        limit.acquire();
+        try {
+            Process proc = pb.start();
+            try {
+                return proc.waitFor();
+            } finally {
+                if (proc.isAlive()) kill(proc);
+            }
+        } finally {
+            limit.release();
+        }
+    }
+    /** Kill {@code proc} and anything it started, which would otherwise keep its stdout open. */
+    private static void kill(Process proc) {
+        proc.descendants().forEach(ProcessHandle::destroyForcibly);
+        proc.destroyForcibly();
+    }
+    /** Copies a process's stdout lines into a small queue; {@link #next} returns null at the end. */
+    private static final class LinePump implements Runnable {
+        private static final String EOF = new String("EOF");   // compared by identity
+        private final Process proc;
+        private final BlockingQueue<String> lines = new ArrayBlockingQueue<>(256);
+        private volatile IOException error;
+        LinePump(Process proc) {
+            this.proc = proc;
+        }
+        @Override public void run() {
+            try (BufferedReader r = new BufferedReader(
+                    new InputStreamReader(proc.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = r.readLine()) != null) lines.put(line);
+            } catch (IOException e) {
+                error = e;
+            } catch (InterruptedException e) {
+                return;   // the reader gave up; nobody is waiting for EOF
+            }
+            try {
+                lines.put(EOF);
+            } catch (InterruptedException ignored) {
+                // same as above
+            }
+        }
+        String next() throws IOException, InterruptedException {
+            String line = lines.take();
+            if (line != EOF) return line;
+            if (error != null) throw error;
+            return null;
+        }
+    }
+    /** Model file name, size and modification time: a changed or swapped model is a different model. */
+    @Override
+    public String modelId() {
+        try {
+            return "whisper.cpp:" + model.getFileName() + ":" + Files.size(model) + ":"
+                    + Files.getLastModifiedTime(model).toMillis();
+        } catch (Exception e) {
+            return null;   // no model, nothing worth caching
+        }
+    }
+    private void checkAvailable(Path audioPath) throws TranscriptionUnavailableException {
+        // Guard: whisper.cpp not installed
+        if (binary == null || !Files.isExecutable(binary) || model == null || !Files.exists(model)) {
+            throw new TranscriptionUnavailableException("missing whisper.cpp binary or model");
+        }
+        if (audioPath == null || !Files.exists(audioPath)) {
+            throw new TranscriptionUnavailableException("audio file not found: " + audioPath);
         }
-        return "(transcription failed with exit code " + code + ")";
     }
 }
-
-
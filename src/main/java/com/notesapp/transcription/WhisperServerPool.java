@@ -0,0 +1,282 @@
+package com.notesapp.transcription;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+/**
+ * Transcribes through a pool of long-running whisper.cpp servers, so the model is loaded
+ * once per process instead of once per clip.
+ * <p>
+ * Each server listens on its own loopback port and takes one job at a time over HTTP
+ * ({@code POST /inference}, the audio streamed from disk as multipart). A job borrows an
+ * idle server, blocking while all are busy. Before use, a server that has died is restarted,
+ * and one idle for longer than the health interval is asked {@code GET /health} first. A job
+ * whose server refuses the connection or dies mid-request is retried once on a fresh process;
+ * one that times out or is rejected is not.
+ * <pre>
+ * try (var pool = new WhisperServerPool(Paths.get("whisper.cpp", "server"), model, 2)) {
+ *     pool.start();   // optional: otherwise servers start on first use
+ *     String text = pool.transcribeAudio(clip);
+ * }
+ * </pre>
+ */
+public class WhisperServerPool implements TranscriptionService, AutoCloseable {
+    public static final Duration DEFAULT_STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    public static final Duration HEALTH_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofHours(2);
+    /** How often a caller waiting for an idle server checks whether the pool was closed. */
+    private static final long BORROW_POLL_MS = 200;
+    /** One server process and the port it answers on. */
+    private final class Server {
+        final int index;
+        Process process;
+        URI base;
+        long lastUsedNanos;
+        Server(int index) { this.index = index; }
+        boolean alive() { return process != null && process.isAlive(); }
+        /** Whether the process has exited, giving a dying one a moment to go. */
+        boolean exited() throws InterruptedException {
+            return process == null || process.waitFor(1, TimeUnit.SECONDS);
+        }
+        void start() throws IOException, InterruptedException {
+            stop();
+            int port = freePort();
+            ProcessBuilder pb = new ProcessBuilder(command.apply(port));
+            // Model loading and per-request logs are not needed; a full pipe would stall the server.
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            process = pb.start();
+            base = URI.create("http://127.0.0.1:" + port);
+            long deadline = System.nanoTime() + startupTimeout.toNanos();
+            while (!healthy()) {
+                if (!process.isAlive()) throw new IOException("whisper server " + index + " exited with code " + process.exitValue());
+                if (System.nanoTime() > deadline) {
+                    stop();
+                    throw new IOException("whisper server " + index + " did not become healthy within " + startupTimeout);
+                }
+                Thread.sleep(50);
+            }
+            lastUsedNanos = System.nanoTime();
+            starts.incrementAndGet();
+        }
+        boolean healthy() throws InterruptedException {
+            try {
+                HttpResponse<Void> r = http.send(HttpRequest.newBuilder(base.resolve("/health"))
+                        .timeout(Duration.ofSeconds(5)).GET().build(), HttpResponse.BodyHandlers.discarding());
+                return r.statusCode() == 200;
+            } catch (IOException e) {
+                return false;   // not listening yet, or hung
+            }
+        }
+        void stop() {
+            if (process != null && process.isAlive()) {
+                process.destroy();
+                try {
+                    if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly();
+                } catch (InterruptedException e) {
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    /** The server answered, with an error: retrying on another process would not help. */
+    private static final class RejectedJob extends IOException {
+        private static final long serialVersionUID = 1L;
+        RejectedJob(String message) { super(message); }
+    }
+    private final IntFunction<List<String>> command;
+    private final String modelId;
+    private final Duration startupTimeout;
+    private final List<Server> servers = new ArrayList<>();
+    private final BlockingQueue<Server> idle;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicInteger starts = new AtomicInteger();
+    private volatile boolean closed;
+    /** {@code size} whisper.cpp {@code server} processes for {@code model}. */
+    public WhisperServerPool(Path serverBinary, Path model, int size) {
+        this(port -> List.of(serverBinary.toString(),
+                        "-m", model.toString(),
+                        "-t", String.valueOf(WhisperCppTranscriber.THREADS_PER_PROCESS),
+                        "--host", "127.0.0.1",
+                        "--port", String.valueOf(port)),
+                size, new WhisperCppTranscriber(serverBinary, model).modelId(), DEFAULT_STARTUP_TIMEOUT);
+    }
+    /**
+     * Servers started with {@code command.apply(port)}; the process must answer {@code GET /health}
+     * and {@code POST /inference} on that loopback port like whisper.cpp's server.
+     */
+    public WhisperServerPool(IntFunction<List<String>> command, int size, String modelId, Duration startupTimeout) {
+        if (size <= 0) throw new IllegalArgumentException("size must be > 0");
+        this.command = Objects.requireNonNull(command, "command");
+        this.modelId = modelId;
+        this.startupTimeout = startupTimeout;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            Server s = new Server(i);
+            servers.add(s);
+            idle.add(s);
+        }
+    }
+    /** Start every server now rather than on first use, so the first jobs do not wait for model loading. */
+    public void start() throws IOException, InterruptedException {
+        List<Server> taken = new ArrayList<>();
+        try {
+            for (int i = 0; i < servers.size(); i++) {
+                Server s = borrow();
+                taken.add(s);
+                if (!s.alive()) s.start();
+            }
+        } finally {
+            idle.addAll(taken);
+        }
+    }
+    @Override
+    public String transcribeAudio(Path audioPath) throws Exception {
+        if (audioPath == null || !Files.exists(audioPath)) throw new TranscriptionUnavailableException("audio file not found: " + audioPath);
+        return infer(audioPath, "text").strip();
+    }
+    /** Segments come from the server's SRT output, after the whole clip has been processed. */
+    @Override
+    public void transcribeStreaming(Path audioPath, Consumer<TranscriptSegment> onSegment) throws Exception {
+        if (audioPath == null || !Files.exists(audioPath)) throw new TranscriptionUnavailableException("audio file not found: " + audioPath);
+        for (TranscriptSegment seg : parseSrt(infer(audioPath, "srt"))) {
+            if (!seg.getText().isEmpty()) onSegment.accept(seg);
+        }
+    }
+    @Override
+    public String modelId() {
+        return modelId;
+    }
+    /** Server processes started so far; more than {@link #size()} means some were restarted. */
+    public int starts() {
+        return starts.get();
+    }
+    public int size() {
+        return servers.size();
+    }
+    /** Stop every server. Jobs still running fail, and callers waiting for a server give up. */
+    @Override
+    public void close() {
+        closed = true;
+        for (Server s : servers) s.stop();
+    }
+    private String infer(Path audio, String format) throws IOException, InterruptedException {
+        Server s = borrow();
+        try {
+            ensureHealthy(s);
+            try {
+                return post(s, audio, format);
+            } catch (HttpTimeoutException e) {
+                if (e instanceof HttpConnectTimeoutException && !closed) {
+                    s.start();   // not accepting connections: hung
+                    return post(s, audio, format);
+                }
+                s.stop();   // still busy with the abandoned job; the next one starts it afresh
+                throw e;
+            } catch (ConnectException e) {
+                if (closed) throw e;
+                s.start();
+                return post(s, audio, format);
+            } catch (IOException e) {
+                // The process died mid-job: replace it and try once more. Anything else
+                // (an unreadable file, the server's own error reply) would fail again.
+                if (closed || e instanceof RejectedJob || !s.exited()) throw e;
+                s.start();
+                return post(s, audio, format);
+            }
+        } finally {
+            s.lastUsedNanos = System.nanoTime();
+            idle.add(s);
+        }
+    }
+    /** An idle server; waits while all are busy, and gives up once the pool is closed. */
+    private Server borrow() throws InterruptedException {
+        while (true) {
+            if (closed) throw new IllegalStateException("Pool closed");
+            Server s = idle.poll(BORROW_POLL_MS, TimeUnit.MILLISECONDS);
+            if (s == null) continue;
+            if (closed) {
+                idle.add(s);
+                throw new IllegalStateException("Pool closed");
+            }
+            return s;
+        }
+    }
+    private void ensureHealthy(Server s) throws IOException, InterruptedException {
+        if (!s.alive()) {
+            s.start();
+        } else if (System.nanoTime() - s.lastUsedNanos > HEALTH_INTERVAL.toNanos() && !s.healthy()) {
+            s.start();
+        }
+    }
+    private String post(Server s, Path audio, String format) throws IOException, InterruptedException {
+        String boundary = "----notesapp" + UUID.randomUUID();
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"response_format\"\r\n\r\n" + format + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + audio.getFileName() + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+        HttpRequest req = HttpRequest.newBuilder(s.base.resolve("/inference"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.concat(
+                        HttpRequest.BodyPublishers.ofString(head),
+                        HttpRequest.BodyPublishers.ofFile(audio),
+                        HttpRequest.BodyPublishers.ofString(tail)))
+                .build();
+        HttpResponse<String> r = http.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (r.statusCode() != 200) {
+            throw new RejectedJob("whisper server " + s.index + " answered " + r.statusCode() + ": " + r.body());
+        }
+        return r.body();
+    }
+    /** Parse SRT ({@code n}, {@code 00:00:01,000 --> 00:00:02,500}, text lines, blank line). */
+    static List<TranscriptSegment> parseSrt(String srt) {
+        List<TranscriptSegment> out = new ArrayList<>();
+        String[] lines = srt.replace("\r", "").split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].contains("-->")) continue;
+            StringBuilder text = new StringBuilder();
+            int j = i + 1;
+            for (; j < lines.length && !lines[j].isBlank(); j++) {
+                if (text.length() > 0) text.append(' ');
+                text.append(lines[j].strip());
+            }
+            // Same timestamps as whisper.cpp's console output, with a comma before the millis.
+            TranscriptSegment seg = TranscriptSegment.parse("[" + lines[i].strip() + "] " + text);
+            if (seg != null) out.add(seg);
+            i = j;
+        }
+        return out;
+    }
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.notesapp.transcription;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+/**
+ * Picks the whisper backend at runtime: libwhisper in-process when a library is given and can
+ * be bound, the whisper.cpp CLI otherwise.
+ * <p>
+ * The in-process binding ({@code com.notesapp.transcription.ffm.WhisperFfmTranscriber}) uses
+ * the Foreign Function &amp; Memory API, a preview in Java 21: it is only compiled with
+ * {@code mvn -Pffm} and only loads on a JVM started with {@code --enable-preview}. It is looked
+ * up by name, so this class works in builds without it.
+ */
+public final class WhisperTranscribers {
+    static final String FFM_CLASS = "com.notesapp.transcription.ffm.WhisperFfmTranscriber";
+    /**
+     * Threads per in-process inference: every core. The library has one context and runs one
+     * inference at a time however many scheduler workers call it, unlike CLI processes.
+     */
+    static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private WhisperTranscribers() {}
+    /**
+     * libwhisper at {@code library} with {@code model}; if {@code library} is null or cannot be
+     * used, {@code fallback} (normally a {@link WhisperCppTranscriber}). {@code onFallback}
+     * (may be null) is told why the library was not used.
+     */
+    public static TranscriptionService select(Path library, Path model, TranscriptionService fallback, Consumer<String> onFallback) {
+        if (library == null || model == null) return fallback;
+        try {
+            return (TranscriptionService) Class.forName(FFM_CLASS)
+                    .getConstructor(Path.class, Path.class, int.class)
+                    .newInstance(library, model, THREADS);
+        } catch (InvocationTargetException e) {
+            report(onFallback, library, e.getCause());
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Not built with -Pffm, or the JVM runs without --enable-preview / native access.
+            report(onFallback, library, e);
+        }
+        return fallback;
+    }
+    private static void report(Consumer<String> onFallback, Path library, Throwable cause) {
+        if (onFallback != null) {
+            onFallback.accept("In-process whisper unavailable (" + library + "): " + cause + "; using the whisper.cpp CLI");
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.notesapp.transcription.ffm;
+import com.notesapp.transcription.TranscriptSegment;
+import com.notesapp.transcription.TranscriptionService;
+import com.notesapp.transcription.TranscriptionUnavailableException;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Consumer;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BOOLEAN;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+/**
+ * Runs whisper.cpp in-process through {@code java.lang.foreign}: no process, temp files or
+ * stdout parsing. The model is loaded once, when the transcriber is created; samples are
+ * handed over in an off-heap segment and each new segment comes back through an upcall
+ * while {@code whisper_full} is still running.
+ * <p>
+ * The binding follows the whisper.cpp 1.5 C API ({@code whisper.h}). {@code whisper_full_params}
+ * is passed by value, so its layout is declared here; the constructor checks it against the
+ * library's own defaults and refuses a libwhisper whose layout differs. Audio must be 16 kHz
+ * PCM WAV (any channel count; channels are averaged), as {@code NormalizingTranscriptionService}
+ * provides. One context runs one job at a time; interrupting the thread that runs it makes
+ * {@code whisper_full} stop through its {@code abort_callback}.
+ * <p>
+ * Requires {@code --enable-preview} on Java 21; built only with {@code mvn -Pffm}. Use
+ * {@link com.notesapp.transcription.WhisperTranscribers#select} to fall back to the CLI when
+ * this class or the library is unavailable.
+ */
+public final class WhisperFfmTranscriber implements TranscriptionService, AutoCloseable {
+    public static final int SAMPLE_RATE = 16_000;
+    private static final int STRATEGY_GREEDY = 0;
+    /** {@code struct whisper_full_params} of whisper.cpp 1.5 (x86-64 / AArch64, LP64). */
+    static final StructLayout FULL_PARAMS = MemoryLayout.structLayout(
+            JAVA_INT.withName("strategy"),
+            JAVA_INT.withName("n_threads"),
+            JAVA_INT.withName("n_max_text_ctx"),
+            JAVA_INT.withName("offset_ms"),
+            JAVA_INT.withName("duration_ms"),
+            JAVA_BOOLEAN.withName("translate"),
+            JAVA_BOOLEAN.withName("no_context"),
+            JAVA_BOOLEAN.withName("no_timestamps"),
+            JAVA_BOOLEAN.withName("single_segment"),
+            JAVA_BOOLEAN.withName("print_special"),
+            JAVA_BOOLEAN.withName("print_progress"),
+            JAVA_BOOLEAN.withName("print_realtime"),
+            JAVA_BOOLEAN.withName("print_timestamps"),
+            JAVA_BOOLEAN.withName("token_timestamps"),
+            MemoryLayout.paddingLayout(3),
+            JAVA_FLOAT.withName("thold_pt"),
+            JAVA_FLOAT.withName("thold_ptsum"),
+            JAVA_INT.withName("max_len"),
+            JAVA_BOOLEAN.withName("split_on_word"),
+            MemoryLayout.paddingLayout(3),
+            JAVA_INT.withName("max_tokens"),
+            JAVA_BOOLEAN.withName("speed_up"),
+            JAVA_BOOLEAN.withName("debug_mode"),
+            MemoryLayout.paddingLayout(2),
+            JAVA_INT.withName("audio_ctx"),
+            JAVA_BOOLEAN.withName("tdrz_enable"),
+            MemoryLayout.paddingLayout(3),
+            ADDRESS.withName("initial_prompt"),
+            ADDRESS.withName("prompt_tokens"),
+            JAVA_INT.withName("prompt_n_tokens"),
+            MemoryLayout.paddingLayout(4),
+            ADDRESS.withName("language"),
+            JAVA_BOOLEAN.withName("detect_language"),
+            JAVA_BOOLEAN.withName("suppress_blank"),
+            JAVA_BOOLEAN.withName("suppress_non_speech_tokens"),
+            MemoryLayout.paddingLayout(1),
+            JAVA_FLOAT.withName("temperature"),
+            JAVA_FLOAT.withName("max_initial_ts"),
+            JAVA_FLOAT.withName("length_penalty"),
+            JAVA_FLOAT.withName("temperature_inc"),
+            JAVA_FLOAT.withName("entropy_thold"),
+            JAVA_FLOAT.withName("logprob_thold"),
+            JAVA_FLOAT.withName("no_speech_thold"),
+            JAVA_INT.withName("greedy_best_of"),
+            JAVA_INT.withName("beam_size"),
+            JAVA_FLOAT.withName("beam_patience"),
+            MemoryLayout.paddingLayout(4),
+            ADDRESS.withName("new_segment_callback"),
+            ADDRESS.withName("new_segment_callback_user_data"),
+            ADDRESS.withName("progress_callback"),
+            ADDRESS.withName("progress_callback_user_data"),
+            ADDRESS.withName("encoder_begin_callback"),
+            ADDRESS.withName("encoder_begin_callback_user_data"),
+            ADDRESS.withName("abort_callback"),
+            ADDRESS.withName("abort_callback_user_data"),
+            ADDRESS.withName("logits_filter_callback"),
+            ADDRESS.withName("logits_filter_callback_user_data"),
+            ADDRESS.withName("grammar_rules"),
+            JAVA_LONG.withName("n_grammar_rules"),
+            JAVA_LONG.withName("i_start_rule"),
+            JAVA_FLOAT.withName("grammar_penalty"),
+            MemoryLayout.paddingLayout(4));
+    /** {@code void (*)(struct whisper_context *, struct whisper_state *, int n_new, void * user_data)} */
+    private static final FunctionDescriptor NEW_SEGMENT = FunctionDescriptor.ofVoid(ADDRESS, ADDRESS, JAVA_INT, ADDRESS);
+    /** {@code bool (*ggml_abort_callback)(void * data)} */
+    static final FunctionDescriptor ABORT = FunctionDescriptor.of(JAVA_BOOLEAN, ADDRESS);
+    private static final MethodHandle ON_NEW_SEGMENT;
+    private static final MethodHandle IS_INTERRUPTED;
+    static {
+        try {
+            ON_NEW_SEGMENT = MethodHandles.lookup().findVirtual(Job.class, "onNewSegment",
+                    MethodType.methodType(void.class, MemorySegment.class, MemorySegment.class, int.class, MemorySegment.class));
+            IS_INTERRUPTED = MethodHandles.dropArguments(
+                    MethodHandles.lookup().findVirtual(Thread.class, "isInterrupted", MethodType.methodType(boolean.class)),
+                    1, MemorySegment.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    private final Arena arena = Arena.ofShared();   // library lookup and model context live as long as this
+    private final Path model;
+    private final MethodHandle free;
+    private final MethodHandle defaultParams;
+    private final MethodHandle freeParams;
+    private final MethodHandle full;
+    private final MethodHandle nSegments;
+    private final MethodHandle segmentT0;
+    private final MethodHandle segmentT1;
+    private final MethodHandle segmentText;
+    private final int threads;
+    private MemorySegment ctx;
+    /**
+     * Load {@code library} (libwhisper.so / .dylib / whisper.dll) and {@code model}.
+     *
+     * @throws IllegalArgumentException if the library cannot be loaded or lacks a symbol
+     * @throws IOException if the model cannot be loaded
+     * @throws UnsupportedOperationException if the library's parameter layout is not the one bound here
+     */
+    public WhisperFfmTranscriber(Path library, Path model, int threads) throws IOException {
+        this.model = Objects.requireNonNull(model, "model");
+        this.threads = Math.max(1, threads);
+        Linker linker = Linker.nativeLinker();
+        SymbolLookup lib = SymbolLookup.libraryLookup(library, arena);
+        MethodHandle init = linker.downcallHandle(symbol(lib, "whisper_init_from_file"), FunctionDescriptor.of(ADDRESS, ADDRESS));
+        free = linker.downcallHandle(symbol(lib, "whisper_free"), FunctionDescriptor.ofVoid(ADDRESS));
+        defaultParams = linker.downcallHandle(symbol(lib, "whisper_full_default_params_by_ref"), FunctionDescriptor.of(ADDRESS, JAVA_INT));
+        freeParams = linker.downcallHandle(symbol(lib, "whisper_free_params"), FunctionDescriptor.ofVoid(ADDRESS));
+        full = linker.downcallHandle(symbol(lib, "whisper_full"), FunctionDescriptor.of(JAVA_INT, ADDRESS, FULL_PARAMS, ADDRESS, JAVA_INT));
+        nSegments = linker.downcallHandle(symbol(lib, "whisper_full_n_segments_from_state"), FunctionDescriptor.of(JAVA_INT, ADDRESS));
+        segmentT0 = linker.downcallHandle(symbol(lib, "whisper_full_get_segment_t0_from_state"), FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT));
+        segmentT1 = linker.downcallHandle(symbol(lib, "whisper_full_get_segment_t1_from_state"), FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT));
+        segmentText = linker.downcallHandle(symbol(lib, "whisper_full_get_segment_text_from_state"), FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_INT));
+        checkLayout();
+        try (Arena tmp = Arena.ofConfined()) {
+            ctx = (MemorySegment) init.invokeExact(tmp.allocateUtf8String(model.toString()));
+        } catch (Throwable t) {
+            throw new IOException("whisper_init_from_file failed for " + model, t);
+        }
+        if (ctx.equals(MemorySegment.NULL)) throw new IOException("libwhisper could not load model " + model);
+    }
+    private static MemorySegment symbol(SymbolLookup lib, String name) {
+        return lib.find(name).orElseThrow(() -> new IllegalArgumentException("libwhisper lacks " + name));
+    }
+    /** The library's greedy defaults must show up at the offsets declared in {@link #FULL_PARAMS}. */
+    private void checkLayout() {
+        MemorySegment p = defaults(STRATEGY_GREEDY);
+        try {
+            boolean ok = p.get(JAVA_INT, offset("strategy")) == STRATEGY_GREEDY
+                    && p.get(JAVA_INT, offset("n_max_text_ctx")) == 16384
+                    && p.get(JAVA_FLOAT, offset("temperature_inc")) == 0.2f
+                    && p.get(JAVA_FLOAT, offset("entropy_thold")) == 2.4f
+                    && p.get(JAVA_FLOAT, offset("logprob_thold")) == -1.0f
+                    && p.get(ADDRESS, offset("new_segment_callback")).equals(MemorySegment.NULL)
+                    && p.get(ADDRESS, offset("abort_callback")).equals(MemorySegment.NULL);
+            if (!ok) throw new UnsupportedOperationException("libwhisper's whisper_full_params differ from the bound 1.5 layout");
+        } finally {
+            release(p);
+        }
+    }
+    static long offset(String field) {
+        return FULL_PARAMS.byteOffset(MemoryLayout.PathElement.groupElement(field));
+    }
+    private MemorySegment defaults(int strategy) {
+        try {
+            return ((MemorySegment) defaultParams.invokeExact(strategy)).reinterpret(FULL_PARAMS.byteSize());
+        } catch (Throwable t) {
+            throw new IllegalStateException("whisper_full_default_params_by_ref failed", t);
+        }
+    }
+    private void release(MemorySegment params) {
+        try {
+            freeParams.invokeExact(params);
+        } catch (Throwable t) {
+            throw new IllegalStateException("whisper_free_params failed", t);
+        }
+    }
+    @Override
+    public String transcribeAudio(Path audioPath) throws Exception {
+        StringBuilder text = new StringBuilder();
+        transcribeStreaming(audioPath, seg -> {
+            if (text.length() > 0) text.append('\n');
+            text.append(seg.getText());
+        });
+        return text.toString();
+    }
+    /** Segments reach {@code onSegment} from inside {@code whisper_full}, on the calling thread. */
+    @Override
+    public synchronized void transcribeStreaming(Path audioPath, Consumer<TranscriptSegment> onSegment) throws Exception {
+        if (ctx == null) throw new IllegalStateException("Transcriber closed");
+        if (audioPath == null || !Files.exists(audioPath)) throw new TranscriptionUnavailableException("audio file not found: " + audioPath);
+        try (Arena job = Arena.ofConfined()) {
+            MemorySegment samples = readSamples(audioPath, job);
+            Job state = new Job(onSegment);
+            MemorySegment callback = Linker.nativeLinker().upcallStub(ON_NEW_SEGMENT.bindTo(state), NEW_SEGMENT, job);
+            MemorySegment params = job.allocate(FULL_PARAMS);
+            MemorySegment defaults = defaults(STRATEGY_GREEDY);
+            try {
+                params.copyFrom(defaults);
+            } finally {
+                release(defaults);
+            }
+            params.set(JAVA_INT, offset("n_threads"), threads);
+            params.set(JAVA_BOOLEAN, offset("print_progress"), false);
+            params.set(JAVA_BOOLEAN, offset("print_realtime"), false);
+            params.set(ADDRESS, offset("new_segment_callback"), callback);
+            params.set(ADDRESS, offset("abort_callback"), abortOnInterrupt(Thread.currentThread(), job));
+            int code;
+            try {
+                code = (int) full.invokeExact(ctx, params, samples, (int) (samples.byteSize() / Float.BYTES));
+            } catch (Throwable t) {
+                throw new IOException("whisper_full failed", t);
+            }
+            if (Thread.interrupted()) throw new InterruptedException("whisper_full aborted");
+            if (state.failure != null) throw state.failure;
+            if (code != 0) throw new IOException("whisper_full returned " + code);
+        }
+    }
+    /**
+     * An {@code abort_callback} that reports whether {@code caller} has been interrupted. ggml
+     * may call it from its own worker threads, so it asks about the caller, not the current thread.
+     */
+    static MemorySegment abortOnInterrupt(Thread caller, Arena arena) {
+        return Linker.nativeLinker().upcallStub(IS_INTERRUPTED.bindTo(caller), ABORT, arena);
+    }
+    /** Receives upcalls for one {@code whisper_full} run. */
+    private final class Job {
+        private final Consumer<TranscriptSegment> onSegment;
+        private Exception failure;
+        Job(Consumer<TranscriptSegment> onSegment) { this.onSegment = onSegment; }
+        @SuppressWarnings("unused")   // called from native code through ON_NEW_SEGMENT
+        void onNewSegment(MemorySegment wctx, MemorySegment wstate, int nNew, MemorySegment userData) {
+            // An exception escaping an upcall would take the JVM down: keep it for the caller.
+            if (failure != null) return;
+            try {
+                int n = (int) nSegments.invokeExact(wstate);
+                for (int i = n - nNew; i < n; i++) {
+                    long t0 = (long) segmentT0.invokeExact(wstate, i);
+                    long t1 = (long) segmentT1.invokeExact(wstate, i);
+                    MemorySegment text = (MemorySegment) segmentText.invokeExact(wstate, i);
+                    String s = text.reinterpret(Long.MAX_VALUE).getUtf8String(0).strip();
+                    // whisper times are in 10 ms units.
+                    if (!s.isEmpty()) onSegment.accept(new TranscriptSegment(t0 * 10, t1 * 10, s));
+                }
+            } catch (Throwable t) {
+                failure = t instanceof Exception e ? e : new IOException(t);
+            }
+        }
+    }
+    /** 16 kHz audio as mono float samples in [-1, 1], in an off-heap segment of {@code arena}. */
+    static MemorySegment readSamples(Path wav, Arena arena) throws IOException {
+        try (AudioInputStream src = AudioSystem.getAudioInputStream(wav.toFile())) {
+            AudioFormat f = src.getFormat();
+            if (Math.round(f.getSampleRate()) != SAMPLE_RATE) {
+                throw new IOException("In-process whisper needs 16 kHz audio; " + wav + " is " + f.getSampleRate() + " Hz");
+            }
+            int channels = f.getChannels();
+            AudioFormat pcm16 = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, SAMPLE_RATE, 16, channels, channels * 2, SAMPLE_RATE, false);
+            try (AudioInputStream in = f.matches(pcm16) ? src : AudioSystem.getAudioInputStream(pcm16, src)) {
+                long frames = in.getFrameLength();
+                if (frames <= 0) throw new IOException("Unknown length: " + wav);
+                MemorySegment out = arena.allocateArray(JAVA_FLOAT, frames);
+                byte[] buf = new byte[channels * 2 * 4096];
+                long frame = 0;
+                int n;
+                while (frame < frames && (n = in.readNBytes(buf, 0, buf.length)) > 0) {
+                    ByteBuffer bb = ByteBuffer.wrap(buf, 0, n - n % (channels * 2)).order(ByteOrder.LITTLE_ENDIAN);
+                    while (bb.remaining() >= channels * 2 && frame < frames) {
+                        int sum = 0;
+                        for (int c = 0; c < channels; c++) sum += bb.getShort();
+                        out.setAtIndex(JAVA_FLOAT, frame++, sum / (channels * 32768f));
+                    }
+                }
+                return frame == frames ? out : out.asSlice(0, frame * Float.BYTES);
+            }
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio file " + wav, e);
+        }
+    }
+    @Override
+    public String modelId() {
+        // Same model, same output as the CLI; share its cache entries.
+        try {
+            return "whisper.cpp:" + model.getFileName() + ":" + Files.size(model) + ":"
+                    + Files.getLastModifiedTime(model).toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    @Override
+    public synchronized void close() {
+        if (ctx == null) return;
+        try {
+            free.invokeExact(ctx);
+        } catch (Throwable t) {
+            throw new IllegalStateException("whisper_free failed", t);
+        } finally {
+            ctx = null;
+            arena.close();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.notesapp.ui;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import javafx.concurrent.Task;
+import javafx.scene.control.Labeled;
+
+/**
+ * Runs controller actions off the JavaFX Application Thread.
+ * <p>
+ * Each action is a JavaFX {@link Task} on a shared executor, keyed by name (e.g. "search").
+ * While it runs, the status label is bound to the task's message, so {@link Progress#message}
+ * can be called as often as the work likes: JavaFX folds the updates into one per pulse.
+ * Results and errors are handed back on the FX thread.
+ * <p>
+ * The label belongs to this class: actions return their result text instead of setting it, and
+ * other callers use {@link #status}. Text arriving while a newer action is shown (an older
+ * action finishing under another key) is shown when that action finishes.
+ * <p>
+ * Repeated clicks on the same action are coalesced by its {@link Policy}. All methods except
+ * those of {@link Progress} must be called on the FX thread.
+ */
+public final class BackgroundTasks {
+
+    /** What to do when an action is started while the previous run of it is still going. */
+    public enum Policy {
+        /** Ignore the new request (saves, imports: one at a time is enough). */
+        DROP_WHILE_RUNNING,
+        /** Cancel the running one; only the newest result is shown (search). */
+        LATEST_WINS
+    }
+
+    /** What a background action can report while it runs; safe to call from any thread. */
+    public interface Progress {
+        void message(String message);
+        boolean isCancelled();
+    }
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ui-task-", 0).factory());
+
+    /** The executor actions run on, for background work that does not report to the status label. */
+    public static Executor executor() { return EXECUTOR; }
+
+    /** A task that is its own {@link Progress}. */
+    private static final class ActionTask<T> extends Task<T> implements Progress {
+        private final Work<T> work;
+        ActionTask(String startMessage, Work<T> work) {
+            this.work = work;
+            updateMessage(startMessage);   // on the FX thread this sets the message right away
+        }
+        @Override protected T call() throws Exception {
+            return work.run(this);
+        }
+        @Override public void message(String message) { updateMessage(message); }
+    }
+
+    private final StatusLine status;
+    private final Map<String, Task<?>> running = new HashMap<>();
+
+    public BackgroundTasks(Labeled status) {
+        this.status = new StatusLine(status.textProperty());
+    }
+
+    /**
+     * Start {@code work} in the background as action {@code key}. {@code onSuccess} runs on the
+     * FX thread with the result and returns the status text to show (null: keep the last
+     * message); a failure shows {@code failurePrefix} and the error message.
+     *
+     * @return the task, or null if the request was coalesced away
+     */
+    public <T> Task<T> run(String key, Policy policy, String startMessage, Work<T> work,
+                           Function<? super T, String> onSuccess, String failurePrefix) {
+        if (isRunning(key)) {
+            if (policy == Policy.DROP_WHILE_RUNNING) return null;
+            running.get(key).cancel(true);
+        }
+        Task<T> task = new ActionTask<>(startMessage, work);
+        task.setOnSucceeded(e -> {
+            finish(key, task);
+            status.show(onSuccess.apply(task.getValue()));
+        });
+        task.setOnFailed(e -> {
+            finish(key, task);
+            Throwable err = task.getException();
+            status.show(failurePrefix + (err == null ? "unknown error" : err.getMessage()));
+            if (err != null) err.printStackTrace();
+        });
+        task.setOnCancelled(e -> {
+            if (finish(key, task)) status.show("⏹ Cancelled.");
+        });
+        running.put(key, task);
+        status.bind(task, task.messageProperty());
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /** Show {@code text} in the status label, or once the action it is bound to finishes. */
+    public void status(String text) {
+        status.show(text);
+    }
+
+    /** Cancel action {@code key} if it is running; its result will not be shown. */
+    public boolean cancel(String key) {
+        Task<?> task = running.get(key);
+        return task != null && task.cancel(true);
+    }
+
+    /** Cancel every running action. */
+    public int cancelAll() {
+        int n = 0;
+        for (Task<?> task : running.values().toArray(Task<?>[]::new)) {
+            if (task.cancel(true)) n++;
+        }
+        return n;
+    }
+
+    /** True from the moment action {@code key} is started until its result has been handled. */
+    public boolean isRunning(String key) {
+        return running.containsKey(key);
+    }
+
+    /**
+     * Release the status label from {@code task}, keeping its last message on screen.
+     * Returns whether the label was showing this task.
+     */
+    private boolean finish(String key, Task<?> task) {
+        running.remove(key, task);
+        return status.release(task);
+    }
+}
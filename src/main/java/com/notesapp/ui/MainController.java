@@ -25,13 +25,34 @@ import com.notesapp.agents.impl.TagNoteAgent;
 import com.notesapp.agents.impl.SaveNoteAgent;
 import com.notesapp.agents.impl.TranscribeAudioAgent;
 import com.notesapp.agents.impl.ImportAudioAgent;
+import com.notesapp.audio.NormalizedAudioCache;
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.NoteWriteBuffer;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.SearchIndexDao;
+import com.notesapp.dao.TranscriptionJobDao;
+import com.notesapp.db.DatabaseManager;
+import com.notesapp.model.Recording;
+import com.notesapp.transcription.NormalizingTranscriptionService;
+import com.notesapp.transcription.TranscriptionScheduler;
+import com.notesapp.transcription.TranscriptionService;
+import com.notesapp.transcription.WhisperCppTranscriber;
+import com.notesapp.transcription.WhisperTranscribers;
+import com.notesapp.ui.BackgroundTasks.Policy;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import javafx.scene.control.Button;
 
 public class MainController {
@@ -48,62 +69,255 @@ public class MainController {
     @FXML private TextField tagField;
     @FXML private TextArea noteArea;
     @FXML private TextArea transcriptArea;
-    @FXML private ListView<String> recordingList;
+    @FXML private ListView<Recording> recordingList;
     @FXML private Label statusLabel;
+    @FXML private Label jobsLabel;
+    @FXML private ProgressBar jobsProgress;
+
+    // One scheduler for the app; it outlives this view when navigating away and back.
+    private static volatile TranscriptionScheduler scheduler;
+
+    // Note edits are autosaved through here: buffered in memory, journaled, written in batches.
+    private static volatile NoteWriteBuffer notes;
+    private long editingRecordingId = -1;
+    private boolean showingNote;   // true while noteArea is being filled, not edited
+
+    // Agent calls and database work run here, never on the FX thread.
+    private BackgroundTasks tasks;
+
+    private BackgroundTasks tasks() {
+        if (tasks == null) tasks = new BackgroundTasks(statusLabel);
+        return tasks;
+    }
+
+    // Newest recordings first, loaded page by page as the list is scrolled.
+    private PagedRecordingList recordings;
+
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(180);
+    // Shorter queries are only run on an explicit search: the index keeps no 1-character prefixes.
+    private static final int MIN_INCREMENTAL_QUERY = 2;
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+
+    @FXML
+    private void initialize() {
+        recordings = new PagedRecordingList(DatabaseManager::getReadConnection, BackgroundTasks.executor());
+        recordings.setOnError(e -> tasks().status("⚠️ Could not load recordings: " + e.getMessage()));
+        recordings.attach(recordingList);
+        // Search as you type, once typing pauses.
+        searchDebounce.setOnFinished(e -> search(false));
+        searchField.textProperty().addListener((obs, old, text) -> searchDebounce.playFromStart());
+        // Autosave: every keystroke goes to the write-behind buffer, which does the I/O elsewhere.
+        notes();
+        recordingList.getSelectionModel().selectedItemProperty().addListener((obs, old, r) -> showNote(r));
+        noteArea.textProperty().addListener((obs, old, text) -> {
+            if (!showingNote && editingRecordingId >= 0) notes().edit(editingRecordingId, text);
+        });
+        noteArea.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused) notes().flushAsync();
+        });
+    }
+
+    /** The app-wide note buffer; replays a crash journal in the background on first use. */
+    private NoteWriteBuffer notes() {
+        synchronized (MainController.class) {
+            if (notes == null) {
+                NoteWriteBuffer buffer = new NoteWriteBuffer(DatabaseManager::getConnection, Paths.get("data", "notes.journal"));
+                buffer.setOnError(e -> Platform.runLater(() -> tasks().status("⚠️ Autosave failed: " + e.getMessage())));
+                notes = buffer;
+                tasks().run("notes-recover", Policy.DROP_WHILE_RUNNING, "💾 Checking for unsaved notes...",
+                        p -> buffer.start(),
+                        n -> n == 0 ? "Ready" : "✅ Recovered " + n + " unsaved note(s).",
+                        "⚠️ Could not recover unsaved notes: ");
+            }
+            return notes;
+        }
+    }
+
+    /** Write all buffered note edits and stop autosaving; call when the app exits. */
+    public static void closeNotes() {
+        NoteWriteBuffer buffer;
+        synchronized (MainController.class) {
+            buffer = notes;
+            notes = null;
+        }
+        if (buffer == null) return;
+        try {
+            buffer.close();
+        } catch (Exception e) {
+            System.err.println("Could not save buffered notes: " + e.getMessage());
+        }
+    }
+
+    /** Put the note of {@code r} into the editor: its unsaved edits if any, else what is stored. */
+    private void showNote(Recording r) {
+        NoteWriteBuffer buffer = notes();
+        buffer.flushAsync();
+        editingRecordingId = -1;
+        if (r == null) {
+            setNoteText("");
+            return;
+        }
+        long id = r.getId();
+        tasks().run("note", Policy.LATEST_WINS, "📄 Loading note...",
+                p -> {
+                    var unsaved = buffer.pending(id);
+                    if (unsaved.isPresent()) return unsaved.get();
+                    try (Connection conn = DatabaseManager.getReadConnection()) {
+                        return new NoteDao(conn).findByRecordingId(id).map(NoteDao.NoteRow::getContent).orElse("");
+                    }
+                },
+                text -> {
+                    setNoteText(text);
+                    editingRecordingId = id;
+                    return "Ready";
+                },
+                "⚠️ Could not load note: ");
+    }
+
+    private void setNoteText(String text) {
+        showingNote = true;
+        try {
+            noteArea.setText(text);
+        } finally {
+            showingNote = false;
+        }
+    }
 
     // ===== Event Handlers =====
 
     @FXML
     private void onSearch(ActionEvent event) {
-    try {
-        statusLabel.setText("🔍 Searching...");
-        searchNotesAgent.run(new SearchNotesIn()); // using stub DTO
-        statusLabel.setText("✅ Search complete.");
-    } catch (Exception e) {
-        statusLabel.setText("⚠️ Search failed: " + e.getMessage());
-        e.printStackTrace();
+    searchDebounce.stop();
+    search(true);
+}
+
+    private void search(boolean explicit) {
+    String query = searchField.getText();
+    if (query.isBlank()) {
+        tasks().cancel("search");
+        recordingList.setItems(recordings.items());
+        tasks().status("Ready");
+        return;
     }
+    if (!explicit && query.strip().length() < MIN_INCREMENTAL_QUERY) return;
+    SearchNotesIn in = new SearchNotesIn();
+    in.setKeyword(query);
+    // A newer search supersedes one still running.
+    tasks().run("search", Policy.LATEST_WINS, "🔍 Searching...",
+            p -> searchNotesAgent.process(in).getResults(),
+            results -> {
+                recordingList.setItems(FXCollections.observableArrayList(results.stream()
+                        .map(o -> (SearchIndexDao.SearchHit) o)
+                        .map(h -> new Recording((int) h.getRecordingId(), h.getTitle(), null, 0, null, null))
+                        .toList()));
+                String top = results.isEmpty() ? "" : " Top match: " + ((SearchIndexDao.SearchHit) results.get(0)).getSnippet();
+                return "✅ " + results.size() + " result(s)." + top;
+            },
+            "⚠️ Search failed: ");
 }
 
     @FXML
     private void onNewRecording(ActionEvent event) {
-    try {
-        statusLabel.setText("🎙️ Importing audio...");
-        importAudioAgent.run(new ImportAudioIn()); // using stub DTO
-        statusLabel.setText("✅ Audio imported.");
-    } catch (Exception e) {
-        statusLabel.setText("⚠️ Import failed: " + e.getMessage());
-        e.printStackTrace();
-    }
+    tasks().run("import", Policy.DROP_WHILE_RUNNING, "🎙️ Importing audio...",
+            p -> importAudioAgent.process(new ImportAudioIn()), // using stub DTO
+            out -> {
+                recordings.reload();   // the new recording is the newest, at the top
+                return "✅ Audio imported.";
+            },
+            "⚠️ Import failed: ");
 }
 
     @FXML
     private void onTranscribeAndSave(ActionEvent event) {
-    try {
-        statusLabel.setText("🧠 Transcribing...");
-        transcribeAudioAgent.run(new TranscribeAudioIn()); // using stub DTO
-        statusLabel.setText("✅ Transcription complete.");
-    } catch (Exception e) {
-        statusLabel.setText("⚠️ Transcription failed: " + e.getMessage());
-        e.printStackTrace();
-    }
+    tasks().run("transcribe", Policy.DROP_WHILE_RUNNING, "🧠 Transcribing...",
+            p -> transcribeAudioAgent.process(new TranscribeAudioIn()), // using stub DTO
+            out -> "✅ Transcription complete.",
+            "⚠️ Transcription failed: ");
 }
 
     @FXML
-    private void onSave(ActionEvent event) {
-    try {
-        statusLabel.setText("💾 Saving note...");
-        saveNoteAgent.run(new SaveNoteIn()); // using stub DTO
-        statusLabel.setText("✅ Note saved.");
-    } catch (Exception e) {
-        statusLabel.setText("⚠️ Save failed: " + e.getMessage());
-        e.printStackTrace();
+    private void onTranscribeAll(ActionEvent event) {
+    tasks().run("transcribe-all", Policy.DROP_WHILE_RUNNING, "🧠 Queueing transcriptions...",
+            p -> {
+                TranscriptionScheduler s = scheduler();
+                int queued = s.enqueueUntranscribed(0);
+                TranscriptionScheduler.Progress progress = s.progress();
+                Platform.runLater(() -> showProgress(progress));
+                return queued;
+            },
+            queued -> "🧠 Queued " + queued + " recording(s) for transcription.",
+            "⚠️ Could not queue transcriptions: ");
+}
+
+    @FXML
+    private void onCancelTranscriptions(ActionEvent event) {
+    tasks().cancel("transcribe");
+    tasks().cancel("transcribe-all");
+    TranscriptionScheduler s = scheduler;
+    if (s == null) return;
+    tasks().run("cancel-jobs", Policy.DROP_WHILE_RUNNING, "⏹ Cancelling transcriptions...",
+            p -> {
+                int cancelled = s.cancelAll();
+                TranscriptionScheduler.Progress progress = s.progress();
+                Platform.runLater(() -> showProgress(progress));
+                return cancelled;
+            },
+            cancelled -> "⏹ Cancelled " + cancelled + " transcription job(s).",
+            "⚠️ Cancel failed: ");
+}
+
+    /** Start the shared scheduler on first use and point its progress at this view. */
+    private TranscriptionScheduler scheduler() throws Exception {
+        synchronized (MainController.class) {
+            if (scheduler == null) {
+                NormalizedAudioCache normalized = new NormalizedAudioCache(NormalizedAudioCache.DEFAULT_DIR);
+                try (Connection conn = DatabaseManager.getConnection()) {
+                    TranscriptionJobDao.createTable(conn);
+                    // Resampled copies of recordings deleted since the last run.
+                    normalized.retainOnly(new RecordingDao(conn).findAudioPaths(false).values().stream().map(Paths::get).toList());
+                } catch (IOException e) {
+                    System.err.println("Could not clean up resampled audio: " + e.getMessage());
+                }
+                String bin = System.getenv("WHISPER_CPP_BIN");
+                String model = System.getenv("WHISPER_CPP_MODEL");
+                WhisperCppTranscriber cli = (bin == null || model == null)
+                        ? new WhisperCppTranscriber()
+                        : new WhisperCppTranscriber(Paths.get(bin), Paths.get(model));
+                String lib = System.getenv("WHISPER_LIB");
+                TranscriptionService transcriber = (lib == null || model == null) ? cli
+                        : WhisperTranscribers.select(Paths.get(lib), Paths.get(model), cli, System.err::println);
+                scheduler = new TranscriptionScheduler(DatabaseManager::getConnection,
+                        new NormalizingTranscriptionService(transcriber, normalized));
+                scheduler.start();
+            }
+        }
+        scheduler.setProgressListener(p -> Platform.runLater(() -> showProgress(p)));
+        return scheduler;
     }
+
+    private void showProgress(TranscriptionScheduler.Progress p) {
+        jobsProgress.setVisible(true);
+        jobsProgress.setManaged(true);
+        jobsProgress.setProgress(p.fraction());
+        jobsLabel.setText("Transcriptions: " + p);
+    }
+
+    @FXML
+    private void onSave(ActionEvent event) {
+    NoteWriteBuffer buffer = notes();
+    tasks().run("save", Policy.DROP_WHILE_RUNNING, "💾 Saving note...",
+            p -> {
+                buffer.flush();
+                return saveNoteAgent.process(new SaveNoteIn()); // using stub DTO
+            },
+            out -> "✅ Note saved.",
+            "⚠️ Save failed: ");
 }
 
     @FXML
     private void onBackToHome(ActionEvent event) {
         try {
+            tasks().cancelAll();
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/home.fxml"));
             Scene scene = new Scene(loader.load());
             Stage stage = (Stage) ((Button) event.getSource()).getScene().getWindow();
@@ -111,7 +325,7 @@ public class MainController {
             stage.setScene(scene);
         } catch (Exception e) {
             e.printStackTrace();
-            statusLabel.setText("Error returning to home: " + e.getMessage());
+            tasks().status("Error returning to home: " + e.getMessage());
         }
     }
 }
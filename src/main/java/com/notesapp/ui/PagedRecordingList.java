@@ -0,0 +1,111 @@
+package com.notesapp.ui;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.db.ConnectionSource;
+import com.notesapp.model.Recording;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+
+/**
+ * Recording list that loads itself a page at a time as the user scrolls.
+ * <p>
+ * Pages come from {@link RecordingDao#findPage} (keyset pagination, newest first) on a
+ * background executor. The list starts with one page; whenever a cell within one page of
+ * the end is shown, the next page is fetched and appended, so it is usually there before
+ * the user reaches it. Only rows scrolled past are ever loaded. Call from the FX thread.
+ */
+public final class PagedRecordingList {
+    public static final int DEFAULT_PAGE_SIZE = 200;
+
+    private final ConnectionSource db;
+    private final Executor executor;
+    private final int pageSize;
+    private final ObservableList<Recording> items = FXCollections.observableArrayList();
+    private Consumer<Throwable> onError = Throwable::printStackTrace;
+    private Long afterCreatedAt;
+    private Long afterId;
+    private boolean loading;
+    private boolean exhausted;
+    private long generation;   // bumped by reload(); pages of an older generation are dropped
+
+    public PagedRecordingList(ConnectionSource db, Executor executor) {
+        this(db, executor, DEFAULT_PAGE_SIZE);
+    }
+
+    public PagedRecordingList(ConnectionSource db, Executor executor, int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be > 0");
+        this.db = db;
+        this.executor = executor;
+        this.pageSize = pageSize;
+    }
+
+    /** The rows loaded so far; grows as pages arrive. */
+    public ObservableList<Recording> items() { return items; }
+
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError == null ? Throwable::printStackTrace : onError;
+    }
+
+    /** Show this list in {@code view} and fetch more whenever its last page comes into sight. */
+    public void attach(ListView<Recording> view) {
+        view.setItems(items);
+        view.setCellFactory(v -> new ListCell<>() {
+            @Override protected void updateItem(Recording r, boolean empty) {
+                super.updateItem(r, empty);
+                setText(empty || r == null ? null : r.getTitle());
+                // Only while the view shows this list (not, say, search results).
+                if (!empty && v.getItems() == items && getIndex() >= items.size() - pageSize) loadMore();
+            }
+        });
+        if (items.isEmpty()) loadMore();
+    }
+
+    /** Drop everything loaded and start again from the newest recording. */
+    public void reload() {
+        generation++;
+        items.clear();
+        afterCreatedAt = null;
+        afterId = null;
+        loading = false;
+        exhausted = false;
+        loadMore();
+    }
+
+    /** Fetch the next page unless one is already on its way or there are no more rows. */
+    public void loadMore() {
+        if (loading || exhausted) return;
+        loading = true;
+        long gen = generation;
+        Long fromCreated = afterCreatedAt, fromId = afterId;
+        executor.execute(() -> {
+            try (Connection conn = db.get()) {
+                List<Recording> page = new RecordingDao(conn).findPage(fromCreated, fromId, pageSize);
+                Platform.runLater(() -> append(gen, page));
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    if (gen != generation) return;
+                    loading = false;
+                    onError.accept(e);
+                });
+            }
+        });
+    }
+
+    private void append(long gen, List<Recording> page) {
+        if (gen != generation) return;
+        loading = false;
+        if (page.size() < pageSize) exhausted = true;
+        if (page.isEmpty()) return;
+        Recording last = page.get(page.size() - 1);
+        afterCreatedAt = RecordingDao.createdAtOf(last);
+        afterId = (long) last.getId();
+        items.addAll(page);
+    }
+}
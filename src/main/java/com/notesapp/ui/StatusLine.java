@@ -0,0 +1,54 @@
+package com.notesapp.ui;
+
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ObservableValue;
+
+/**
+ * The status text, shared by overlapping background actions.
+ * <p>
+ * While an action runs, the text is bound to that action's message. A bound property cannot
+ * be set, so text from anyone else (an older action finishing, an error callback) is held back
+ * and shown once the bound action is released. Call on the FX thread only.
+ */
+final class StatusLine {
+
+    private final StringProperty text;
+    private Object owner;     // whose message the text is bound to, or null
+    private String pending;   // shown when the owner is released
+
+    StatusLine(StringProperty text) {
+        this.text = text;
+    }
+
+    /** Show {@code message} until {@code owner} is released or another owner is bound. */
+    void bind(Object owner, ObservableValue<String> message) {
+        text.unbind();
+        text.bind(message);
+        this.owner = owner;
+        pending = null;   // the newer action speaks for itself
+    }
+
+    /**
+     * Unbind the text from {@code owner}, leaving its last message (or held-back text) on
+     * screen. Returns whether the text was showing {@code owner}.
+     */
+    boolean release(Object owner) {
+        if (this.owner != owner || owner == null) return false;
+        String last = pending != null ? pending : text.get();
+        text.unbind();
+        text.set(last);
+        this.owner = null;
+        pending = null;
+        return true;
+    }
+
+    /** Show {@code s} now, or when the action currently shown is released. Null is ignored. */
+    void show(String s) {
+        if (s == null) return;
+        if (text.isBound()) {
+            pending = s;
+        } else {
+            text.set(s);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.notesapp;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.SimpleBookmark;
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.db.ConnectionManager;
+import com.notesapp.export.BulkExporter;
+import com.notesapp.model.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkExporterTest {
+
+    @TempDir Path dir;
+    private ConnectionManager cm;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cm = ConnectionManager.open(dir.resolve("bulk.db"), 3);
+        try (Connection w = cm.writer()) {
+            RecordingDao rdao = new RecordingDao(w);
+            NoteDao ndao = new NoteDao(w);
+            TranscriptDao tdao = new TranscriptDao(w);
+            for (int i = 0; i < 12; i++) {
+                Recording r = new Recording("Lecture " + i, "/tmp/l" + i + ".wav", 60, String.valueOf(1000L * i));
+                r.setClassName(i % 3 == 0 ? "HIST-200" : "CPS-101");
+                rdao.insert(r);
+                ndao.upsertByRecordingId(r.getId(), "note " + i);
+                tdao.upsertByRecordingId(r.getId(), "transcript " + i);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cm.close();
+    }
+
+    @Test
+    void selectsByClassAndCreationRange() throws Exception {
+        try (Connection r = cm.reader()) {
+            RecordingDao dao = new RecordingDao(r);
+            assertEquals(4, dao.findMatching("HIST-200", null, null, null).size());
+            List<Recording> range = dao.findMatching("CPS-101", null, 2000L, 8000L);
+            assertEquals(List.of("Lecture 2", "Lecture 4", "Lecture 5", "Lecture 7"),
+                    range.stream().map(Recording::getTitle).toList());
+            assertEquals(0, dao.findMatching(null, "no-such-tag", null, null).size());
+            assertEquals(12, dao.findMatching(null, null, null, null).size());
+        }
+    }
+
+    @Test
+    void mergedPdfHasOneBookmarkPerRecordingInOrder() throws Exception {
+        List<Recording> selected;
+        try (Connection r = cm.reader()) {
+            selected = new RecordingDao(r).findMatching("CPS-101", null, null, null);
+        }
+        List<BulkExporter.Progress> seen = Collections.synchronizedList(new ArrayList<>());
+        BulkExporter exporter = new BulkExporter(cm::reader, 3);
+        exporter.setProgressListener(seen::add);
+        Path out = dir.resolve("out/term.pdf");
+        BulkExporter.Progress done = exporter.export(selected, out);
+
+        assertEquals(8, done.rendered());
+        assertEquals(8, seen.size(), "one progress report per recording");
+        assertTrue(done.bytes() > 0);
+        PdfReader pdf = new PdfReader(out.toString());
+        try {
+            assertEquals(8, pdf.getNumberOfPages());
+            List<Map<String, Object>> marks = SimpleBookmark.getBookmarkList(pdf);
+            assertEquals(8, marks.size());
+            for (int i = 0; i < 8; i++) {
+                assertEquals(selected.get(i).getTitle(), marks.get(i).get("Title"));
+                assertEquals((i + 1) + " Fit", marks.get(i).get("Page"));
+            }
+        } finally {
+            pdf.close();
+        }
+    }
+
+    @Test
+    void zipHasOneOrderedEntryPerRecording() throws Exception {
+        List<Recording> selected;
+        try (Connection r = cm.reader()) {
+            selected = new RecordingDao(r).findMatching(null, null, null, null);
+        }
+        Path out = dir.resolve("term.zip");
+        new BulkExporter(cm::reader, 4).export(selected, out);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(out))) {
+            for (ZipEntry e; (e = zip.getNextEntry()) != null; ) {
+                names.add(e.getName());
+                assertTrue(new String(zip.readAllBytes(), 0, 5).startsWith("%PDF-"));
+            }
+        }
+        assertEquals(12, names.size());
+        assertEquals("001_Lecture 0.pdf", names.get(0));
+        assertEquals("012_Lecture 11.pdf", names.get(11));
+        try (Stream<Path> left = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            assertTrue(left.noneMatch(p -> p.getFileName().toString().startsWith("bulk-export-")
+                    && Files.exists(p.resolve("0.pdf"))), "temporary parts are removed");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.notesapp;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.db.ConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionManagerTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void readersSeeCommittedWritesAndCannotWrite() throws Exception {
+        try (ConnectionManager cm = ConnectionManager.open(dir.resolve("pool.db"), 2)) {
+            try (Connection w = cm.writer()) {
+                long id = new RecordingDao(w).insert("Pooled", "/tmp/p.wav", 10L, 1L);
+                assertTrue(id > 0);
+            }
+            try (Connection r = cm.reader()) {
+                assertEquals("wal", pragma(r, "journal_mode"));
+                assertEquals("1", pragma(r, "foreign_keys"));
+                assertEquals(1, new RecordingDao(r).findAllModels().size(), "DAO should work on a read lease");
+                try (Statement st = r.createStatement()) {
+                    assertThrows(SQLException.class, () -> st.execute("DELETE FROM recordings"));
+                }
+            }
+        }
+    }
+
+    @Test
+    void readerIsNotBlockedByOpenWriteTransaction() throws Exception {
+        try (ConnectionManager cm = ConnectionManager.open(dir.resolve("wal.db"), 1)) {
+            try (Connection w = cm.writer()) {
+                RecordingDao dao = new RecordingDao(w);
+                dao.insert("Committed", "/tmp/c.wav", 0L, 1L);
+                w.setAutoCommit(false);
+                dao.insert("Pending", "/tmp/p.wav", 0L, 2L);
+
+                // Another thread reads while the write transaction is still open.
+                int seen = CompletableFuture.supplyAsync(() -> {
+                    try (Connection r = cm.reader()) {
+                        return new RecordingDao(r).findAllModels().size();
+                    } catch (SQLException e) {
+                        throw new RuntimeException(e);
+                    }
+                }).get(5, TimeUnit.SECONDS);
+                assertEquals(1, seen, "reader sees the last committed snapshot");
+            }
+            // Closing the lease rolled back the unfinished transaction.
+            try (Connection r = cm.reader()) {
+                assertEquals(1, new RecordingDao(r).findAllModels().size());
+                assertTrue(r.getAutoCommit());
+            }
+        }
+    }
+
+    @Test
+    void closedLeaseIsReturnedToPool() throws Exception {
+        try (ConnectionManager cm = ConnectionManager.open(dir.resolve("lease.db"), 1)) {
+            Connection first = cm.reader();
+            first.close();
+            assertTrue(first.isClosed());
+            assertThrows(SQLException.class, first::createStatement);
+            try (Connection again = cm.reader()) {
+                assertFalse(again.isClosed(), "the single pooled reader should be available again");
+            }
+        }
+    }
+
+    private static String pragma(Connection c, String name) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
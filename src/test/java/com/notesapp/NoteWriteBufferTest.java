@@ -0,0 +1,97 @@
+package com.notesapp;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.NoteWriteBuffer;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.db.ConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoteWriteBufferTest {
+
+    @TempDir Path dir;
+    private ConnectionManager cm;
+    private Path journal;
+    private long rid;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cm = ConnectionManager.open(dir.resolve("notes.db"), 2);
+        journal = dir.resolve("notes.journal");
+        try (Connection conn = cm.writer()) {
+            rid = new RecordingDao(conn).insert("Lecture", "/tmp/l.wav", 0L, 1L);
+            NoteDao.createTable(conn);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cm.close();
+    }
+
+    @Test
+    void editsAreCoalescedIntoOneWritePerFlush() throws Exception {
+        AtomicInteger leases = new AtomicInteger();
+        try (NoteWriteBuffer notes = new NoteWriteBuffer(() -> { leases.incrementAndGet(); return cm.writer(); },
+                journal, Duration.ofHours(1), Duration.ZERO)) {
+            notes.start();
+            leases.set(0);
+            for (String text : new String[]{"h", "he", "hel", "hell", "hello"}) notes.edit(rid, text);
+            assertEquals("hello", notes.pending(rid).orElseThrow());
+            assertNull(content(rid), "nothing is written before a flush");
+
+            assertEquals(1, notes.flush());
+            assertEquals(1, leases.get(), "one connection, one transaction per flush");
+            assertEquals("hello", content(rid));
+            assertEquals(0, notes.pendingCount());
+            assertFalse(Files.exists(journal), "journal is dropped once everything is stored");
+        }
+    }
+
+    @Test
+    void closeFlushesPendingEdits() throws Exception {
+        NoteWriteBuffer notes = new NoteWriteBuffer(cm::writer, journal);
+        notes.start();
+        notes.edit(rid, "written on exit");
+        notes.close();
+        assertEquals("written on exit", content(rid));
+    }
+
+    @Test
+    void journalIsReplayedAfterACrash() throws Exception {
+        // A buffer whose database is unreachable stands in for a process that dies before flushing.
+        NoteWriteBuffer crashed = new NoteWriteBuffer(() -> { throw new SQLException("down"); },
+                journal, Duration.ofHours(1), Duration.ZERO);
+        crashed.setOnError(e -> {});
+        crashed.edit(rid, "typed before the crash");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Files.exists(journal) && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertTrue(Files.exists(journal), "edits reach the journal without a flush");
+        // Stops its thread; the final flush fails like the others, so the journal stays.
+        assertThrows(SQLException.class, crashed::close);
+        assertTrue(Files.exists(journal));
+
+        try (NoteWriteBuffer restarted = new NoteWriteBuffer(cm::writer, journal)) {
+            assertEquals(1, restarted.start());
+            assertEquals("typed before the crash", content(rid));
+            assertFalse(Files.exists(journal));
+        }
+    }
+
+    private String content(long recordingId) throws Exception {
+        try (Connection conn = cm.reader()) {
+            return new NoteDao(conn).findByRecordingId(recordingId).map(NoteDao.NoteRow::getContent).orElse(null);
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package com.notesapp;
+import com.notesapp.export.PdfTemplate;
 import com.notesapp.service.PdfExportService;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import java.nio.file.*;
 
 public class PdfExportServiceTest {
+  @TempDir Path dir;
   @Test void exportCreatesFile() throws Exception {
-    PdfExportService svc = new PdfExportService();
+    PdfExportService svc = new PdfExportService(PdfTemplate.SIDE_BY_SIDE, dir.resolve("exports"));
     Path p = svc.exportSideBySide("JUnit Sample","CPS-101","2025-09-01T12:00:00Z","Transcript text","Notes text");
     Assertions.assertTrue(Files.exists(p));
-    // Cleanup optional:
-    // Files.deleteIfExists(p);
+    Assertions.assertTrue(p.startsWith(dir));
   }
 }
@@ -0,0 +1,168 @@
+package com.notesapp;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.export.ParagraphReader;
+import com.notesapp.export.PdfExporter;
+import com.notesapp.export.PdfTemplate;
+import com.notesapp.service.PdfExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfStreamingExportTest {
+
+    @TempDir Path dir;
+    private Connection conn;
+    private long rid;
+    private String transcript;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        rid = new RecordingDao(conn).insert("Marathon lecture", "/tmp/m.wav", 0L, 1L);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3000; i++) sb.append("Segment ").append(i).append(" – café ☕ 🎓 notes\n");
+        transcript = sb.toString();
+        new TranscriptDao(conn).upsertByRecordingId(rid, transcript);
+        new NoteDao(conn).upsertByRecordingId(rid, "first note\n\nsecond note");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Test
+    void chunkedReaderReturnsTheWholeTextIncludingSurrogatePairs() throws Exception {
+        StringWriter out = new StringWriter();
+        try (Reader r = new com.notesapp.dao.ChunkedTextReader(conn, "transcripts", "text", "recording_id", rid, 97, 101)) {
+            r.transferTo(out);
+        }
+        assertEquals(transcript, out.toString());
+        try (Reader missing = new TranscriptDao(conn).openTextReader(rid + 1)) {
+            assertEquals(-1, missing.read());
+        }
+    }
+
+    @Test
+    void chunkedReaderFetchesBoundedSlicesHoweverLongItIs() throws Exception {
+        String big = "Minute of lecture – naïve café ☕ 🎓\n".repeat(120_000);   // about 4.6 MB of UTF-8
+        int bytes = big.getBytes(java.nio.charset.StandardCharsets.UTF_8).length;
+        new TranscriptDao(conn).upsertByRecordingId(rid, big);
+        AtomicInteger queries = new AtomicInteger();
+        AtomicInteger largest = new AtomicInteger();
+        Connection counting = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, m, args) -> {
+                    Object result = invoke(conn, m, args);
+                    if (!m.getName().equals("prepareStatement")) return result;
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                            (p, sm, sargs) -> {
+                                Object rs = invoke(result, sm, sargs);
+                                if (!sm.getName().equals("executeQuery")) return rs;
+                                queries.incrementAndGet();
+                                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                                        (r, rm, rargs) -> {
+                                            Object v = invoke(rs, rm, rargs);
+                                            if (v instanceof byte[] b) largest.accumulateAndGet(b.length, Math::max);
+                                            return v;
+                                        });
+                            });
+                });
+
+        StringWriter out = new StringWriter();
+        long chars = 0;
+        try (Reader r = new com.notesapp.dao.ChunkedTextReader(counting, "transcripts", "text", "recording_id", rid, 4096, 256 * 1024)) {
+            char[] buf = new char[1000];
+            for (int n; (n = r.read(buf)) > 0; ) {
+                chars += n;
+                if (chars < 10_000) out.write(buf, 0, n);
+            }
+        }
+        assertEquals(big.length(), chars);
+        assertTrue(big.startsWith(out.toString()));
+        // No more than a slice of the value reaches the heap at once, in few queries.
+        assertEquals(256 * 1024, largest.get());
+        assertEquals(bytes / (256 * 1024) + 1, queries.get());
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Test
+    void paragraphsAreLinesAndLongLinesAreBroken() throws Exception {
+        ParagraphReader p = new ParagraphReader(new StringReader("one\r\n\n  two  \n" + "word ".repeat(100)), 60);
+        assertEquals("one", p.next());
+        assertEquals("two", p.next());
+        int pieces = 0;
+        for (String s; (s = p.next()) != null; pieces++) {
+            assertTrue(s.length() <= 60 && s.startsWith("word") && s.endsWith("word"), s);
+        }
+        assertTrue(pieces >= 9);
+    }
+
+    @Test
+    void streamingExportWritesEveryParagraphAcrossPages() throws Exception {
+        Path out = dir.resolve("long.pdf");
+        try (Reader note = new NoteDao(conn).openContentReader(rid);
+             Reader text = new TranscriptDao(conn).openTextReader(rid)) {
+            PdfExporter.export("Marathon lecture", note, text, out);
+        }
+        PdfReader pdf = new PdfReader(out.toString());
+        try {
+            assertTrue(pdf.getNumberOfPages() > 20, "pages: " + pdf.getNumberOfPages());
+            String last = new PdfTextExtractor(pdf).getTextFromPage(pdf.getNumberOfPages());
+            assertTrue(last.contains("Segment 2999"), last);
+        } finally {
+            pdf.close();
+        }
+    }
+
+    @Test
+    void sideBySideExportSplitsRowsAcrossPages() throws Exception {
+        Path out;
+        try (Reader note = new NoteDao(conn).openContentReader(rid);
+             Reader text = new TranscriptDao(conn).openTextReader(rid)) {
+            out = new PdfExportService(PdfTemplate.SIDE_BY_SIDE, dir)
+                    .exportSideBySide("Marathon", "CPS-101", "2025-09-01", text, note);
+        }
+        assertTrue(out.startsWith(dir));
+        PdfReader pdf = new PdfReader(out.toString());
+        try {
+            assertTrue(pdf.getNumberOfPages() > 20);
+            String first = new PdfTextExtractor(pdf).getTextFromPage(1);
+            assertTrue(first.contains("second note"), first);
+            for (int page = 1; page <= pdf.getNumberOfPages(); page++) {
+                String text = new PdfTextExtractor(pdf).getTextFromPage(page);
+                assertEquals(1, text.split("Transcript Notes", -1).length - 1, "header once on page " + page);
+            }
+            String last = new PdfTextExtractor(pdf).getTextFromPage(pdf.getNumberOfPages());
+            assertTrue(last.contains("Segment 2999"), last);
+        } finally {
+            pdf.close();
+        }
+    }
+}
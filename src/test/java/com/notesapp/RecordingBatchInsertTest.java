@@ -0,0 +1,52 @@
+package com.notesapp;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.db.UnitOfWork;
+import com.notesapp.model.Recording;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingBatchInsertTest {
+
+    @Test
+    void insertAllReturnsIdsInInputOrder() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            var dao = new RecordingDao(conn);
+            dao.insert("Existing", "/tmp/e.wav", 0L, 1L);
+
+            List<Recording> rows = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                rows.add(new Recording("Lecture " + i, "/tmp/lec" + i + ".wav", i % 90, String.valueOf(1_000L + i)));
+            }
+            List<Long> ids = dao.insertBatch(rows.iterator(), 1_000);
+
+            assertEquals(10_000, ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                assertEquals(rows.get(i).getId(), ids.get(i).intValue(), "id set on the model");
+                if (i > 0) assertEquals(ids.get(i - 1) + 1, ids.get(i), "ids are consecutive");
+            }
+            Recording last = dao.findById(ids.get(9_999)).orElseThrow();
+            assertEquals("Lecture 9999", last.getTitle());
+            assertEquals(10_001, dao.findAllModels().size());
+        }
+    }
+
+    @Test
+    void batchInsideOuterUnitOfWorkIsRolledBackWithIt() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            var dao = new RecordingDao(conn);
+            assertThrows(SQLException.class, () -> UnitOfWork.inTransaction(conn, uow -> {
+                dao.insertAll(List.of(new Recording("A", "/a.wav", 0, "1"), new Recording("B", "/b.wav", 0, "2")));
+                throw new SQLException("abort import");
+            }));
+            assertTrue(dao.findAllModels().isEmpty());
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.notesapp;
 import com.notesapp.db.Database;
+import com.notesapp.db.DatabaseManager;
 import com.notesapp.dao.RecordingDao;
 import com.notesapp.model.Recording;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.time.OffsetDateTime;
 
 public class RecordingClassFieldTest {
+  @TempDir Path dir;
   private Connection conn; private RecordingDao dao;
 
-  @BeforeEach void setup() throws Exception { conn = Database.get(); dao = new RecordingDao(conn); }
+  @BeforeEach void setup() throws Exception {
+    DatabaseManager.useFile(dir.resolve("app.db"));
+    conn = Database.get();
+    dao = new RecordingDao(conn);
+  }
+  @AfterEach void tearDown() throws Exception {
+    conn.close();
+    DatabaseManager.useFile(DatabaseManager.DEFAULT_FILE);
+  }
 
   @Test void updateAndReadClassName() throws Exception {
     Recording r = dao.insert(new Recording("Chem Lecture","/tmp/chem.wav",0,OffsetDateTime.now().toString()));
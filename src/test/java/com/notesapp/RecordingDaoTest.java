@@ -1,9 +1,12 @@
 package com.notesapp;
 import com.notesapp.db.Database; import com.notesapp.dao.*; import com.notesapp.model.*;
-import org.junit.jupiter.api.*; import java.sql.*; import java.time.*;
+import com.notesapp.db.DatabaseManager;
+import org.junit.jupiter.api.*; import org.junit.jupiter.api.io.TempDir; import java.nio.file.Path; import java.sql.*; import java.time.*;
 public class RecordingDaoTest {
+  @TempDir Path dir;
   private Connection conn; private RecordingDao dao;
-  @BeforeEach void setup() throws Exception { conn=Database.get(); dao=new RecordingDao(conn); }
+  @BeforeEach void setup() throws Exception { DatabaseManager.useFile(dir.resolve("app.db")); conn=Database.get(); dao=new RecordingDao(conn); }
+  @AfterEach void tearDown() throws Exception { conn.close(); DatabaseManager.useFile(DatabaseManager.DEFAULT_FILE); }
   @Test void insertAndFetch() throws Exception {
     Recording r=dao.insert(new Recording("Test","/tmp/a.wav",0,OffsetDateTime.now().toString()));
     Assertions.assertTrue(dao.findById(r.getId()).isPresent());
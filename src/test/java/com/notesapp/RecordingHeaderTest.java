@@ -0,0 +1,61 @@
+package com.notesapp;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingHeaderTest {
+
+    private Connection conn;
+    private RecordingDao dao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        dao = new RecordingDao(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Test
+    void headerReportsAttachmentsWithoutTheirText() throws Exception {
+        long bare = dao.insert("Bare", "/tmp/b.wav", 0L, 1L);
+        assertFalse(dao.findHeader(bare).orElseThrow().hasNote(), "no notes table yet");
+
+        long full = dao.insert("Full", "/tmp/f.wav", 0L, 2L);
+        dao.setTagForRecording("Full", "exam");
+        new NoteDao(conn).upsertByRecordingId(full, "remember the formula sheet");
+        new TranscriptDao(conn).upsertByRecordingId(full, "x".repeat(100_000));
+
+        RecordingDao.Header h = dao.findHeader(full).orElseThrow();
+        assertEquals("Full", h.getTitle());
+        assertEquals("exam", h.getTag());
+        assertTrue(h.hasNote());
+        assertTrue(h.hasTranscript());
+        RecordingDao.Header b = dao.findHeader(bare).orElseThrow();
+        assertFalse(b.hasNote());
+        assertFalse(b.hasTranscript());
+        assertTrue(dao.findHeader(9999).isEmpty());
+
+        assertTrue(new NoteDao(conn).existsByRecordingId(full));
+        assertFalse(new NoteDao(conn).existsByRecordingId(bare));
+        try (Reader r = new TranscriptDao(conn).openTextReader(full)) {
+            char[] buf = new char[4096];
+            long n = 0;
+            for (int k; (k = r.read(buf)) > 0; ) n += k;
+            assertEquals(100_000, n, "bodies are streamed on demand");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.notesapp;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.model.Recording;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingMapperTest {
+
+    @Test
+    void modelRoundTripsThroughInsertAndFind() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            var dao = new RecordingDao(conn);
+
+            Recording in = new Recording("Physics", "/tmp/phys.wav", 95, "1700000000000");
+            in.setClassName("PHYS-101");
+            Recording saved = dao.insert(in);
+            assertTrue(saved.getId() > 0, "generated id should be set on the model");
+
+            Recording got = dao.findById(saved.getId()).orElseThrow();
+            assertEquals(saved.getId(), got.getId());
+            assertEquals("Physics", got.getTitle());
+            assertEquals("/tmp/phys.wav", got.getPath());
+            assertEquals(95, got.getDurationSec());
+            assertEquals("1700000000000", got.getRecordedAt());
+            assertEquals("PHYS-101", got.getClassName());
+        }
+    }
+
+    @Test
+    void nonNumericRecordedAtFallsBackToNow() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            var dao = new RecordingDao(conn);
+            long before = System.currentTimeMillis();
+            Recording saved = dao.insert(new Recording("ISO", "/tmp/iso.wav", 0, "2025-09-01T12:00:00Z"));
+
+            long stored = Long.parseLong(dao.findById(saved.getId()).orElseThrow().getRecordedAt());
+            assertTrue(stored >= before, "ISO timestamps are not parsed; insert time is stored instead");
+            assertNull(dao.findById(saved.getId()).orElseThrow().getClassName());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.notesapp;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.model.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingPageTest {
+
+    private Connection conn;
+    private RecordingDao dao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        dao = new RecordingDao(conn);
+        List<Recording> rows = new ArrayList<>();
+        // 5 recordings share each timestamp, so ties must be broken by id.
+        for (int i = 0; i < 1000; i++) rows.add(new Recording("Rec " + i, "/tmp/" + i + ".wav", 1, String.valueOf(1_000L * (i / 5))));
+        dao.insertAll(rows);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Test
+    void pagesCoverEveryRowOnceNewestFirst() throws Exception {
+        List<Recording> seen = new ArrayList<>();
+        Long afterCreated = null, afterId = null;
+        int pages = 0;
+        while (true) {
+            List<Recording> page = dao.findPage(afterCreated, afterId, 64);
+            pages++;
+            seen.addAll(page);
+            if (page.size() < 64) break;
+            Recording last = page.get(page.size() - 1);
+            afterCreated = RecordingDao.createdAtOf(last);
+            afterId = (long) last.getId();
+        }
+        assertEquals(16, pages);
+        assertEquals(1000, seen.size());
+        assertEquals(dao.count(), seen.size());
+        Set<Integer> ids = new HashSet<>();
+        for (Recording r : seen) assertTrue(ids.add(r.getId()), "duplicate id " + r.getId());
+        for (int i = 1; i < seen.size(); i++) {
+            Recording a = seen.get(i - 1), b = seen.get(i);
+            long ca = RecordingDao.createdAtOf(a), cb = RecordingDao.createdAtOf(b);
+            assertTrue(ca > cb || (ca == cb && a.getId() > b.getId()), "out of order at " + i);
+        }
+        assertEquals("Rec 999", seen.get(0).getTitle());
+    }
+
+    @Test
+    void deepPageIsAnIndexRangeScanWithoutSorting() throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN SELECT id FROM recordings "
+                     + "WHERE (created_at, id) < (5000, 20) ORDER BY created_at DESC, id DESC LIMIT 64")) {
+            while (rs.next()) plan.append(rs.getString("detail")).append('\n');
+        }
+        assertTrue(plan.toString().contains("idx_recordings_created_id"), plan.toString());
+        assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+    }
+}
@@ -0,0 +1,55 @@
+package com.notesapp;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.db.SchemaCache;
+import com.notesapp.model.Recording;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingSchemaTest {
+
+    @Test
+    void legacyColumnVariantsAreResolvedOnce() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            // Pre-DAO layout: 'path', 'duration', 'recorded_at' instead of the modern names
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE recordings(id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT NOT NULL, "
+                        + "path TEXT, duration INTEGER NOT NULL DEFAULT 0, recorded_at INTEGER NOT NULL DEFAULT 0)");
+            }
+            var dao = new RecordingDao(conn);
+            assertTrue(SchemaCache.hasColumn(conn, "recordings", "tag"), "DAO should have added the tag column");
+            assertFalse(SchemaCache.hasColumn(conn, "recordings", "audio_path"), "legacy path column should be reused");
+
+            long a = dao.insert("Legacy A", "/tmp/a.wav", 1_000L, 1L);
+            dao.insert("Legacy B", "/tmp/b.wav", 2_000L, 2L);
+
+            List<Recording> all = dao.findAllModels();
+            assertEquals(2, all.size());
+            assertEquals("Legacy B", all.get(0).getTitle(), "newest first");
+            assertEquals("/tmp/a.wav", dao.findById(a).orElseThrow().getPath());
+        }
+    }
+
+    @Test
+    void invalidateExposesColumnsAddedByDdl() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            RecordingDao.createTable(conn);
+            assertFalse(SchemaCache.hasColumn(conn, "recordings", "extra"));
+
+            try (Statement st = conn.createStatement()) {
+                st.execute("ALTER TABLE recordings ADD COLUMN extra TEXT");
+            }
+            long before = SchemaCache.generation();
+            SchemaCache.invalidate();
+
+            assertTrue(SchemaCache.generation() > before);
+            assertTrue(SchemaCache.hasColumn(conn, "recordings", "extra"));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.notesapp;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.SearchCache;
+import com.notesapp.dao.SearchIndexDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.db.SchemaCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchCacheTest {
+
+    private Connection conn;
+    private RecordingDao rdao;
+    private SearchIndexDao index;
+    private SearchCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        rdao = new RecordingDao(conn);
+        index = new SearchIndexDao(conn);
+        cache = new SearchCache();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Test
+    void repeatedQueryIsServedFromCache() throws Exception {
+        rdao.insert("Thermodynamics", "/tmp/t.wav", 0L, 1L);
+
+        List<SearchIndexDao.SearchHit> first = cache.search(conn, "thermo", 10);
+        assertSame(first, cache.search(conn, "  thermo ", 10), "same normalized query hits the cache");
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+
+        cache.search(conn, "thermo", 5);
+        assertEquals(2, cache.missCount(), "a different limit is a different entry");
+    }
+
+    @Test
+    void everyIndexedWriteInvalidates() throws Exception {
+        long rid = rdao.insert("Lecture", "/tmp/l.wav", 0L, 1L);
+        assertTrue(cache.search(conn, "entropy", 10).isEmpty());
+
+        long v = index.version();
+        new TranscriptDao(conn).upsertByRecordingId(rid, "entropy always increases");
+        assertTrue(index.version() > v);
+        assertEquals(1, cache.search(conn, "entropy", 10).size(), "transcript write must not leave a stale miss");
+
+        new NoteDao(conn).upsertByRecordingId(rid, "revise the second law");
+        assertEquals(1, cache.search(conn, "second", 10).size());
+
+        rdao.deleteById(rid);
+        assertTrue(cache.search(conn, "entropy", 10).isEmpty(), "deleted recording must leave the cache");
+        assertEquals(0, cache.hitCount());
+    }
+
+    @Test
+    void indexWithoutVersionTableIsUpgraded() throws Exception {
+        long rid = rdao.insert("Old index", "/tmp/o.wav", 0L, 1L);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE search_index_version");
+        }
+        SchemaCache.invalidate();
+
+        SearchIndexDao.createTable(conn);
+        assertEquals(1, cache.search(conn, "old", 10).size(), "existing rows stay indexed");
+        long v = index.version();
+        new NoteDao(conn).upsertByRecordingId(rid, "triggers were replaced");
+        assertTrue(index.version() > v, "upgraded triggers bump the version");
+        assertEquals(1, cache.search(conn, "replaced", 10).size());
+    }
+}
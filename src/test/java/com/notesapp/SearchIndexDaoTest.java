@@ -0,0 +1,137 @@
+package com.notesapp;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.SearchIndexDao;
+import com.notesapp.dao.TranscriptDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchIndexDaoTest {
+
+    private Connection conn;
+    private RecordingDao rdao;
+    private NoteDao ndao;
+    private TranscriptDao tdao;
+    private SearchIndexDao index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        rdao = new RecordingDao(conn);
+        ndao = new NoteDao(conn);
+        tdao = new TranscriptDao(conn);
+        index = new SearchIndexDao(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Test
+    void findsTranscriptWordsWithHighlightedSnippet() throws Exception {
+        long rid = rdao.insert("Lecture 3", "/tmp/l3.wav", 0L, 1L);
+        tdao.upsertByRecordingId(rid, "today we cover eigenvalues and eigenvectors of symmetric matrices");
+
+        List<SearchIndexDao.SearchHit> hits = index.search("eigenvalues", 10);
+        assertEquals(1, hits.size());
+        assertEquals(rid, hits.get(0).getRecordingId());
+        assertTrue(hits.get(0).getSnippet().contains("[eigenvalues]"), hits.get(0).getSnippet());
+    }
+
+    @Test
+    void prefixMatchAndTitleOutranksTranscript() throws Exception {
+        long inTranscript = rdao.insert("Misc", "/tmp/m.wav", 0L, 1L);
+        tdao.upsertByRecordingId(inTranscript, "a short remark about photosynthesis");
+        long inTitle = rdao.insert("Photosynthesis basics", "/tmp/p.wav", 0L, 2L);
+
+        List<SearchIndexDao.SearchHit> hits = index.search("photo", 10);
+        assertEquals(List.of(inTitle, inTranscript), hits.stream().map(SearchIndexDao.SearchHit::getRecordingId).toList());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() throws Exception {
+        long rid = rdao.insert("Meeting", "/tmp/m.wav", 0L, 1L);
+        ndao.upsertByRecordingId(rid, "discuss budget");
+        assertEquals(1, index.search("budget", 10).size());
+
+        ndao.upsertByRecordingId(rid, "discuss hiring");
+        assertTrue(index.search("budget", 10).isEmpty(), "old note text must leave the index");
+        assertEquals(1, index.search("hiring", 10).size());
+
+        rdao.setTagForRecording("Meeting", "quarterly");
+        assertEquals(List.of("Meeting"), rdao.searchByKeyword("quarterly"));
+
+        rdao.deleteById(rid);
+        assertTrue(index.search("hiring", 10).isEmpty());
+        assertTrue(index.search("meeting", 10).isEmpty());
+    }
+
+    @Test
+    void existingRowsAreBackfilledAndOperatorsAreEscaped() throws Exception {
+        try (Connection fresh = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            long rid = new RecordingDao(fresh).insert("Before index", "/tmp/b.wav", 0L, 1L);
+            new NoteDao(fresh).upsertByRecordingId(rid, "written before the index existed");
+            SearchIndexDao late = new SearchIndexDao(fresh);
+            assertEquals(1, late.search("existed", 10).size());
+            assertTrue(late.search("\"  OR NEAR( *", 10).isEmpty(), "operator-only input is not a query");
+        }
+        assertEquals("\"a\"* \"OR\"* \"b\"*", SearchIndexDao.toMatchQuery("a OR-b"), "operators become plain words");
+    }
+
+    @Test
+    void everyWordMustMatchButMayComeFromDifferentSources() throws Exception {
+        long both = rdao.insert("Thermodynamics", "/tmp/t.wav", 0L, 1L);
+        ndao.upsertByRecordingId(both, "entropy worked example");
+        long titleOnly = rdao.insert("Thermodynamics again", "/tmp/t2.wav", 0L, 2L);
+        long noteOnly = rdao.insert("Misc", "/tmp/m.wav", 0L, 3L);
+        ndao.upsertByRecordingId(noteOnly, "entropy");
+
+        assertEquals(List.of(both), ids(index.search("thermo entropy", 10)));
+        assertEquals(List.of(both, titleOnly), ids(index.search("thermo", 10)).stream().sorted().toList());
+        assertEquals(List.of(both, noteOnly), ids(index.search("entropy", 10)).stream().sorted().toList());
+    }
+
+    @Test
+    void aNoteWriteReplacesOnlyTheNoteRow() throws Exception {
+        long rid = rdao.insert("Lecture", "/tmp/l.wav", 0L, 1L);
+        tdao.upsertByRecordingId(rid, "a long transcript about kinematics");
+        ndao.upsertByRecordingId(rid, "first draft");
+        try (Statement st = conn.createStatement()) {
+            assertEquals(List.of(rid * 4, rid * 4 + 1, rid * 4 + 2), rowids(st));
+            // Mark the transcript row: a reindex of the whole recording would drop the mark.
+            st.execute("UPDATE search_sources SET tag = 'marked' WHERE rowid = " + (rid * 4 + 1));
+            ndao.upsertByRecordingId(rid, "second draft");
+            try (ResultSet rs = st.executeQuery("SELECT tag FROM search_sources WHERE rowid = " + (rid * 4 + 1))) {
+                assertEquals("marked", rs.getString(1));
+            }
+            assertEquals(List.of(rid * 4, rid * 4 + 1, rid * 4 + 2), rowids(st));
+        }
+        assertEquals(1, index.search("second kinematics", 10).size());
+        assertTrue(index.search("first", 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<SearchIndexDao.SearchHit> hits) {
+        return hits.stream().map(SearchIndexDao.SearchHit::getRecordingId).toList();
+    }
+
+    private static List<Long> rowids(Statement st) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = st.executeQuery("SELECT rowid FROM search_sources ORDER BY rowid")) {
+            while (rs.next()) ids.add(rs.getLong(1));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,103 @@
+package com.notesapp;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import com.notesapp.transcription.TranscriptSegment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranscriptSegmentDaoTest {
+
+    private Connection conn;
+    private RecordingDao rdao;
+    private TranscriptSegmentDao dao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        rdao = new RecordingDao(conn);
+        dao = new TranscriptSegmentDao(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    /** One 10-second segment per index: segment i covers [i*10s, i*10s + 10s). */
+    private static List<TranscriptSegment> lecture(int from, int to) {
+        List<TranscriptSegment> out = new ArrayList<>();
+        for (int i = from; i < to; i++) out.add(new TranscriptSegment(i * 10_000L, (i + 1) * 10_000L, "s" + i));
+        return out;
+    }
+
+    private static List<String> texts(List<TranscriptSegment> segments) {
+        return segments.stream().map(TranscriptSegment::getText).toList();
+    }
+
+    @Test
+    void rangeReadsReturnOverlappingSegmentsOnly() throws Exception {
+        long rid = rdao.insert("Long lecture", "/tmp/l.wav", 0L, 1L);
+        dao.append(rid, lecture(0, 200));
+
+        // 20:00 to 20:25 falls in segments 120 (20:00-20:10), 121 and 122 (20:20-20:30).
+        assertEquals(List.of("s120", "s121", "s122"), texts(dao.findRange(rid, 1_200_000, 1_225_000)));
+        assertEquals(List.of("s0"), texts(dao.findRange(rid, 0, 1)));
+        assertTrue(dao.findRange(rid, 5_000_000, 6_000_000).isEmpty());
+    }
+
+    @Test
+    void appendContinuesNumberingAndPagesFollowIt() throws Exception {
+        long rid = rdao.insert("Streamed", "/tmp/s.wav", 0L, 1L);
+        assertEquals(0, dao.append(rid, lecture(0, 5)));
+        assertEquals(5, dao.append(rid, lecture(5, 8)));
+        assertEquals(8, dao.count(rid));
+
+        assertEquals(List.of("s3", "s4", "s5"), texts(dao.findPage(rid, 3, 3)));
+        assertEquals(List.of("s6", "s7"), texts(dao.findPage(rid, 6, 3)));
+        List<String> streamed = new ArrayList<>();
+        dao.forEach(rid, s -> streamed.add(s.getText()));
+        assertEquals(texts(lecture(0, 8)), streamed);
+
+        dao.replaceAll(rid, lecture(0, 2));
+        assertEquals(2, dao.count(rid));
+        rdao.deleteById(rid);
+        assertEquals(0, dao.count(rid), "segments go with their recording");
+    }
+
+    @Test
+    void transcriptReadersUseSegmentsWhenThereAreAny() throws Exception {
+        long rid = rdao.insert("Paged", "/tmp/p.wav", 0L, 1L);
+        TranscriptDao transcripts = new TranscriptDao(conn);
+        transcripts.upsertByRecordingId(rid, "typed text");
+        assertEquals("typed text", read(transcripts.openTextReader(rid)));
+
+        // More than one page of segments, joined one per line as the transcript is stored.
+        List<TranscriptSegment> segments = lecture(0, 600);
+        String text = String.join("\n", texts(segments));
+        transcripts.upsertByRecordingId(rid, text);
+        dao.replaceAll(rid, segments);
+        assertEquals(text, read(dao.openTextReader(rid)));
+        assertEquals(text, read(transcripts.openTextReader(rid)));
+        assertEquals("", read(dao.openTextReader(rid + 1)));
+    }
+
+    private static String read(Reader r) throws Exception {
+        try (r) {
+            StringWriter out = new StringWriter();
+            r.transferTo(out);
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.notesapp;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.db.UnitOfWork;
+import com.notesapp.transcription.TranscriptionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnitOfWorkTest {
+
+    private Connection conn;
+    private RecordingDao rdao;
+    private NoteDao ndao;
+    private TranscriptDao tdao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        rdao = new RecordingDao(conn);
+        ndao = new NoteDao(conn);
+        tdao = new TranscriptDao(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Test
+    void closeWithoutCommitRollsBack() throws Exception {
+        try (UnitOfWork uow = UnitOfWork.begin(conn)) {
+            new RecordingDao(uow.connection()).insert("Discarded", "/tmp/d.wav", 0L, 1L);
+        }
+        assertTrue(conn.getAutoCommit(), "autocommit restored after the unit of work");
+        assertTrue(rdao.findAllModels().isEmpty());
+
+        long rid = UnitOfWork.inTransaction(conn, uow -> rdao.insert("Kept", "/tmp/k.wav", 0L, 1L));
+        assertTrue(rdao.findById(rid).isPresent());
+    }
+
+    @Test
+    void exceptionInsideInTransactionRollsBackEverything() throws Exception {
+        assertThrows(SQLException.class, () -> UnitOfWork.inTransaction(conn, uow -> {
+            long rid = rdao.insert("Half", "/tmp/h.wav", 0L, 1L);
+            ndao.upsertByRecordingId(rid, "note");
+            throw new SQLException("boom");
+        }));
+        assertTrue(rdao.findAllModels().isEmpty());
+    }
+
+    @Test
+    void nestedUnitRollsBackToItsSavepointOnly() throws Exception {
+        try (UnitOfWork outer = UnitOfWork.begin(conn)) {
+            long rid = rdao.insert("Outer", "/tmp/o.wav", 0L, 1L);
+            try (UnitOfWork inner = UnitOfWork.begin(conn)) {
+                assertTrue(inner.isNested());
+                ndao.upsertByRecordingId(rid, "inner note");
+                // no commit: inner work is undone on close
+            }
+            Savepoint sp = outer.savepoint("transcript");
+            tdao.upsertByRecordingId(rid, "draft");
+            outer.rollbackTo(sp);
+            tdao.upsertByRecordingId(rid, "final");
+            outer.commit();
+        }
+        var rec = rdao.findAllModels();
+        assertEquals(1, rec.size());
+        long rid = rec.get(0).getId();
+        assertTrue(ndao.findByRecordingId(rid).isEmpty(), "nested work should have been rolled back");
+        assertEquals("final", tdao.findByRecordingId(rid).orElseThrow().getText());
+    }
+
+    @Test
+    void transcribeAndStoreIsAtomic() throws Exception {
+        long rid = rdao.insert("Atomic", "/tmp/a.wav", 0L, 1L);
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP TABLE notes"); // make the note-stub write fail
+        }
+        var manager = new TranscriptionManager(audio -> "some transcript", ndao, tdao);
+        assertThrows(SQLException.class, () -> manager.transcribeAndStore(rid, Path.of("/tmp/a.wav")));
+        assertTrue(tdao.findByRecordingId(rid).isEmpty(), "transcript must not be committed without its note");
+    }
+}
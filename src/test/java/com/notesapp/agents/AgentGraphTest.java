@@ -0,0 +1,147 @@
+package com.notesapp.agents;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AgentGraphTest {
+
+    @Test
+    void fansOutAndInAndReportsEveryLeafOutput() throws Exception {
+        List<AgentResult<?>> results = Collections.synchronizedList(new ArrayList<>());
+        try (AgentGraph<Integer> graph = new AgentGraph<>(4)) {
+            var doubled = graph.input().then(Agent.of("double", (Integer i) -> i * 2), 3);
+            var plusOne = doubled.then(Agent.of("plusOne", (Integer i) -> i + 1), 2);
+            var negated = doubled.then(Agent.of("negate", (Integer i) -> -i), 2);
+            graph.join(Agent.of("label", (Integer i) -> "v" + i), 2, List.of(plusOne, negated));
+            graph.setResultListener(results::add);
+            graph.start();
+            for (int i = 0; i < 100; i++) graph.submit(i);
+            graph.complete();
+            assertTrue(graph.await(10, TimeUnit.SECONDS));
+            assertEquals(200, graph.succeeded());
+        }
+        assertEquals(200, results.size());
+        AgentResult<?> seven = results.stream().filter(r -> r.getSource().equals(7) && r.getValue().equals("v15")).findFirst().orElseThrow();
+        assertEquals("label", seven.getAgent());
+        assertTrue(results.stream().anyMatch(r -> r.getSource().equals(7) && r.getValue().equals("v-14")));
+    }
+
+    @Test
+    void failingInputIsReportedAndTheRestContinue() throws Exception {
+        List<AgentResult<?>> failures = Collections.synchronizedList(new ArrayList<>());
+        try (AgentGraph<Integer> graph = new AgentGraph<>()) {
+            graph.input()
+                    .then(Agent.of("check", (Integer i) -> {
+                        if (i == 3) throw new IllegalArgumentException("bad input");
+                        return i;
+                    }), 2)
+                    .then(Agent.of("square", (Integer i) -> i * i));
+            graph.setResultListener(r -> { if (!r.isSuccess()) failures.add(r); });
+            graph.start();
+            for (int i = 0; i < 10; i++) graph.submit(i);
+            graph.complete();
+            graph.await();
+            assertEquals(9, graph.succeeded());
+            assertEquals(1, graph.failed());
+        }
+        AgentResult<?> f = failures.get(0);
+        assertEquals(3, f.getSource());
+        assertEquals("check", f.getError().getAgent());
+        assertInstanceOf(IllegalArgumentException.class, f.getError().getCause());
+    }
+
+    @Test
+    void errorsAndInterruptsInAnAgentStillEndTheGraph() throws Exception {
+        List<AgentResult<?>> failures = Collections.synchronizedList(new ArrayList<>());
+        try (AgentGraph<Integer> graph = new AgentGraph<>(2)) {
+            // One worker: if it died on the first bad input, the rest would never be read.
+            graph.input()
+                    .then(new Agent<Integer, Integer>() {
+                        @Override public Integer process(Integer i) throws Exception {
+                            if (i == 2) throw new InterruptedException("spurious");
+                            if (i == 5) throw new AssertionError("broken invariant");
+                            return i;
+                        }
+                        @Override public String name() { return "fragile"; }
+                    }, 1)
+                    .then(Agent.of("copy", (Integer i) -> i));
+            graph.setResultListener(r -> { if (!r.isSuccess()) failures.add(r); });
+            graph.start();
+            for (int i = 0; i < 10; i++) graph.submit(i);
+            graph.complete();
+            assertTrue(graph.await(10, TimeUnit.SECONDS), "children got END");
+            assertEquals(8, graph.succeeded());
+            assertEquals(2, graph.failed());
+        }
+        assertTrue(failures.stream().allMatch(f -> f.getError().getAgent().equals("fragile")));
+        assertTrue(failures.stream().anyMatch(f -> f.getError().getCause() instanceof AssertionError));
+        assertTrue(failures.stream().anyMatch(f -> f.getError().getCause() instanceof InterruptedException));
+    }
+
+    @Test
+    void slowStageThrottlesSubmission() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        try (AgentGraph<Integer> graph = new AgentGraph<>(2)) {
+            graph.input().then(Agent.of("slow", (Integer i) -> {
+                started.incrementAndGet();
+                try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+                return i;
+            }), 1);
+            graph.start();
+            Thread producer = Thread.ofVirtual().start(() -> {
+                try { for (int i = 0; i < 10; i++) graph.submit(i); } catch (InterruptedException ignored) {}
+            });
+            // one item in the worker, two in the inbox, the producer blocked on the fourth
+            producer.join(300);
+            assertTrue(producer.isAlive(), "submit should block while the stage is backed up");
+            assertEquals(1, started.get());
+            release.countDown();
+            producer.join(5000);
+            assertFalse(producer.isAlive());
+            graph.complete();
+            assertTrue(graph.await(5, TimeUnit.SECONDS));
+            assertEquals(10, graph.succeeded());
+        }
+    }
+
+    @Test
+    void workersOfAStageRunConcurrently() throws Exception {
+        int n = 50;
+        CountDownLatch allIn = new CountDownLatch(n);
+        try (AgentGraph<Integer> graph = new AgentGraph<>(n)) {
+            // Only completes if all n inputs are being processed at the same time.
+            graph.input().then(Agent.of("barrier", (Integer i) -> {
+                allIn.countDown();
+                try { return allIn.await(5, TimeUnit.SECONDS); } catch (InterruptedException e) { return false; }
+            }), n);
+            List<Object> values = Collections.synchronizedList(new ArrayList<>());
+            graph.setResultListener(r -> values.add(r.getValue()));
+            graph.start();
+            for (int i = 0; i < n; i++) graph.submit(i);
+            graph.complete();
+            assertTrue(graph.await(10, TimeUnit.SECONDS));
+            assertEquals(n, values.size());
+            assertTrue(values.stream().allMatch(Boolean.TRUE::equals));
+        }
+    }
+
+    @Test
+    void adaptedAgentKeepsItsName() throws Exception {
+        Agent<String, Integer> length = new Agent<>() {
+            @Override public Integer process(String s) { return s.length(); }
+            @Override public String name() { return "length"; }
+        };
+        Agent<Integer, Integer> adapted = length.from(String::valueOf);
+        assertEquals("length", adapted.name());
+        assertEquals(4, adapted.process(1234));
+    }
+}
@@ -0,0 +1,87 @@
+package com.notesapp.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioChunkerTest {
+
+    static final float RATE = 16_000f;
+
+    @TempDir Path dir;
+
+    @Test
+    void cutsLandInPausesAndChunksOverlap() throws Exception {
+        // Five 1.7 s tones, each followed by 0.3 s of silence: pauses at 1.7-2.0 s, 3.7-4.0 s, ...
+        Path wav = writeBursts(dir.resolve("lecture.wav"), 5, 1700, 300);
+        AudioChunker chunker = new AudioChunker(Duration.ofSeconds(2), Duration.ofMillis(200), Duration.ofSeconds(1));
+        assertTrue(chunker.shouldSplit(wav));
+
+        List<AudioChunker.Chunk> chunks = chunker.split(wav, dir.resolve("chunks"));
+        assertTrue(chunks.size() >= 4, "10 s in ~2 s chunks: " + chunks.size());
+        assertEquals(0, chunks.get(0).getStartMs());
+        assertEquals(10_000, chunks.get(chunks.size() - 1).getEndMs());
+        for (int i = 1; i < chunks.size(); i++) {
+            long cut = chunks.get(i).getStartMs();
+            assertTrue(cut % 2000 >= 1700, "cut at " + cut + " ms is not in a pause");
+            assertEquals(cut + 200, chunks.get(i - 1).getEndMs(), "previous chunk runs 200 ms past the cut");
+        }
+        for (AudioChunker.Chunk c : chunks) {
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(c.getFile().toFile())) {
+                long ms = Math.round(in.getFrameLength() / RATE * 1000);
+                assertEquals(c.getEndMs() - c.getStartMs(), ms, 1);
+            }
+        }
+    }
+
+    @Test
+    void shortOrNonAudioFilesAreNotSplit() throws Exception {
+        AudioChunker chunker = new AudioChunker();
+        Path shortWav = writeBursts(dir.resolve("short.wav"), 2, 900, 100);
+        assertFalse(chunker.shouldSplit(shortWav));
+        assertEquals(List.of(shortWav), chunker.split(shortWav, dir.resolve("x")).stream().map(AudioChunker.Chunk::getFile).toList());
+        Path text = Files.writeString(dir.resolve("notes.wav"), "not audio");
+        assertFalse(chunker.shouldSplit(text));
+    }
+
+    @Test
+    void boundariesPickQuietestWindowBeforeTarget() {
+        float[] energy = new float[30];
+        java.util.Arrays.fill(energy, 5f);
+        energy[7] = 1f;
+        energy[8] = 0f;     // quietest within (10 - 4, 10]
+        energy[16] = 2f;
+        assertEquals(List.of(0, 8, 16), AudioChunker.boundaries(energy, 10, 4));
+    }
+
+    /** 16 kHz mono WAV of {@code n} sine bursts, burst k at amplitude 2000 * (k + 1). */
+    public static Path writeBursts(Path file, int n, int toneMs, int silenceMs) throws Exception {
+        int toneFrames = (int) (RATE * toneMs / 1000), silentFrames = (int) (RATE * silenceMs / 1000);
+        byte[] pcm = new byte[n * (toneFrames + silentFrames) * 2];
+        int pos = 0;
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < toneFrames; i++, pos += 2) {
+                short s = (short) (2000 * (k + 1) * Math.sin(2 * Math.PI * 440 * i / RATE));
+                pcm[pos] = (byte) s;
+                pcm[pos + 1] = (byte) (s >> 8);
+            }
+            pos += silentFrames * 2;
+        }
+        AudioFormat format = new AudioFormat(RATE, 16, 1, true, false);
+        try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm), format, pcm.length / 2)) {
+            AudioSystem.write(in, AudioFileFormat.Type.WAVE, file.toFile());
+        }
+        return file;
+    }
+}
@@ -0,0 +1,133 @@
+package com.notesapp.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioNormalizerTest {
+
+    @TempDir Path dir;
+
+    /** {@code seconds} of a sine at {@code hz} in every channel, 16-bit, with {@code amplitude} of full scale. */
+    private Path sine(String name, int rate, int channels, double hz, double seconds, double amplitude) throws IOException {
+        int frames = (int) (rate * seconds);
+        ByteBuffer pcm = ByteBuffer.allocate(frames * channels * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < frames; i++) {
+            short s = (short) Math.round(Math.sin(2 * Math.PI * hz * i / rate) * amplitude * 32767);
+            for (int c = 0; c < channels; c++) pcm.putShort(s);
+        }
+        AudioFormat fmt = new AudioFormat(rate, 16, channels, true, false);
+        Path p = dir.resolve(name);
+        try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm.array()), fmt, frames)) {
+            AudioSystem.write(in, AudioFileFormat.Type.WAVE, p.toFile());
+        }
+        return p;
+    }
+
+    private static short[] samples(Path wav) throws Exception {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(wav.toFile())) {
+            byte[] b = in.readAllBytes();
+            short[] out = new short[b.length / 2];
+            ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(out);
+            return out;
+        }
+    }
+
+    private static double rms(short[] s, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) sum += (double) s[i] * s[i];
+        return Math.sqrt(sum / (to - from)) / 32767;
+    }
+
+    @Test
+    void resamplesStereo48kToMono16kInSmallBlocks() throws Exception {
+        Path src = sine("lecture.wav", 48_000, 2, 440, 2.0, 0.5);
+        Path out = dir.resolve("out.wav");
+
+        // Blocks far smaller than the file: every block boundary must be seamless.
+        long frames = new AudioNormalizer(1000).normalize(src, out);
+
+        assertEquals(32_000, frames);
+        AudioInfo info = AudioInfo.probe(out);
+        assertTrue(AudioNormalizer.isNormalized(info));
+        assertEquals(2_000, info.getDurationMs());
+        assertEquals(44 + 64_000, info.getSizeBytes());
+        short[] s = samples(out);
+        assertEquals(32_000, s.length);
+        assertEquals(0.5 / Math.sqrt(2), rms(s, 0, s.length), 0.01, "a 440 Hz tone keeps its level");
+        // A 440 Hz sine at half scale moves at most 2*pi*440/16000 * 16384 (about 2830) per sample.
+        double maxStep = 2 * Math.PI * 440 / 16_000 * 0.5 * 32767;
+        for (int i = 1; i < s.length; i++) {
+            assertTrue(Math.abs(s[i] - s[i - 1]) < maxStep * 1.05, "no discontinuity at sample " + i);
+        }
+    }
+
+    @Test
+    void upsamplesAndRejectsWhatItCannotDecode() throws Exception {
+        Path phone = sine("phone.wav", 8_000, 1, 200, 1.0, 0.25);
+        Path out = dir.resolve("phone-16k.wav");
+        long frames = new AudioNormalizer().normalize(phone, out);
+        assertEquals(16_000, frames, 1);
+        assertEquals(0.25 / Math.sqrt(2), rms(samples(out), 0, (int) frames), 0.01);
+
+        Path junk = Files.write(dir.resolve("junk.wav"), new byte[100]);
+        assertThrows(IOException.class, () -> new AudioNormalizer().normalize(junk, dir.resolve("junk-16k.wav")));
+        assertFalse(Files.exists(dir.resolve("junk-16k.wav")));
+    }
+
+    @Test
+    void cacheReusesCopiesAndReplacesThemWhenTheSourceChanges() throws Exception {
+        Path cacheDir = dir.resolve("cache");
+        NormalizedAudioCache cache = new NormalizedAudioCache(cacheDir);
+        Path already = sine("ready.wav", 16_000, 1, 300, 0.5, 0.5);
+        assertSame(already, cache.get(already));
+
+        Path src = sine("class.wav", 44_100, 2, 300, 1.0, 0.5);
+        Path copy = cache.get(src);
+        assertNotEquals(src, copy);
+        assertTrue(copy.startsWith(cacheDir));
+        FileTime written = Files.getLastModifiedTime(copy);
+        Files.setLastModifiedTime(copy, FileTime.fromMillis(written.toMillis() - 60_000));
+        assertEquals(copy, cache.get(src));
+        assertEquals(written.toMillis() - 60_000, Files.getLastModifiedTime(copy).toMillis(), "not rewritten");
+
+        sine("class.wav", 44_100, 2, 300, 3.0, 0.5);
+        Files.setLastModifiedTime(src, FileTime.fromMillis(Files.getLastModifiedTime(src).toMillis() + 5_000));
+        Path fresh = cache.get(src);
+        assertNotEquals(copy, fresh);
+        assertFalse(Files.exists(copy));
+        assertEquals(3_000, AudioInfo.probe(fresh).getDurationMs());
+        try (var files = Files.list(cacheDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void copiesOfRecordingsThatAreGoneAreRemoved() throws Exception {
+        Path cacheDir = dir.resolve("cache");
+        NormalizedAudioCache cache = new NormalizedAudioCache(cacheDir);
+        Path kept = sine("kept.wav", 44_100, 2, 300, 0.5, 0.5);
+        Path gone = sine("gone.wav", 44_100, 2, 300, 0.5, 0.5);
+        Path keptCopy = cache.get(kept);
+        Path goneCopy = cache.get(gone);
+
+        assertEquals(1, cache.retainOnly(List.of(kept)));
+        assertTrue(Files.exists(keptCopy));
+        assertFalse(Files.exists(goneCopy));
+        assertEquals(0, new NormalizedAudioCache(dir.resolve("never-used")).retainOnly(List.of()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.notesapp.audio;
+
+import com.notesapp.dao.RecordingDao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AudioProberTest {
+
+    @TempDir Path dir;
+
+    /** A PCM WAV of {@code dataBytes} zero samples, optionally with a LIST chunk of odd size before "data". */
+    private Path wav(String name, int rate, int channels, int dataBytes, boolean listChunk, long declaredData) throws IOException {
+        int blockAlign = channels * 2;
+        byte[] list = listChunk ? "INFOISFT\u0003\0\0\0ab\0".getBytes(StandardCharsets.ISO_8859_1) : new byte[0];
+        int listLen = list.length;
+        ByteBuffer b = ByteBuffer.allocate(12 + 24 + (listChunk ? 8 + listLen + (listLen & 1) : 0) + 8 + dataBytes)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        b.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(b.capacity() - 8).put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        b.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16).putShort((short) 1).putShort((short) channels)
+                .putInt(rate).putInt(rate * blockAlign).putShort((short) blockAlign).putShort((short) 16);
+        if (listChunk) {
+            b.put("LIST".getBytes(StandardCharsets.US_ASCII)).putInt(listLen).put(list);
+            if ((listLen & 1) == 1) b.put((byte) 0);
+        }
+        b.put("data".getBytes(StandardCharsets.US_ASCII)).putInt((int) declaredData);
+        Path p = dir.resolve(name);
+        Files.write(p, b.array());
+        return p;
+    }
+
+    @Test
+    void readsFormatAndDurationFromHeaderOnly() throws Exception {
+        AudioInfo info = AudioInfo.probe(wav("a.wav", 16_000, 1, 32_000 * 3, false, 32_000 * 3));
+        assertTrue(info.hasFormat());
+        assertEquals(16_000, info.getSampleRate());
+        assertEquals(1, info.getChannels());
+        assertEquals(16, info.getBitsPerSample());
+        assertEquals(3_000, info.getDurationMs());
+        assertEquals(44 + 96_000, info.getSizeBytes());
+
+        // Odd-sized metadata chunk before the data, and a header the recorder never finalized.
+        AudioInfo padded = AudioInfo.probe(wav("b.wav", 44_100, 2, 176_400, true, 0xFFFFFFFFL));
+        assertEquals(2, padded.getChannels());
+        assertEquals(1_000, padded.getDurationMs());
+
+        Path mp3 = dir.resolve("c.mp3");
+        Files.write(mp3, new byte[1234]);
+        AudioInfo other = AudioInfo.probe(mp3);
+        assertFalse(other.hasFormat());
+        assertEquals(1234, other.getSizeBytes());
+    }
+
+    @Test
+    void probesInParallelAndUpdatesRecordingsInOneBatch() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            RecordingDao dao = new RecordingDao(conn);
+            Map<Long, Path> files = new LinkedHashMap<>();
+            for (int i = 1; i <= 20; i++) {
+                Path p = wav(i + ".wav", 8_000, 1, 16_000 * i, false, 16_000 * i);
+                files.put(dao.insert("r" + i, p.toString(), 0L, i), p);
+            }
+            long missing = dao.insert("gone", dir.resolve("gone.wav").toString(), 5_000L, 99L);
+            assertEquals(21, dao.findAudioPaths(true).size());
+
+            List<IOException> errors = new ArrayList<>();
+            Map<Long, Path> all = new LinkedHashMap<>(files);
+            all.put(missing, dir.resolve("gone.wav"));
+            Map<Long, AudioInfo> found = new AudioProber(4).probeAll(all, errors::add);
+            assertEquals(20, found.size());
+            assertEquals(1, errors.size());
+            assertEquals(List.copyOf(files.keySet()), List.copyOf(found.keySet()), "input order is kept");
+
+            assertEquals(20, dao.updateAudioInfo(found));
+            assertEquals(List.of(missing), List.copyOf(dao.findAudioPaths(true).keySet()));
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT duration_ms, sample_rate, channels FROM recordings WHERE title = 'r7'")) {
+                assertTrue(rs.next());
+                assertEquals(7_000, rs.getLong(1));
+                assertEquals(8_000, rs.getInt(2));
+                assertEquals(1, rs.getInt(3));
+            }
+            long seventh = List.copyOf(files.keySet()).get(6);
+            assertEquals(7, dao.findById(seventh).orElseThrow().getDurationSec());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.notesapp.bench;
+
+import com.notesapp.export.PdfExporter;
+import com.notesapp.export.PdfTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-document cost of exporting a short note with the shared {@link PdfTemplate#NOTES}
+ * versus resolving fonts and styles for every document, as PdfExporter did before.
+ * Output goes to a null stream so only setup and rendering are measured.
+ *
+ * Run with:
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main PdfTemplateBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfTemplateBenchmark {
+
+    private static final String NOTE = "Midterm covers chapters 3-5.\nBring a calculator.";
+    private static final String TRANSCRIPT = "Today we look at recursion.\nA function that calls itself...";
+
+    @Benchmark
+    public void sharedTemplate() throws Exception {
+        render(PdfTemplate.NOTES);
+    }
+
+    @Benchmark
+    public void perDocumentSetup() throws Exception {
+        render(PdfTemplate.notes());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void sharedTemplateConcurrent() throws Exception {
+        render(PdfTemplate.NOTES);
+    }
+
+    private static void render(PdfTemplate template) throws Exception {
+        PdfExporter.export(template, "Lecture 12", new StringReader(NOTE), new StringReader(TRANSCRIPT),
+                OutputStream.nullOutputStream());
+    }
+}
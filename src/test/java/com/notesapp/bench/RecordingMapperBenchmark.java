@@ -0,0 +1,114 @@
+package com.notesapp.bench;
+
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.RecordingMapper;
+import com.notesapp.model.Recording;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps 100k {@code recordings} rows with the precompiled {@link RecordingMapper}
+ * versus the reflective setter probing RecordingDao used before it.
+ *
+ * Run with:
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main RecordingMapperBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordingMapperBenchmark {
+
+    private static final String SELECT = "SELECT id, title, audio_path AS _path, duration_ms AS _duration_ms, "
+            + "created_at AS _created_at, class_name, tag FROM recordings";
+
+    @Param("100000")
+    public int rows;
+
+    private Connection conn;
+
+    @Setup
+    public void setup() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        RecordingDao.createTable(conn);
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO recordings(title, audio_path, duration_ms, created_at, class_name, tag) VALUES (?,?,?,?,?,?)")) {
+            for (int i = 0; i < rows; i++) {
+                ps.setString(1, "Lecture " + i);
+                ps.setString(2, "/data/audio/lecture-" + i + ".wav");
+                ps.setLong(3, 60_000L + i);
+                ps.setLong(4, 1_700_000_000_000L + i);
+                ps.setString(5, "CPS-" + (i % 20));
+                ps.setString(6, i % 3 == 0 ? "exam" : "");
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        conn.close();
+    }
+
+    @Benchmark
+    public void precompiled(Blackhole bh) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) bh.consume(RecordingMapper.fromRow(rs));
+        }
+    }
+
+    @Benchmark
+    public void reflective(Blackhole bh) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) bh.consume(Reflective.mapToModel(rs));
+        }
+    }
+
+    /** The row mapping RecordingDao used before RecordingMapper, kept verbatim for comparison. */
+    static final class Reflective {
+        static Recording mapToModel(ResultSet rs) throws SQLException {
+            long id         = rs.getLong("id");
+            String title    = rs.getString("title");
+            String filePath = rs.getString("_path");
+            long durationMs = rs.getLong("_duration_ms");
+            long createdAt  = rs.getLong("_created_at");
+            String classNm  = rs.getString("class_name");
+            String tag      = rs.getString("tag");
+            Recording r = new Recording();
+            setLong(r, "setId", id);
+            setString(r, "setTitle", title);
+            setString(r, "setFilePath", filePath);
+            setString(r, "setPath", filePath);
+            setString(r, "setAudioPath", filePath);
+            setLong(r, "setDurationMs", durationMs);
+            setLong(r, "setDuration", durationMs);
+            setLong(r, "setCreatedAt", createdAt);
+            setString(r, "setClassName", classNm);
+            setString(r, "setTag", tag);
+            setFieldIfPresent(r, "tag", tag);
+            return r;
+        }
+        private static void setString(Object o, String setter, String v) {
+            try { Method m = o.getClass().getMethod(setter, String.class); m.invoke(o, v); } catch (Exception ignored) {}
+        }
+        private static void setLong(Object o, String setter, long v) {
+            try { Method m = o.getClass().getMethod(setter, long.class); m.invoke(o, v); } catch (Exception ignored) {}
+            try { Method m = o.getClass().getMethod(setter, Long.class); m.invoke(o, v); } catch (Exception ignored) {}
+        }
+        private static void setFieldIfPresent(Object o, String name, Object v) {
+            try { Field f = o.getClass().getDeclaredField(name); f.setAccessible(true); f.set(o, v); } catch (Exception ignored) {}
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.notesapp.transcription;
+
+import com.notesapp.audio.AudioChunker;
+import com.notesapp.audio.AudioChunkerTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedTranscriptionServiceTest {
+
+    static final String EXPECTED = "w1 w2 w3 w4 w5 w6 w7 w8 w9 w10 w11 w12 w13 w14 w15";
+
+    @TempDir Path dir;
+
+    @Test
+    void chunksAreTranscribedInParallelAndStitchedInOrder() throws Exception {
+        // Fifteen 0.3 s "words" with 0.1 s pauses; a 0.9 s overlap repeats two or three of them.
+        Path wav = AudioChunkerTest.writeBursts(dir.resolve("long.wav"), 15, 300, 100);
+        AtomicInteger live = new AtomicInteger(), peak = new AtomicInteger();
+        List<Path> seen = new ArrayList<>();
+        TranscriptionService burstReader = audio -> {
+            synchronized (seen) { seen.add(audio); }
+            peak.accumulateAndGet(live.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+                return wordsFor(audio);
+            } finally {
+                live.decrementAndGet();
+            }
+        };
+        var chunked = new ChunkedTranscriptionService(burstReader,
+                new AudioChunker(Duration.ofSeconds(2), Duration.ofMillis(900), Duration.ofMillis(500)), 4);
+
+        assertEquals(EXPECTED, chunked.transcribeAudio(wav));
+        assertTrue(peak.get() > 1, "chunks should run concurrently");
+        assertTrue(seen.size() > 1);
+        for (Path chunk : seen) assertFalse(Files.exists(chunk), "chunk files are removed afterwards");
+
+        List<TranscriptSegment> segments = new ArrayList<>();
+        chunked.transcribeStreaming(wav, segments::add);
+        assertEquals(EXPECTED,
+                String.join(" ", segments.stream().map(TranscriptSegment::getText).toList()));
+        assertEquals(0, segments.get(0).getStartMs());
+    }
+
+    @Test
+    void shortFilesGoStraightToTheDelegate() throws Exception {
+        Path wav = AudioChunkerTest.writeBursts(dir.resolve("short.wav"), 1, 500, 100);
+        var chunked = new ChunkedTranscriptionService(audio -> "whole:" + audio.getFileName());
+        assertEquals("whole:short.wav", chunked.transcribeAudio(wav));
+    }
+
+    @Test
+    void overlappingWordsAreDroppedOnce() {
+        assertEquals("over the lazy dog", ChunkedTranscriptionService.dropRepeatedPrefix(
+                "the quick brown fox jumps", "Fox, jumps over the lazy dog"));
+        assertEquals("the end", ChunkedTranscriptionService.dropRepeatedPrefix("up to the", "the end"),
+                "a single shared word is not treated as overlap");
+        assertEquals("fresh start", ChunkedTranscriptionService.dropRepeatedPrefix("", "fresh start"));
+    }
+
+    /**
+     * One word per complete tone burst ("w" + amplitude level); bursts cut short by a chunk
+     * edge are heard as the word repeated, as whisper would, to exercise de-duplication.
+     */
+    private static String wordsFor(Path chunk) throws Exception {
+        List<String> words = new ArrayList<>();
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(chunk.toFile())) {
+            byte[] pcm = in.readAllBytes();
+            int window = 320;   // 20 ms at 16 kHz
+            int run = 0, peak = 0;
+            for (int w = 0; w * window * 2 < pcm.length; w++) {
+                int max = 0;
+                for (int i = w * window * 2; i + 1 < Math.min(pcm.length, (w + 1) * window * 2); i += 2) {
+                    max = Math.max(max, Math.abs((short) ((pcm[i + 1] << 8) | (pcm[i] & 0xff))));
+                }
+                if (max > 100) {
+                    run++;
+                    peak = Math.max(peak, max);
+                } else {
+                    if (run > 0) words.add("w" + Math.round(peak / 2000.0));
+                    run = 0;
+                    peak = 0;
+                }
+            }
+            if (run > 0) words.add("w" + Math.round(peak / 2000.0));
+        }
+        return String.join(" ", words);
+    }
+}
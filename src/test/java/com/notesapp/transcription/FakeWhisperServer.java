@@ -0,0 +1,62 @@
+package com.notesapp.transcription;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for whisper.cpp's server, run as its own process by {@link WhisperServerPoolTest}:
+ * {@code FakeWhisperServer <port> <loadMs> <dieAfter> [inferMs]}. It "loads a model" for
+ * {@code loadMs} before listening, answers /health and /inference like the real server, taking
+ * {@code inferMs} per inference, and exits after {@code dieAfter} inferences (0 = never).
+ * Responses name the process and its request count.
+ */
+public class FakeWhisperServer {
+
+    private static final Pattern FILENAME = Pattern.compile("filename=\"([^\"]*)\"");
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(args[0]);
+        Thread.sleep(Long.parseLong(args[1]));
+        int dieAfter = Integer.parseInt(args[2]);
+        long inferMs = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        AtomicInteger served = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(Executors.newCachedThreadPool());   // /health answers during a slow inference
+        server.createContext("/health", ex -> reply(ex, 200, "{\"status\":\"ok\"}"));
+        server.createContext("/inference", ex -> {
+            String body = new String(ex.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+            Matcher m = FILENAME.matcher(body);
+            String file = m.find() ? m.group(1) : "?";
+            int n = served.incrementAndGet();
+            String who = "pid " + ProcessHandle.current().pid() + " request " + n;
+            if (dieAfter > 0 && n > dieAfter) Runtime.getRuntime().halt(3);
+            try {
+                Thread.sleep(inferMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (body.contains("name=\"response_format\"\r\n\r\nsrt")) {
+                reply(ex, 200, "1\n00:00:00,000 --> 00:00:01,500\n " + file + "\n\n2\n00:00:01,500 --> 00:00:03,000\n " + who + "\n\n");
+            } else {
+                reply(ex, 200, " " + file + " by " + who + "\n");
+            }
+        });
+        server.start();
+    }
+
+    private static void reply(HttpExchange ex, int status, String text) throws IOException {
+        byte[] out = text.getBytes(StandardCharsets.UTF_8);
+        ex.sendResponseHeaders(status, out.length);
+        ex.getResponseBody().write(out);
+        ex.close();
+    }
+}
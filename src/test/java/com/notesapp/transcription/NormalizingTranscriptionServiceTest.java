@@ -0,0 +1,85 @@
+package com.notesapp.transcription;
+
+import com.notesapp.audio.AudioInfo;
+import com.notesapp.audio.AudioNormalizer;
+import com.notesapp.audio.NormalizedAudioCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizingTranscriptionServiceTest {
+
+    @TempDir Path dir;
+
+    /** Remembers the file it was handed; {@code modelId} as given. */
+    private static final class Recorder implements TranscriptionService {
+        final List<Path> heard = new ArrayList<>();
+        final String model;
+        Recorder(String model) { this.model = model; }
+        @Override public String transcribeAudio(Path audio) { heard.add(audio); return "ok"; }
+        @Override public String modelId() { return model; }
+    }
+
+    private Path silence(String name, int rate, int channels) throws Exception {
+        int frames = rate / 2;
+        AudioFormat fmt = new AudioFormat(rate, 16, channels, true, false);
+        Path p = dir.resolve(name);
+        try (AudioInputStream in = new AudioInputStream(
+                new ByteArrayInputStream(new byte[frames * channels * 2]), fmt, frames)) {
+            AudioSystem.write(in, AudioFileFormat.Type.WAVE, p.toFile());
+        }
+        return p;
+    }
+
+    @Test
+    void delegateGetsA16kMonoCopy() throws Exception {
+        Recorder delegate = new Recorder("m");
+        Path cacheDir = dir.resolve("cache");
+        var service = new NormalizingTranscriptionService(delegate, new NormalizedAudioCache(cacheDir), null);
+        Path stereo = silence("stereo.wav", 44_100, 2);
+
+        service.transcribeAudio(stereo);
+        service.transcribeStreaming(stereo, seg -> {});
+
+        assertEquals(2, delegate.heard.size());
+        assertTrue(delegate.heard.get(0).startsWith(cacheDir));
+        assertEquals(delegate.heard.get(0), delegate.heard.get(1), "the copy is made once");
+        assertTrue(AudioNormalizer.isNormalized(AudioInfo.probe(delegate.heard.get(0))));
+    }
+
+    @Test
+    void audioThatIsReadyOrUndecodablePassesThrough() throws Exception {
+        Recorder delegate = new Recorder("m");
+        List<String> reported = new ArrayList<>();
+        var service = new NormalizingTranscriptionService(delegate, new NormalizedAudioCache(dir.resolve("cache")), reported::add);
+        Path ready = silence("ready.wav", 16_000, 1);
+        Path junk = Files.write(dir.resolve("junk.wav"), new byte[100]);
+        Path missing = dir.resolve("missing.wav");
+
+        service.transcribeAudio(ready);
+        service.transcribeAudio(junk);
+        service.transcribeAudio(missing);
+
+        assertEquals(List.of(ready, junk, missing), delegate.heard);
+        assertEquals(1, reported.size(), "only the undecodable file is reported: " + reported);
+        assertTrue(reported.get(0).contains("junk.wav"));
+    }
+
+    @Test
+    void resamplingIsPartOfTheModelId() {
+        NormalizedAudioCache cache = new NormalizedAudioCache(dir);
+        assertEquals("whisper|pcm16k", new NormalizingTranscriptionService(new Recorder("whisper"), cache).modelId());
+        assertNull(new NormalizingTranscriptionService(new Recorder(null), cache).modelId(), "no model, no caching");
+    }
+}
@@ -0,0 +1,160 @@
+package com.notesapp.transcription;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptCacheDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscriptCacheTest {
+
+    @TempDir Path dir;
+    private Connection conn;
+    private RecordingDao rdao;
+    private TranscriptDao tdao;
+    private NoteDao ndao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        rdao = new RecordingDao(conn);
+        tdao = new TranscriptDao(conn);
+        ndao = new NoteDao(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        conn.close();
+    }
+
+    /** Counts calls; text depends on the model name so model changes are visible. */
+    private static final class CountingService implements TranscriptionService {
+        final AtomicInteger calls = new AtomicInteger();
+        String model = "model-a";
+        @Override public String transcribeAudio(Path audio) { calls.incrementAndGet(); return "heard by " + model; }
+        @Override public String modelId() { return model; }
+    }
+
+    @Test
+    void copiedAudioIsServedFromCache() throws Exception {
+        Path original = Files.write(dir.resolve("lecture.wav"), new byte[]{1, 2, 3, 4, 5});
+        Path copy = Files.copy(original, dir.resolve("lecture-copy.wav"));
+        CountingService service = new CountingService();
+        var manager = new TranscriptionManager(conn, service, tdao, ndao, new TranscriptCache(conn));
+
+        long first = rdao.insert("First", original.toString(), 0L, 1L);
+        long second = rdao.insert("Second", copy.toString(), 0L, 2L);
+        assertEquals("heard by model-a", manager.transcribeAndStore(first, original));
+        assertEquals("heard by model-a", manager.transcribeAndStore(second, copy));
+        assertEquals(1, service.calls.get(), "identical content is transcribed once");
+        assertEquals("heard by model-a", tdao.findByRecordingId(second).orElseThrow().getText());
+
+        service.model = "model-b";
+        assertEquals("heard by model-b", manager.transcribeAndStore(second, copy));
+        assertEquals(2, service.calls.get(), "a different model is a cache miss");
+    }
+
+    @Test
+    void streamingUsesAndFillsTheCache() throws Exception {
+        Path audio = Files.write(dir.resolve("a.wav"), new byte[]{9, 9, 9});
+        AtomicInteger calls = new AtomicInteger();
+        TranscriptionService streaming = new TranscriptionService() {
+            @Override public String transcribeAudio(Path p) { throw new AssertionError("streaming only"); }
+            @Override public void transcribeStreaming(Path p, java.util.function.Consumer<TranscriptSegment> out) {
+                calls.incrementAndGet();
+                out.accept(new TranscriptSegment(0, 1000, "line one"));
+                out.accept(new TranscriptSegment(1000, 2000, "line two"));
+            }
+            @Override public String modelId() { return "stream-model"; }
+        };
+        var manager = new TranscriptionManager(conn, streaming, tdao, ndao, new TranscriptCache(conn));
+        long a = rdao.insert("A", audio.toString(), 0L, 1L);
+        long b = rdao.insert("B", audio.toString(), 0L, 2L);
+        assertEquals(2, manager.transcribeStreaming(a, audio, null));
+        StringBuilder heard = new StringBuilder();
+        assertEquals(2, manager.transcribeStreaming(b, audio,
+                seg -> heard.append(seg.getStartMs()).append('-').append(seg.getEndMs()).append(' ').append(seg.getText()).append('|')));
+        assertEquals(1, calls.get());
+        assertEquals("0-1000 line one|1000-2000 line two|", heard.toString(), "a hit replays the original timing");
+        assertEquals("line one\nline two", tdao.findByRecordingId(b).orElseThrow().getText());
+        assertEquals(2, new TranscriptSegmentDao(conn).count(b));
+    }
+
+    @Test
+    void textCachedWithoutTimingIsNotReplayedAsSegments() throws Exception {
+        Path audio = Files.write(dir.resolve("t.wav"), new byte[]{4, 2});
+        CountingService service = new CountingService();
+        var manager = new TranscriptionManager(conn, service, tdao, ndao, new TranscriptCache(conn));
+        long a = rdao.insert("A", audio.toString(), 0L, 1L);
+        long b = rdao.insert("B", audio.toString(), 0L, 2L);
+        manager.transcribeAndStore(a, audio);
+
+        AtomicInteger heard = new AtomicInteger();
+        assertEquals(0, manager.transcribeStreaming(b, audio, seg -> heard.incrementAndGet()));
+        assertEquals(0, heard.get(), "no made-up timestamps");
+        assertEquals(1, service.calls.get());
+        assertEquals("heard by model-a", tdao.findByRecordingId(b).orElseThrow().getText());
+        assertEquals(0, new TranscriptSegmentDao(conn).count(b));
+    }
+
+    @Test
+    void servicesWithoutAModelIdAreNotCached() throws Exception {
+        Path audio = Files.write(dir.resolve("n.wav"), new byte[]{3});
+        AtomicInteger calls = new AtomicInteger();
+        TranscriptionService anonymous = p -> { calls.incrementAndGet(); return "text"; };
+        var manager = new TranscriptionManager(conn, anonymous, tdao, ndao, new TranscriptCache(conn));
+        long rid = rdao.insert("N", audio.toString(), 0L, 1L);
+        manager.transcribeAndStore(rid, audio);
+        manager.transcribeAndStore(rid, audio);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void blankResultsAreNotCached() throws Exception {
+        Path audio = Files.write(dir.resolve("p.wav"), new byte[]{7});
+        AtomicInteger calls = new AtomicInteger();
+        TranscriptionService silent = new TranscriptionService() {
+            @Override public String transcribeAudio(Path p) { calls.incrementAndGet(); return " "; }
+            @Override public String modelId() { return "model-a"; }
+        };
+        var manager = new TranscriptionManager(conn, silent, tdao, ndao, new TranscriptCache(conn));
+        long rid = rdao.insert("P", audio.toString(), 0L, 1L);
+        manager.transcribeAndStore(rid, audio);
+        manager.transcribeAndStore(rid, audio);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedOverTheCap() throws Exception {
+        TranscriptCache cache = new TranscriptCache(conn, 25);
+        cache.put("h1", "m", "0123456789");           // 10 bytes
+        Thread.sleep(2);
+        cache.put("h2", "m", "0123456789");
+        Thread.sleep(2);
+        assertTrue(cache.get("h1", "m").isPresent());  // h1 now more recent than h2
+        Thread.sleep(2);
+        cache.put("h3", "m", "0123456789");            // 30 bytes > 25: drop h2
+        assertTrue(cache.get("h1", "m").isPresent());
+        assertTrue(cache.get("h2", "m").isEmpty());
+        assertTrue(cache.get("h3", "m").isPresent());
+        assertEquals(20, new TranscriptCacheDao(conn).totalBytes());
+    }
+
+    @Test
+    void hashIsOfContent() throws Exception {
+        Path a = Files.writeString(dir.resolve("x"), "abc");
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", TranscriptCache.sha256(a));
+    }
+}
@@ -0,0 +1,258 @@
+package com.notesapp.transcription;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import com.notesapp.dao.TranscriptionJobDao;
+import com.notesapp.dao.TranscriptionJobDao.Status;
+import com.notesapp.db.ConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscriptionSchedulerTest {
+
+    @TempDir Path dir;
+    private ConnectionManager cm;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cm = ConnectionManager.open(dir.resolve("jobs.db"), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cm.close();
+    }
+
+    @Test
+    void workersRunJobsInParallelAndStoreResults() throws Exception {
+        long[] ids = insertRecordings(12);
+        AtomicInteger live = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        TranscriptionService slow = audio -> {
+            peak.accumulateAndGet(live.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } finally {
+                live.decrementAndGet();
+            }
+            return "text of " + audio.getFileName();
+        };
+        try (var scheduler = new TranscriptionScheduler(cm::writer, slow, 4)) {
+            assertEquals(12, scheduler.enqueueUntranscribed(0));
+            assertEquals(0, scheduler.enqueueUntranscribed(0), "already queued recordings are skipped");
+            scheduler.runUntilIdle();
+            assertEquals(12, scheduler.progress().count(Status.DONE));
+        }
+        assertEquals(4, peak.get());
+        try (Connection r = cm.reader()) {
+            for (int i = 0; i < ids.length; i++) {
+                assertEquals("text of r" + i + ".wav", new TranscriptDao(r).findByRecordingId(ids[i]).orElseThrow().getText());
+                assertTrue(new NoteDao(r).findByRecordingId(ids[i]).isPresent());
+            }
+        }
+    }
+
+    @Test
+    void higherPriorityRunsFirst() throws Exception {
+        long[] ids = insertRecordings(3);
+        List<String> order = new CopyOnWriteArrayList<>();
+        TranscriptionService record = audio -> { order.add(audio.getFileName().toString()); return "ok"; };
+        try (var scheduler = new TranscriptionScheduler(cm::writer, record, 1)) {
+            scheduler.enqueue(ids[0], audio(0), 0);
+            scheduler.enqueue(ids[1], audio(1), 5);
+            scheduler.enqueue(ids[2], audio(2), 1);
+            scheduler.runUntilIdle();
+        }
+        assertEquals(List.of("r1.wav", "r2.wav", "r0.wav"), order);
+    }
+
+    @Test
+    void jobsStoreTimedSegments() throws Exception {
+        long[] ids = insertRecordings(1);
+        TranscriptionService streaming = new TranscriptionService() {
+            @Override public String transcribeAudio(Path audio) { throw new AssertionError("streaming only"); }
+            @Override public void transcribeStreaming(Path audio, java.util.function.Consumer<TranscriptSegment> out) {
+                out.accept(new TranscriptSegment(0, 1_200, "first words"));
+                out.accept(new TranscriptSegment(1_200, 2_500, "then more"));
+            }
+        };
+        try (var scheduler = new TranscriptionScheduler(cm::writer, streaming, 1)) {
+            scheduler.enqueueUntranscribed(0);
+            scheduler.runUntilIdle();
+        }
+        try (Connection r = cm.reader()) {
+            assertEquals("first words\nthen more", new TranscriptDao(r).findByRecordingId(ids[0]).orElseThrow().getText());
+            List<TranscriptSegment> segs = new TranscriptSegmentDao(r).findRange(ids[0], 1_000, 3_000);
+            assertEquals(2, segs.size());
+            assertEquals(1_200, segs.get(1).getStartMs());
+            assertEquals("then more", segs.get(1).getText());
+        }
+    }
+
+    @Test
+    void failedJobsAreRetriedWithBackoffThenGiveUp() throws Exception {
+        long[] ids = insertRecordings(2);
+        Map<Path, AtomicInteger> calls = new ConcurrentHashMap<>();
+        TranscriptionService flaky = audio -> {
+            int n = calls.computeIfAbsent(audio, a -> new AtomicInteger()).incrementAndGet();
+            if (audio.equals(audio(0)) && n < 3) throw new IllegalStateException("flaky " + n);
+            if (audio.equals(audio(1))) throw new IOException("whisper.cpp failed with exit code 1");
+            return "third time lucky";
+        };
+        long first, second;
+        try (var scheduler = new TranscriptionScheduler(cm::writer, flaky, 2, Duration.ofMillis(20))) {
+            first = scheduler.enqueue(ids[0], audio(0), 0);
+            second = scheduler.enqueue(ids[1], audio(1), 0);
+            scheduler.runUntilIdle();
+        }
+        try (Connection r = cm.reader()) {
+            TranscriptionJobDao jobs = new TranscriptionJobDao(r);
+            var ok = jobs.findById(first).orElseThrow();
+            assertEquals(Status.DONE, ok.getStatus());
+            assertEquals(3, ok.getAttempts());
+            var failed = jobs.findById(second).orElseThrow();
+            assertEquals(Status.FAILED, failed.getStatus());
+            assertEquals(TranscriptionJobDao.DEFAULT_MAX_ATTEMPTS, failed.getAttempts());
+            assertEquals("whisper.cpp failed with exit code 1", failed.getLastError());
+            assertTrue(new TranscriptDao(r).findByRecordingId(ids[1]).isEmpty(), "a failed run stores nothing");
+        }
+    }
+
+    @Test
+    void anUnavailableTranscriberFailsTheJobWithoutRetrying() throws Exception {
+        long[] ids = insertRecordings(1);
+        AtomicInteger calls = new AtomicInteger();
+        TranscriptionService missing = audio -> {
+            calls.incrementAndGet();
+            throw new TranscriptionUnavailableException("missing whisper.cpp binary or model");
+        };
+        long job;
+        try (var scheduler = new TranscriptionScheduler(cm::writer, missing, 1, Duration.ofMillis(20))) {
+            job = scheduler.enqueue(ids[0], audio(0), 0);
+            scheduler.runUntilIdle();
+        }
+        assertEquals(1, calls.get());
+        try (Connection r = cm.reader()) {
+            var failed = new TranscriptionJobDao(r).findById(job).orElseThrow();
+            assertEquals(Status.FAILED, failed.getStatus());
+            assertEquals("missing whisper.cpp binary or model", failed.getLastError());
+        }
+    }
+
+    @Test
+    void cancellingARunningJobInterruptsItAndStoresNothing() throws Exception {
+        long[] ids = insertRecordings(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        TranscriptionService service = audio -> {
+            if (audio.equals(audio(0))) {
+                started.countDown();
+                Thread.sleep(30_000);   // interrupted by cancel
+            }
+            secondDone.countDown();
+            return "second";
+        };
+        try (var scheduler = new TranscriptionScheduler(cm::writer, service, 1)) {
+            long job = scheduler.enqueue(ids[0], audio(0), 1);
+            scheduler.enqueue(ids[1], audio(1), 0);
+            scheduler.start();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(scheduler.cancel(job));
+            assertTrue(secondDone.await(5, TimeUnit.SECONDS), "worker moves on to the next job");
+            try (Connection r = cm.reader()) {
+                assertEquals(Status.CANCELLED, new TranscriptionJobDao(r).findById(job).orElseThrow().getStatus());
+                assertTrue(new TranscriptDao(r).findByRecordingId(ids[0]).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void cancellingKillsARunningWhisperProcess() throws Exception {
+        long[] ids = insertRecordings(2);
+        Path pidFile = dir.resolve("whisper.pid");
+        // Blocks on the first recording after one segment, as a long run would; $6 is the audio path.
+        Path bin = dir.resolve("whisper");
+        Files.writeString(bin, """
+                #!/bin/sh
+                case "$6" in
+                  *r0.wav) echo "[00:00:00.000 --> 00:00:01.000]   started"; echo $$ > "%s"; exec sleep 60 ;;
+                  *) echo "[00:00:00.000 --> 00:00:01.000]   second" ;;
+                esac
+                """.formatted(pidFile));
+        Files.setPosixFilePermissions(bin, PosixFilePermissions.fromString("rwx------"));
+        Path model = Files.writeString(dir.resolve("ggml-test.bin"), "model");
+        Files.writeString(audio(0), "audio");
+        Files.writeString(audio(1), "audio");
+        try (var scheduler = new TranscriptionScheduler(cm::writer, new WhisperCppTranscriber(bin, model, 1), 1)) {
+            long job = scheduler.enqueue(ids[0], audio(0), 1);
+            scheduler.enqueue(ids[1], audio(1), 0);
+            scheduler.start();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!Files.exists(pidFile) || Files.readString(pidFile).isBlank()) {
+                assertTrue(System.currentTimeMillis() < deadline, "whisper never started");
+                Thread.sleep(20);
+            }
+            ProcessHandle whisper = ProcessHandle.of(Long.parseLong(Files.readString(pidFile).trim())).orElseThrow();
+
+            assertTrue(scheduler.cancel(job));
+            whisper.onExit().get(5, TimeUnit.SECONDS);
+            assertFalse(whisper.isAlive());
+            deadline = System.currentTimeMillis() + 5_000;
+            while (!scheduler.progress().isIdle()) {
+                assertTrue(System.currentTimeMillis() < deadline, "worker moves on to the next job");
+                Thread.sleep(20);
+            }
+            try (Connection r = cm.reader()) {
+                assertEquals(Status.CANCELLED, new TranscriptionJobDao(r).findById(job).orElseThrow().getStatus());
+                assertTrue(new TranscriptDao(r).findByRecordingId(ids[0]).isEmpty());
+                assertEquals("second", new TranscriptDao(r).findByRecordingId(ids[1]).orElseThrow().getText());
+            }
+        }
+    }
+
+    @Test
+    void oneActiveJobPerRecording() throws Exception {
+        long[] ids = insertRecordings(1);
+        try (Connection w = cm.writer()) {
+            TranscriptionJobDao jobs = new TranscriptionJobDao(w);
+            long a = jobs.enqueue(ids[0], "/a.wav", 0);
+            assertEquals(a, jobs.enqueue(ids[0], "/a.wav", 9));
+            assertTrue(jobs.claimNext(System.currentTimeMillis()).isPresent());
+            assertTrue(jobs.markDone(a));
+            assertNotEquals(a, jobs.enqueue(ids[0], "/a.wav", 0), "a finished job does not block a new one");
+        }
+    }
+
+    private long[] insertRecordings(int n) throws Exception {
+        long[] ids = new long[n];
+        try (Connection w = cm.writer()) {
+            RecordingDao dao = new RecordingDao(w);
+            for (int i = 0; i < n; i++) ids[i] = dao.insert("Recording " + i, audio(i).toString(), 0L, i);
+        }
+        return ids;
+    }
+
+    private Path audio(int index) {
+        return dir.resolve("r" + index + ".wav");
+    }
+}
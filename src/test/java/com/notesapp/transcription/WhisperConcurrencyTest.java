@@ -0,0 +1,68 @@
+package com.notesapp.transcription;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhisperConcurrencyTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void parallelJobsGetTheirOwnOutputAndRespectTheLimit() throws Exception {
+        Path log = dir.resolve("events.log");
+        Path bin = dir.resolve("whisper");
+        // Writes "<audio name>" to <-of>.txt, logging start/end so overlap can be measured.
+        Files.writeString(bin, """
+                #!/bin/sh
+                while [ $# -gt 0 ]; do
+                  case "$1" in -of) OF="$2"; shift;; -f) F="$2"; shift;; esac
+                  shift
+                done
+                echo "start $OF" >> "%s"
+                sleep 0.3
+                basename "$F" > "$OF.txt"
+                echo "end $OF" >> "%s"
+                """.formatted(log, log));
+        Files.setPosixFilePermissions(bin, PosixFilePermissions.fromString("rwx------"));
+        Path model = Files.writeString(dir.resolve("model.bin"), "model");
+
+        var transcriber = new WhisperCppTranscriber(bin, model, 2);
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                Path audio = Files.writeString(dir.resolve("job" + i + ".wav"), "audio");
+                results.add(pool.submit(() -> transcriber.transcribeAudio(audio)));
+            }
+            for (int i = 0; i < 6; i++) {
+                assertEquals("job" + i + ".wav", results.get(i).get().strip(), "each job reads its own output");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int running = 0, peak = 0;
+        List<String> events = Files.readAllLines(log);
+        for (String e : events) {
+            running += e.startsWith("start") ? 1 : -1;
+            peak = Math.max(peak, running);
+        }
+        assertEquals(2, peak, "two processes at a time, never more");
+        for (String e : events) {
+            Path out = Path.of(e.substring(e.indexOf(' ') + 1));
+            assertFalse(Files.exists(out.getParent()), "job directory removed: " + out.getParent());
+        }
+        assertFalse(Files.exists(Path.of("out.txt")), "nothing written to the working directory");
+    }
+}
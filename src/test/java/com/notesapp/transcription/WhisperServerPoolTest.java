@@ -0,0 +1,128 @@
+package com.notesapp.transcription;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhisperServerPoolTest {
+
+    @TempDir Path dir;
+
+    /** Starts {@link FakeWhisperServer} on the given port in a fresh JVM. */
+    private static WhisperServerPool pool(int size, long loadMs, int dieAfter) {
+        return pool(size, loadMs, dieAfter, 0);
+    }
+
+    private static WhisperServerPool pool(int size, long loadMs, int dieAfter, long inferMs) {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new WhisperServerPool(port -> List.of(java, "-cp", System.getProperty("java.class.path"),
+                FakeWhisperServer.class.getName(), String.valueOf(port), String.valueOf(loadMs), String.valueOf(dieAfter),
+                String.valueOf(inferMs)),
+                size, "fake-model", Duration.ofSeconds(30));
+    }
+
+    private Path clip(String name) throws Exception {
+        Path p = dir.resolve(name);
+        Files.write(p, new byte[2048]);
+        return p;
+    }
+
+    private static String pid(String reply) {
+        return reply.substring(reply.indexOf("pid "), reply.indexOf(" request"));
+    }
+
+    @Test
+    void modelIsLoadedOncePerServerNotPerClip() throws Exception {
+        try (WhisperServerPool pool = pool(2, 300, 0)) {
+            pool.start();
+            assertEquals(2, pool.starts());
+            Set<String> pids = ConcurrentHashMap.newKeySet();
+            ExecutorService callers = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<String>> replies = new ArrayList<>();
+                for (int i = 0; i < 12; i++) {
+                    Path clip = clip("clip" + i + ".wav");
+                    replies.add(callers.submit(() -> pool.transcribeAudio(clip)));
+                }
+                for (int i = 0; i < replies.size(); i++) {
+                    String text = replies.get(i).get();
+                    assertTrue(text.startsWith("clip" + i + ".wav by pid "), text);
+                    pids.add(pid(text));
+                }
+            } finally {
+                callers.shutdown();
+            }
+            assertEquals(2, pids.size(), "every clip went to one of the two warm servers");
+            assertEquals(2, pool.starts(), "no server was started again");
+            assertEquals("fake-model", pool.modelId());
+        }
+    }
+
+    @Test
+    void deadServerIsRestartedAndTheJobRetried() throws Exception {
+        try (WhisperServerPool pool = pool(1, 0, 2)) {
+            Set<String> pids = ConcurrentHashMap.newKeySet();
+            for (int i = 0; i < 5; i++) {
+                String text = pool.transcribeAudio(clip("c" + i + ".wav"));
+                assertTrue(text.startsWith("c" + i + ".wav"), text);
+                pids.add(pid(text));
+            }
+            assertEquals(3, pool.starts(), "the process dies on every third request");
+            assertEquals(3, pids.size());
+        }
+    }
+
+    @Test
+    void closingThePoolReleasesWaitingCallersWithoutRestartingServers() throws Exception {
+        WhisperServerPool pool = pool(1, 0, 0, 30_000);
+        pool.start();
+        Path busy = clip("busy.wav");
+        Path waiting = clip("waiting.wav");
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> running = callers.submit(() -> pool.transcribeAudio(busy));
+            Thread.sleep(500);   // the only server is now busy with the first clip
+            Future<String> queued = callers.submit(() -> pool.transcribeAudio(waiting));
+            Thread.sleep(200);
+            long t0 = System.nanoTime();
+            pool.close();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertThrows(ExecutionException.class, () -> running.get(10, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(10));
+            assertEquals(1, pool.starts(), "a server stopped by close() is not replaced");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void segmentsComeFromSrtOutput() throws Exception {
+        try (WhisperServerPool pool = pool(1, 0, 0)) {
+            List<TranscriptSegment> segs = new ArrayList<>();
+            pool.transcribeStreaming(clip("lecture.wav"), segs::add);
+            assertEquals(2, segs.size());
+            assertEquals("lecture.wav", segs.get(0).getText());
+            assertEquals(1_500, segs.get(1).getStartMs());
+            assertEquals(3_000, segs.get(1).getEndMs());
+
+            assertThrows(TranscriptionUnavailableException.class, () -> pool.transcribeAudio(dir.resolve("missing.wav")));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.notesapp.transcription;
+
+import com.notesapp.dao.NoteDao;
+import com.notesapp.dao.RecordingDao;
+import com.notesapp.dao.TranscriptDao;
+import com.notesapp.dao.TranscriptSegmentDao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhisperStreamingTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void parsesWhisperSegmentLines() {
+        TranscriptSegment seg = TranscriptSegment.parse("[00:01:02.340 --> 01:00:05.120]   Hello there ");
+        assertNotNull(seg);
+        assertEquals(62_340, seg.getStartMs());
+        assertEquals(3_605_120, seg.getEndMs());
+        assertEquals("Hello there", seg.getText());
+        assertEquals("[01:02] Hello there", seg.toString());
+        assertNull(TranscriptSegment.parse("whisper_init_from_file: loading model"));
+        assertNull(TranscriptSegment.parse(""));
+    }
+
+    @Test
+    void segmentsArriveWhileProcessIsRunning() throws Exception {
+        // The fake binary only prints its second segment once the first has been received.
+        Path marker = dir.resolve("first-seen");
+        Path bin = fakeWhisper("""
+                echo "whisper_init_from_file: loading model" >&2
+                echo "[00:00:00.000 --> 00:00:02.000]   hello"
+                i=0
+                while [ ! -f "%s" ] && [ $i -lt 50 ]; do sleep 0.1; i=$((i+1)); done
+                if [ -f "%s" ]; then echo "[00:00:02.000 --> 00:00:04.000]   world"; else echo "[00:00:02.000 --> 00:00:04.000]   late"; fi
+                """.formatted(marker, marker));
+        List<String> texts = new ArrayList<>();
+        new WhisperCppTranscriber(bin, model()).transcribeStreaming(audio(), seg -> {
+            texts.add(seg.getText());
+            try {
+                if (!Files.exists(marker)) Files.createFile(marker);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertEquals(List.of("hello", "world"), texts);
+    }
+
+    @Test
+    void managerPersistsStreamedTranscript() throws Exception {
+        Path bin = fakeWhisper("""
+                for i in $(seq 1 40); do echo "[00:00:$(printf %02d $i).000 --> 00:00:$(printf %02d $i).500]   line $i"; done
+                """);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            RecordingDao rdao = new RecordingDao(conn);
+            TranscriptDao tdao = new TranscriptDao(conn);
+            NoteDao ndao = new NoteDao(conn);
+            long rid = rdao.insert("Streamed", audio().toString(), 0L, 1L);
+            tdao.upsertByRecordingId(rid, "stale transcript");
+
+            var manager = new TranscriptionManager(new WhisperCppTranscriber(bin, model()), ndao, tdao);
+            assertEquals(40, manager.transcribeStreaming(rid, audio(), null));
+
+            String text = tdao.findByRecordingId(rid).orElseThrow().getText();
+            assertTrue(text.startsWith("line 1\nline 2\n"), text);
+            assertTrue(text.endsWith("line 40"), text);
+            assertEquals(40, text.split("\n").length);
+            assertTrue(ndao.findByRecordingId(rid).isPresent());
+
+            TranscriptSegmentDao segments = new TranscriptSegmentDao(conn);
+            assertEquals(40, segments.count(rid), "timings are kept alongside the text");
+            assertEquals(List.of("line 10", "line 11"),
+                    segments.findRange(rid, 10_000, 12_000).stream().map(TranscriptSegment::getText).toList());
+        }
+    }
+
+    @Test
+    void transcriptRowIsWrittenOncePerRun() throws Exception {
+        Path bin = fakeWhisper("""
+                for i in $(seq 1 100); do echo "[00:00:00.000 --> 00:00:01.000]   line $i"; done
+                """);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            RecordingDao rdao = new RecordingDao(conn);
+            TranscriptDao tdao = new TranscriptDao(conn);
+            long rid = rdao.insert("Long", audio().toString(), 0L, 1L);
+            try (Statement st = conn.createStatement()) {
+                // Each write to the row re-indexes the whole text for search: count them.
+                st.execute("CREATE TEMP TABLE row_writes(n INTEGER)");
+                st.execute("CREATE TEMP TRIGGER count_ai AFTER INSERT ON transcripts BEGIN INSERT INTO row_writes VALUES (1); END");
+                st.execute("CREATE TEMP TRIGGER count_au AFTER UPDATE ON transcripts BEGIN INSERT INTO row_writes VALUES (1); END");
+            }
+
+            var manager = new TranscriptionManager(new WhisperCppTranscriber(bin, model()), new NoteDao(conn), tdao);
+            assertEquals(100, manager.transcribeStreaming(rid, audio(), null));
+
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT count(*) FROM row_writes")) {
+                assertEquals(1, rs.getInt(1), "100 segments in 7 batches, one transcript write");
+            }
+            assertEquals(100, tdao.findByRecordingId(rid).orElseThrow().getText().split("\n").length);
+        }
+    }
+
+    @Test
+    void failedRerunKeepsThePreviousTranscript() throws Exception {
+        Path good = fakeWhisper("""
+                echo "[00:00:00.000 --> 00:00:01.000]   first take"
+                echo "[00:00:01.000 --> 00:00:02.000]   still good"
+                """);
+        // Enough output to be staged in batches before it fails.
+        Path failing = fakeWhisper("""
+                for i in $(seq 1 30); do echo "[00:00:00.000 --> 00:00:01.000]   partial $i"; done
+                exit 3
+                """);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            RecordingDao rdao = new RecordingDao(conn);
+            TranscriptDao tdao = new TranscriptDao(conn);
+            NoteDao ndao = new NoteDao(conn);
+            long rid = rdao.insert("Rerun", audio().toString(), 0L, 1L);
+            new TranscriptionManager(new WhisperCppTranscriber(good, model()), ndao, tdao).transcribeStreaming(rid, audio(), null);
+
+            var rerun = new TranscriptionManager(new WhisperCppTranscriber(failing, model()), ndao, tdao);
+            assertThrows(Exception.class, () -> rerun.transcribeStreaming(rid, audio(), null));
+
+            assertEquals("first take\nstill good", tdao.findByRecordingId(rid).orElseThrow().getText());
+            TranscriptSegmentDao segments = new TranscriptSegmentDao(conn);
+            assertEquals(2, segments.count(rid));
+            assertEquals("", segments.stagedText(rid), "the failed run's draft is dropped");
+        }
+    }
+
+    @Test
+    void nonZeroExitIsReported() throws Exception {
+        Path bin = fakeWhisper("echo \"[00:00:00.000 --> 00:00:01.000]   partial\"\nexit 3\n");
+        List<TranscriptSegment> got = new ArrayList<>();
+        Exception e = assertThrows(Exception.class,
+                () -> new WhisperCppTranscriber(bin, model()).transcribeStreaming(audio(), got::add));
+        assertTrue(e.getMessage().contains("exit code 3"), e.getMessage());
+        assertEquals(1, got.size());
+    }
+
+    private Path fakeWhisper(String body) throws Exception {
+        Path bin = dir.resolve("whisper-" + System.nanoTime());
+        Files.writeString(bin, "#!/bin/sh\n" + body);
+        Files.setPosixFilePermissions(bin, PosixFilePermissions.fromString("rwx------"));
+        return bin;
+    }
+
+    private Path model() throws Exception {
+        Path m = dir.resolve("ggml-test.bin");
+        if (!Files.exists(m)) Files.writeString(m, "model");
+        return m;
+    }
+
+    private Path audio() throws Exception {
+        Path a = dir.resolve("a.wav");
+        if (!Files.exists(a)) Files.writeString(a, "audio");
+        return a;
+    }
+}
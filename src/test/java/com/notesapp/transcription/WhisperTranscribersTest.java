@@ -0,0 +1,38 @@
+package com.notesapp.transcription;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WhisperTranscribersTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void withoutLibraryTheCliIsUsedSilently() {
+        TranscriptionService cli = new WhisperCppTranscriber();
+        List<String> reasons = new ArrayList<>();
+
+        assertSame(cli, WhisperTranscribers.select(null, dir.resolve("model.bin"), cli, reasons::add));
+        assertTrue(reasons.isEmpty());
+    }
+
+    @Test
+    void unusableLibraryFallsBackToTheCli() throws Exception {
+        Path notALibrary = Files.writeString(dir.resolve("libwhisper.so"), "not a shared object");
+        Path model = Files.writeString(dir.resolve("model.bin"), "weights");
+        TranscriptionService cli = new WhisperCppTranscriber();
+        List<String> reasons = new ArrayList<>();
+
+        // Default build: the FFM class is absent. With -Pffm: the library does not load.
+        assertSame(cli, WhisperTranscribers.select(notALibrary, model, cli, reasons::add));
+        assertEquals(1, reasons.size());
+        assertTrue(reasons.get(0).contains("libwhisper.so"), reasons.get(0));
+    }
+}
@@ -0,0 +1,90 @@
+package com.notesapp.transcription.ffm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs with {@code mvn -Pffm test}; needs no libwhisper. */
+class WhisperFfmTranscriberTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void paramsLayoutMatchesWhisperH() {
+        // Offsets of whisper.cpp 1.5's struct whisper_full_params on LP64 targets.
+        assertEquals(256, WhisperFfmTranscriber.FULL_PARAMS.byteSize());
+        assertEquals(8, WhisperFfmTranscriber.offset("n_max_text_ctx"));
+        assertEquals(32, WhisperFfmTranscriber.offset("thold_pt"));
+        assertEquals(64, WhisperFfmTranscriber.offset("initial_prompt"));
+        assertEquals(88, WhisperFfmTranscriber.offset("language"));
+        assertEquals(112, WhisperFfmTranscriber.offset("temperature_inc"));
+        assertEquals(144, WhisperFfmTranscriber.offset("new_segment_callback"));
+        assertEquals(152, WhisperFfmTranscriber.offset("new_segment_callback_user_data"));
+        assertEquals(192, WhisperFfmTranscriber.offset("abort_callback"));
+        assertEquals(224, WhisperFfmTranscriber.offset("grammar_rules"));
+    }
+
+    @Test
+    void abortCallbackFollowsTheCallersInterruptFlag() throws Throwable {
+        Thread caller = new Thread(() -> {});
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment stub = WhisperFfmTranscriber.abortOnInterrupt(caller, arena);
+            MethodHandle abort = Linker.nativeLinker().downcallHandle(stub, WhisperFfmTranscriber.ABORT);
+            assertFalse((boolean) abort.invokeExact(MemorySegment.NULL));
+            caller.interrupt();   // asked from this thread, as ggml's workers would
+            assertTrue((boolean) abort.invokeExact(MemorySegment.NULL));
+            assertFalse(Thread.currentThread().isInterrupted());
+        }
+    }
+
+    @Test
+    void stereoSamplesAreAveragedIntoOffHeapFloats() throws Exception {
+        short[][] frames = {{16384, 0}, {-32768, -32768}, {1000, 3000}};
+        ByteBuffer pcm = ByteBuffer.allocate(frames.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (short[] f : frames) pcm.putShort(f[0]).putShort(f[1]);
+        Path wav = write(pcm.array(), 2, 16_000);
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment samples = WhisperFfmTranscriber.readSamples(wav, arena);
+            assertTrue(samples.isNative());
+            assertEquals(3, samples.byteSize() / Float.BYTES);
+            assertEquals(0.25f, samples.getAtIndex(JAVA_FLOAT, 0));
+            assertEquals(-1.0f, samples.getAtIndex(JAVA_FLOAT, 1));
+            assertEquals(2000 / 32768f, samples.getAtIndex(JAVA_FLOAT, 2), 1e-6);
+        }
+    }
+
+    @Test
+    void otherSampleRatesAreRefused() throws Exception {
+        Path wav = write(new byte[400], 1, 44_100);
+        try (Arena arena = Arena.ofConfined()) {
+            IOException e = assertThrows(IOException.class, () -> WhisperFfmTranscriber.readSamples(wav, arena));
+            assertTrue(e.getMessage().contains("16 kHz"), e.getMessage());
+        }
+    }
+
+    private Path write(byte[] pcm, int channels, int rate) throws IOException {
+        AudioFormat fmt = new AudioFormat(rate, 16, channels, true, false);
+        Path p = dir.resolve("in-" + channels + "-" + rate + ".wav");
+        try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm), fmt, pcm.length / fmt.getFrameSize())) {
+            AudioSystem.write(in, AudioFileFormat.Type.WAVE, p.toFile());
+        }
+        return p;
+    }
+}
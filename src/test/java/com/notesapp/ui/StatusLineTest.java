@@ -0,0 +1,58 @@
+package com.notesapp.ui;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusLineTest {
+
+    @Test
+    void olderActionFinishingUnderAnotherKeyDoesNotTouchTheBoundLabel() {
+        StringProperty label = new SimpleStringProperty("Ready");
+        StatusLine status = new StatusLine(label);
+        StringProperty noteMessage = new SimpleStringProperty("📄 Loading note...");
+        StringProperty searchMessage = new SimpleStringProperty("🔍 Searching...");
+        Object noteTask = new Object();
+        Object searchTask = new Object();
+
+        status.bind(noteTask, noteMessage);
+        status.bind(searchTask, searchMessage);   // "search" starts while "note" still runs
+        assertEquals("🔍 Searching...", label.get());
+
+        // "note" finishes first: its text must wait, the label stays bound to "search".
+        assertFalse(status.release(noteTask));
+        status.show("Ready");
+        assertTrue(label.isBound());
+        assertEquals("🔍 Searching...", label.get());
+
+        searchMessage.set("🔍 Ranking...");
+        assertEquals("🔍 Ranking...", label.get());
+
+        // "search" finishes: the held-back text shows, then its own result replaces it.
+        assertTrue(status.release(searchTask));
+        assertFalse(label.isBound());
+        assertEquals("Ready", label.get());
+        status.show("✅ 3 result(s).");
+        assertEquals("✅ 3 result(s).", label.get());
+    }
+
+    @Test
+    void releasingTheShownActionKeepsItsLastMessage() {
+        StringProperty label = new SimpleStringProperty("");
+        StatusLine status = new StatusLine(label);
+        StringProperty message = new SimpleStringProperty("💾 Saving note...");
+        Object save = new Object();
+
+        status.bind(save, message);
+        assertTrue(status.release(save));
+        assertEquals("💾 Saving note...", label.get());
+        assertFalse(status.release(save), "already released");
+
+        status.show(null);
+        assertEquals("💾 Saving note...", label.get());
+        status.show("✅ Note saved.");
+        assertEquals("✅ Note saved.", label.get());
+    }
+}